@@ -0,0 +1,27 @@
+#!/bin/sh
+# Training run for the class data sharing archive of a fast-start build (mvn -Pfast-start package).
+# Starts the context up to refresh and exits, recording the loaded classes in the archive.
+#
+# Usage: cds-training-run.sh <app jar with lib/ next to it> <archive file>
+#
+# No database is needed: Flyway and schema validation are switched off and Hibernate does not read
+# JDBC metadata. This runs in JIT mode because AOT mode fixes Flyway on at build time; the archive
+# still covers the framework, Hibernate, Jackson and Tomcat classes the AOT run loads.
+# The archive is only valid for the same JDK build, so run this in the runtime image.
+set -e
+
+JAR="${1:?usage: cds-training-run.sh <jar> <archive>}"
+ARCHIVE="${2:?usage: cds-training-run.sh <jar> <archive>}"
+
+java -XX:ArchiveClassesAtExit="$ARCHIVE" \
+    -Dspring.context.exit=onRefresh \
+    -jar "$JAR" \
+    --spring.flyway.enabled=false \
+    --spring.jpa.hibernate.ddl-auto=none \
+    --spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect \
+    --spring.jpa.properties.hibernate.temp.use_jdbc_metadata_defaults=false \
+    --gcs.project-id=cds-training \
+    --logging.level.root=WARN
+
+test -s "$ARCHIVE"
+echo "CDS archive written to $ARCHIVE"
@@ -0,0 +1,82 @@
+#!/bin/sh
+# Time-to-first-request of the regular build versus the fast-start build (AOT + CDS) on this machine.
+# Each variant is started RUNS times; the time from launching the JVM to the first successful
+# response from /readyz is reported, together with the application's own startup log line.
+# A summary (median, min and max per variant, plus the JVM and CPU count) is written as a Markdown
+# table to RESULTS, ready to paste into the "Startup time" section of benchmarks/README.md.
+#
+# Needs the dev database (docker-compose up -d postgres) and is run from backend/:
+#   scripts/measure-startup.sh [RUNS]
+set -e
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+WORK="${TMPDIR:-/tmp}/startup-measurement"
+RESULTS="${RESULTS:-$WORK/results.md}"
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints milliseconds from launch to first 200 response, then stops the JVM
+time_to_first_request() {
+    log="$1"; shift
+    start=$(now_ms)
+    "$@" --server.port="$PORT" --management.server.port=0 > "$log" 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$PORT/readyz" > /dev/null; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Application exited, see $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    end=$(now_ms)
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo $((end - start))
+}
+
+measure() {
+    name="$1"; shift
+    echo "== $name"
+    : > "$WORK/$name.times"
+    i=1
+    while [ "$i" -le "$RUNS" ]; do
+        ms=$(time_to_first_request "$WORK/$name-$i.log" "$@")
+        echo "$ms" >> "$WORK/$name.times"
+        echo "run $i: ${ms} ms to first request; $(grep -o 'Started in [0-9]* ms since JVM start' "$WORK/$name-$i.log")"
+        i=$((i + 1))
+    done
+    sort -n "$WORK/$name.times" | awk -v name="$name" '
+        { times[NR] = $1 }
+        END {
+            median = NR % 2 ? times[(NR + 1) / 2] : (times[NR / 2] + times[NR / 2 + 1]) / 2
+            printf "| %s | %d | %d | %d | %d |\n", name, median, times[1], times[NR], NR
+        }' >> "$RESULTS"
+}
+
+rm -rf "$WORK"
+mvn -B -q clean package -DskipTests
+mkdir -p "$WORK/baseline"
+cp target/*-exec.jar "$WORK/baseline/app.jar"
+
+mvn -B -q clean package -DskipTests -Pfast-start
+mkdir -p "$WORK/fast-start"
+cp -r target/lib "$WORK/fast-start/lib"
+cp target/backend-*.jar "$WORK/fast-start/app.jar"
+sh scripts/cds-training-run.sh "$WORK/fast-start/app.jar" "$WORK/fast-start/app.jsa"
+
+{
+    echo "Time to first request, $(date -u +%Y-%m-%d), $(java -version 2>&1 | head -n 1), $(nproc) CPUs"
+    echo
+    echo "| Variant | Median (ms) | Min (ms) | Max (ms) | Runs |"
+    echo "|---------|-------------|----------|----------|------|"
+} > "$RESULTS"
+
+measure baseline java -jar "$WORK/baseline/app.jar"
+measure fast-start java -XX:SharedArchiveFile="$WORK/fast-start/app.jsa" -Dspring.aot.enabled=true \
+    -jar "$WORK/fast-start/app.jar"
+
+echo
+cat "$RESULTS"
@@ -0,0 +1,51 @@
+package com.hotelsaas.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-tenant admission control in front of the connection pool: token-bucket rate limits per
+ * endpoint class, then a fair share of a fixed number of database permits.
+ */
+@ConfigurationProperties(prefix = "app.admission")
+@Data
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    // Requests using the database at once, all tenants together; keep below the pool size so
+    // background jobs still get a connection
+    private int dbPermits = 4;
+
+    // No tenant holds more than this many permits, whatever the load of the others
+    private int maxDbPermitsPerTenant = 3;
+
+    // Requests of one tenant waiting for a permit; more are rejected at once
+    private int maxQueuedPerTenant = 20;
+
+    private Duration queueTimeout = Duration.ofSeconds(2);
+
+    // Permits granted per turn of the round robin, by tenant id; 1 when absent
+    private Map<String, Integer> tenantWeights = new HashMap<>();
+
+    // Not admitted through the queue: long-lived streams hold no connection
+    private List<String> excludedPaths = List.of("/api/stream/**");
+
+    // Endpoint classes in match order; a request takes the first class matching its path and method
+    private Map<String, EndpointClass> classes = new LinkedHashMap<>();
+
+    @Data
+    public static class EndpointClass {
+        private List<String> paths = List.of("/**");
+        // Empty matches every method
+        private List<String> methods = List.of();
+        private double ratePerSecond = 50;
+        private int burst = 100;
+    }
+}
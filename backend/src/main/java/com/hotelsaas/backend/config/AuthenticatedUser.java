@@ -0,0 +1,12 @@
+package com.hotelsaas.backend.config;
+
+import com.hotelsaas.backend.model.UserRole;
+
+import java.util.UUID;
+
+/**
+ * Principal built from a verified application JWT.
+ * Available in controllers through {@code @AuthenticationPrincipal}.
+ */
+public record AuthenticatedUser(UUID userId, UUID tenantId, String email, UserRole role) {
+}
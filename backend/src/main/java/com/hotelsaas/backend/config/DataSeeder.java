@@ -4,6 +4,7 @@ import com.hotelsaas.backend.model.User;
 import com.hotelsaas.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -18,11 +19,19 @@ public class DataSeeder {
     private final UserRepository userRepository;
     private final TestUsersConfig testUsersConfig;
 
+    // Off in prod: saves the startup query and never seeds test users there
+    @Value("${app.seed.test-users:true}")
+    private boolean seedTestUsers;
+
     @Bean
     CommandLineRunner seedDatabase() {
         return args -> {
+            if (!seedTestUsers) {
+                return;
+            }
             // Only seed if no users exist
-            if (userRepository.count() == 0) {
+            long existingUsers = userRepository.count();
+            if (existingUsers == 0) {
                 log.info("Seeding database with test users from configuration...");
 
                 if (testUsersConfig.getUsers().isEmpty()) {
@@ -56,7 +65,7 @@ public class DataSeeder {
                 log.info("Database seeding completed. Created {} out of {} configured users.",
                     createdCount, testUsersConfig.getUsers().size());
             } else {
-                log.info("Database already contains {} users. Skipping seed.", userRepository.count());
+                log.info("Database already contains {} users. Skipping seed.", existingUsers);
             }
         };
     }
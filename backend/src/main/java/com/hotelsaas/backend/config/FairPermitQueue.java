@@ -0,0 +1,196 @@
+package com.hotelsaas.backend.config;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * A fixed number of permits shared between tenants by weighted round robin. When permits run
+ * out, each tenant queues separately; a released permit goes to the tenant whose turn it is, which
+ * keeps it for up to its weight in grants before the turn passes on. A tenant never holds more
+ * than maxPerTenant permits, so one tenant's backlog cannot take the whole pool.
+ */
+final class FairPermitQueue {
+
+    enum Result { ACQUIRED, QUEUE_FULL, TIMED_OUT }
+
+    private final int maxPerTenant;
+    private final int maxQueuedPerTenant;
+    private final ToIntFunction<UUID> weights;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private int available;
+    private int queued;
+    private final Map<UUID, TenantQueue> tenants = new HashMap<>();
+    // Tenants with waiters, the one whose turn it is first
+    private final ArrayDeque<TenantQueue> turns = new ArrayDeque<>();
+
+    private static final class TenantQueue {
+        final UUID tenantId;
+        final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        int inUse;
+        int grantsThisTurn;
+
+        TenantQueue(UUID tenantId) {
+            this.tenantId = tenantId;
+        }
+    }
+
+    private static final class Waiter {
+        final Condition granted;
+        boolean acquired;
+
+        Waiter(Condition granted) {
+            this.granted = granted;
+        }
+    }
+
+    FairPermitQueue(int permits, int maxPerTenant, int maxQueuedPerTenant, ToIntFunction<UUID> weights) {
+        this.available = permits;
+        this.maxPerTenant = maxPerTenant;
+        this.maxQueuedPerTenant = maxQueuedPerTenant;
+        this.weights = weights;
+    }
+
+    Result acquire(UUID tenantId, long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            TenantQueue tenant = tenants.computeIfAbsent(tenantId, TenantQueue::new);
+            // Permits left over are never wanted by a waiting tenant (they would have been handed out)
+            if (available > 0 && tenant.waiters.isEmpty() && tenant.inUse < maxPerTenant) {
+                available--;
+                tenant.inUse++;
+                return Result.ACQUIRED;
+            }
+            if (tenant.waiters.size() >= maxQueuedPerTenant) {
+                return Result.QUEUE_FULL;
+            }
+            Waiter waiter = new Waiter(lock.newCondition());
+            tenant.waiters.add(waiter);
+            queued++;
+            if (tenant.waiters.size() == 1) {
+                turns.add(tenant);
+            }
+
+            long remaining = timeoutNanos;
+            try {
+                while (!waiter.acquired) {
+                    if (remaining <= 0) {
+                        abandon(tenant, waiter);
+                        return Result.TIMED_OUT;
+                    }
+                    remaining = waiter.granted.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.acquired) {
+                    releaseLocked(tenant);
+                } else {
+                    abandon(tenant, waiter);
+                }
+                throw e;
+            }
+            return Result.ACQUIRED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(UUID tenantId) {
+        lock.lock();
+        try {
+            TenantQueue tenant = tenants.get(tenantId);
+            if (tenant != null) {
+                releaseLocked(tenant);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int queued(UUID tenantId) {
+        lock.lock();
+        try {
+            TenantQueue tenant = tenants.get(tenantId);
+            return tenant != null ? tenant.waiters.size() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int available() {
+        lock.lock();
+        try {
+            return available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked(TenantQueue tenant) {
+        tenant.inUse--;
+        available++;
+        dispatch();
+        forgetIfIdle(tenant);
+    }
+
+    private void abandon(TenantQueue tenant, Waiter waiter) {
+        tenant.waiters.remove(waiter);
+        queued--;
+        if (tenant.waiters.isEmpty()) {
+            turns.remove(tenant);
+            tenant.grantsThisTurn = 0;
+        }
+        forgetIfIdle(tenant);
+    }
+
+    /**
+     * Hand free permits to waiting tenants in turn, skipping those at their limit
+     */
+    private void dispatch() {
+        int skipped = 0;
+        while (available > 0 && !turns.isEmpty() && skipped < turns.size()) {
+            TenantQueue tenant = turns.peek();
+            if (tenant.inUse >= maxPerTenant) {
+                turns.add(turns.poll());
+                tenant.grantsThisTurn = 0;
+                skipped++;
+                continue;
+            }
+            skipped = 0;
+            Waiter waiter = tenant.waiters.poll();
+            waiter.acquired = true;
+            waiter.granted.signal();
+            available--;
+            queued--;
+            tenant.inUse++;
+            tenant.grantsThisTurn++;
+            if (tenant.waiters.isEmpty()) {
+                turns.poll();
+                tenant.grantsThisTurn = 0;
+            } else if (tenant.grantsThisTurn >= Math.max(1, weights.applyAsInt(tenant.tenantId))) {
+                turns.add(turns.poll());
+                tenant.grantsThisTurn = 0;
+            }
+        }
+    }
+
+    private void forgetIfIdle(TenantQueue tenant) {
+        if (tenant.inUse == 0 && tenant.waiters.isEmpty()) {
+            tenants.remove(tenant.tenantId);
+        }
+    }
+}
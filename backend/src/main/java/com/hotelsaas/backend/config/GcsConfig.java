@@ -6,6 +6,7 @@ import com.google.cloud.storage.StorageOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -19,7 +20,12 @@ public class GcsConfig {
     @Value("${gcs.credentials-path:}")
     private String credentialsPath;
 
+    /**
+     * Created on first use: resolving credentials and building the client is not needed to serve
+     * the first request after a cold start
+     */
     @Bean
+    @Lazy
     public Storage storage() throws IOException {
         StorageOptions.Builder builder = StorageOptions.newBuilder()
                 .setProjectId(projectId);
@@ -0,0 +1,30 @@
+package com.hotelsaas.backend.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Smile and CBOR alongside JSON: clients send Accept: application/x-jackson-smile or
+ * application/cbor to get the same model in a compact binary encoding. Spring MVC would register
+ * both converters on its own, but with a plain ObjectMapper; these are built from Boot's
+ * Jackson2ObjectMapperBuilder (a fresh prototype per injection) so dates, modules and
+ * spring.jackson.* settings match the JSON output, and replace the defaults.
+ */
+@Configuration
+public class HttpEncodingConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,104 @@
+package com.hotelsaas.backend.config;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded in-memory map of idempotency keys to the request in flight or the stored response.
+ * Every entry lives for the same TTL, so insertion order is also expiry order: a FIFO queue
+ * serves both TTL eviction and the size bound (counted in insertions, at most two per key),
+ * without a background thread.
+ */
+final class IdempotencyCache {
+
+    record Key(UUID tenantId, String idempotencyKey) {
+    }
+
+    /**
+     * Response of a completed request, and the request it answered
+     */
+    record Response(String fingerprint, int status, String contentType, byte[] body) {
+    }
+
+    // response is null while the request is in flight
+    private record Entry(Response response, long expiresAtNanos) {
+    }
+
+    private record Insertion(Key key, Entry entry) {
+    }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Insertion> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger insertions = new AtomicInteger();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    IdempotencyCache(int maxEntries, long ttlNanos) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+    }
+
+    /**
+     * @return the stored response, or null if the key is unknown, expired or in flight
+     */
+    Response completed(Key key) {
+        Entry entry = entries.get(key);
+        return entry != null && !expired(entry, System.nanoTime()) ? entry.response() : null;
+    }
+
+    /**
+     * Mark the key as in flight
+     * @return false if the key is already in flight or completed
+     */
+    boolean claim(Key key) {
+        Entry claimed = new Entry(null, System.nanoTime() + ttlNanos);
+        Entry existing = entries.putIfAbsent(key, claimed);
+        if (existing != null && (!expired(existing, System.nanoTime()) || !entries.replace(key, existing, claimed))) {
+            return false;
+        }
+        track(key, claimed);
+        return true;
+    }
+
+    void complete(Key key, Response response) {
+        Entry entry = new Entry(response, System.nanoTime() + ttlNanos);
+        entries.put(key, entry);
+        track(key, entry);
+    }
+
+    /**
+     * Forget an in-flight key, so the request can be retried
+     */
+    void release(Key key) {
+        entries.computeIfPresent(key, (k, entry) -> entry.response() == null ? null : entry);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static boolean expired(Entry entry, long now) {
+        return entry.expiresAtNanos() - now < 0;
+    }
+
+    private void track(Key key, Entry entry) {
+        insertionOrder.add(new Insertion(key, entry));
+        insertions.incrementAndGet();
+        long now = System.nanoTime();
+        Insertion oldest;
+        while ((oldest = insertionOrder.peek()) != null
+                && (insertions.get() > maxEntries || expired(oldest.entry(), now))) {
+            oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            insertions.decrementAndGet();
+            // Only if not replaced by a newer entry for the same key since
+            entries.remove(oldest.key(), oldest.entry());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.hotelsaas.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Idempotency-Key support for mutating inventory and ledger requests, so a retried request is
+ * applied once and gets the original response.
+ * <p>
+ * A retry reaching the instance that handled the first attempt is answered from memory: the
+ * stored response is replayed, or 409 while the first attempt is still running. Otherwise the
+ * request runs in one transaction that also inserts the key and the response into
+ * idempotency_keys. There is no lookup before: a duplicate from another instance (or from before a
+ * restart) hits the primary key, its own writes are rolled back and the stored response is
+ * replayed. Only 2xx responses are stored; other outcomes may be retried with the same key.
+ * <p>
+ * Runs after the security chain, so the tenant is already bound.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private static final String INSERT_SQL = """
+            INSERT INTO idempotency_keys (tenant_id, idempotency_key, request_fingerprint, response_status,
+                                          response_content_type, response_body, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (tenant_id, idempotency_key) DO NOTHING""";
+
+    private enum Outcome { STORED, NOT_STORED, DUPLICATE }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final IdempotencyCache cache;
+    private final List<String> paths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public IdempotencyFilter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.idempotency.paths:/api/inventory/**,/api/transactions/**}") List<String> paths,
+                             @Value("${app.idempotency.cache-size:100000}") int cacheSize,
+                             @Value("${app.idempotency.cache-ttl:1h}") Duration cacheTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.paths = paths;
+        this.cache = new IdempotencyCache(cacheSize, cacheTtl.toNanos());
+        meterRegistry.gauge("idempotency.cache.size", cache, IdempotencyCache::size);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (request.getHeader(HEADER) == null || !MUTATING_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return paths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        UUID tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        IdempotencyCache.Key key = new IdempotencyCache.Key(tenantId, idempotencyKey);
+        String fingerprint = request.getMethod() + " " + request.getRequestURI();
+
+        IdempotencyCache.Response cached = cache.completed(key);
+        if (cached != null) {
+            replay(response, cached, fingerprint, "cache");
+            return;
+        }
+        if (!cache.claim(key)) {
+            cached = cache.completed(key);
+            if (cached != null) {
+                replay(response, cached, fingerprint, "cache");
+                return;
+            }
+            count("in_progress");
+            writeError(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is in progress");
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        Outcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> {
+                try {
+                    filterChain.doFilter(request, wrapper);
+                } catch (IOException | ServletException e) {
+                    throw new ChainException(e);
+                }
+                if (status.isRollbackOnly()) {
+                    // A service call failed and the controller turned its exception into a response;
+                    // rolling back locally avoids UnexpectedRollbackException on commit
+                    status.setRollbackOnly();
+                    return Outcome.NOT_STORED;
+                }
+                if (!HttpStatusCode.valueOf(wrapper.getStatus()).is2xxSuccessful()) {
+                    return Outcome.NOT_STORED;
+                }
+                int inserted = jdbcTemplate.update(INSERT_SQL, tenantId, idempotencyKey, fingerprint,
+                        wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray(),
+                        Timestamp.valueOf(LocalDateTime.now()));
+                if (inserted == 0) {
+                    status.setRollbackOnly();
+                    return Outcome.DUPLICATE;
+                }
+                return Outcome.STORED;
+            });
+        } catch (ChainException e) {
+            cache.release(key);
+            if (e.getCause() instanceof ServletException servletException) {
+                throw servletException;
+            }
+            throw (IOException) e.getCause();
+        } catch (RuntimeException e) {
+            cache.release(key);
+            throw e;
+        }
+
+        switch (outcome) {
+            case STORED -> {
+                cache.complete(key, new IdempotencyCache.Response(fingerprint, wrapper.getStatus(),
+                        wrapper.getContentType(), wrapper.getContentAsByteArray()));
+                count("stored");
+                wrapper.copyBodyToResponse();
+            }
+            case NOT_STORED -> {
+                cache.release(key);
+                count("not_stored");
+                wrapper.copyBodyToResponse();
+            }
+            case DUPLICATE -> {
+                // Nothing was written to the client yet: discard this attempt's body, keeping headers
+                // set before the chain ran (CORS); replay sets the status
+                wrapper.resetBuffer();
+                response.resetBuffer();
+                IdempotencyCache.Response stored = load(tenantId, idempotencyKey);
+                cache.complete(key, stored);
+                replay(response, stored, fingerprint, "database");
+            }
+        }
+    }
+
+    private IdempotencyCache.Response load(UUID tenantId, String idempotencyKey) {
+        try {
+            return jdbcTemplate.queryForObject("""
+                    SELECT request_fingerprint, response_status, response_content_type, response_body
+                    FROM idempotency_keys WHERE tenant_id = ? AND idempotency_key = ?""",
+                    (rs, rowNum) -> new IdempotencyCache.Response(rs.getString("request_fingerprint"),
+                            rs.getInt("response_status"), rs.getString("response_content_type"),
+                            rs.getBytes("response_body")),
+                    tenantId, idempotencyKey);
+        } catch (EmptyResultDataAccessException e) {
+            throw new IllegalStateException("Idempotency key vanished after a conflict: " + idempotencyKey, e);
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyCache.Response stored, String fingerprint,
+                        String source) throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            count("mismatch");
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for " + stored.fingerprint());
+            return;
+        }
+        count("replayed_" + source);
+        response.setStatus(stored.status());
+        response.setHeader("Idempotent-Replayed", "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message.replace("\"", "'") + "\"}");
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("idempotency.requests", MetricsConfig.OUTCOME_TAG, outcome).increment();
+    }
+
+    /**
+     * Carries checked exceptions of the filter chain through the transaction callback
+     */
+    private static final class ChainException extends RuntimeException {
+        ChainException(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.hotelsaas.backend.config;
+
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.auth.oauth2.TokenVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Accepts job triggers carrying a Google-signed OIDC token of the scheduler's service account, as
+ * sent by Cloud Scheduler HTTP targets. Without a configured audience and service account, every
+ * trigger is refused.
+ */
+@Component
+public class JobTriggerAuthenticator {
+
+    private static final String ISSUER = "https://accounts.google.com";
+
+    private final String serviceAccount;
+    private final TokenVerifier verifier;
+
+    public JobTriggerAuthenticator(@Value("${app.jobs.trigger.audience:}") String audience,
+                                   @Value("${app.jobs.trigger.service-account:}") String serviceAccount) {
+        this.serviceAccount = serviceAccount;
+        this.verifier = audience.isBlank() || serviceAccount.isBlank() ? null
+                : TokenVerifier.newBuilder().setAudience(audience).setIssuer(ISSUER).build();
+    }
+
+    public boolean isTrusted(String authorizationHeader) {
+        if (verifier == null || authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return false;
+        }
+        try {
+            // Checks signature, expiry, audience and issuer; Google's keys are fetched and cached
+            JsonWebSignature token = verifier.verify(authorizationHeader.substring(7));
+            return serviceAccount.equals(token.getPayload().get("email"))
+                    && Boolean.TRUE.equals(token.getPayload().get("email_verified"));
+        } catch (TokenVerifier.VerificationException e) {
+            return false;
+        }
+    }
+}
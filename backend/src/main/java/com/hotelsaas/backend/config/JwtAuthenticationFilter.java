@@ -1,17 +1,28 @@
 package com.hotelsaas.backend.config;
 
+import com.hotelsaas.backend.model.UserRole;
 import com.hotelsaas.backend.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -19,10 +30,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtService jwtService;
 
-    // We need a UserDetailsService to load user by email/username from JWT subject
-    // For MVP we might implement it or mock it.
-    @Autowired(required = false)
-    private UserDetailsService userDetailsService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // Job triggers carry a Google OIDC token, checked by JobTriggerAuthenticator
+        return request.getRequestURI().startsWith(request.getContextPath() + "/internal/jobs/");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -31,20 +46,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        // userEmail = jwtService.extractUsername(jwt); // Ensure exception handling
+        final String jwt = authHeader.substring(7);
+        final long verifyStart = System.nanoTime();
+        String outcome = "success";
+        try {
+            // Tokens are self-contained: one signature check, no user lookup per request
+            Claims claims = jwtService.parseClaims(jwt);
+            String roleClaim = jwtService.extractRole(claims);
+            if (roleClaim == null) {
+                throw new MalformedJwtException("Missing role claim");
+            }
+            UserRole role = UserRole.valueOf(roleClaim);
+            AuthenticatedUser principal = new AuthenticatedUser(
+                    jwtService.extractUserId(claims),
+                    jwtService.extractTenantId(claims),
+                    claims.getSubject(),
+                    role);
 
-        // MVP: Just pass through for now if logic is complex.
-        // Real implementation requires UserDetailsService.
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            TenantContext.setTenantId(principal.tenantId());
+            if (principal.tenantId() != null) {
+                request.setAttribute(TenantContext.REQUEST_ATTRIBUTE, principal.tenantId());
+            }
+        } catch (ExpiredJwtException e) {
+            outcome = "expired";
+            SecurityContextHolder.clearContext();
+        } catch (JwtException | IllegalArgumentException e) {
+            // Invalid or foreign token: continue unauthenticated, protected endpoints will reject the request
+            outcome = "invalid";
+            SecurityContextHolder.clearContext();
+        } finally {
+            meterRegistry.timer("auth.jwt.verify", MetricsConfig.OUTCOME_TAG, outcome)
+                    .record(System.nanoTime() - verifyStart, TimeUnit.NANOSECONDS);
+        }
 
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
     }
 }
@@ -0,0 +1,101 @@
+package com.hotelsaas.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tenant tagging for our own meters and HTTP server requests. Meters with a tenant tag publish
+ * no histogram (see {@link TenantHistogramFilter}), so a timed path is recorded twice: under its
+ * name without the tenant, with the histogram, and under name.tenant with the tenant.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String TENANT_TAG = "tenant";
+    public static final String OUTCOME_TAG = "outcome";
+    public static final String NO_TENANT = "none";
+    public static final String TENANT_METER_SUFFIX = ".tenant";
+
+    @Value("${app.metrics.max-tenant-tags:100}")
+    private int maxTenantTags;
+
+    @Bean
+    public MeterFilter tenantTagCardinalityFilter() {
+        return new TenantTagCardinalityFilter(maxTenantTags);
+    }
+
+    @Bean
+    public MeterFilter tenantHistogramFilter() {
+        return new TenantHistogramFilter();
+    }
+
+    /**
+     * Times HTTP server requests per tenant as http.server.requests.tenant; http.server.requests
+     * itself keeps uri, method and status. The observation completes after the JWT filter has
+     * cleared the thread-local, so the tenant is read from the request attribute instead.
+     */
+    @Bean
+    public ObservationHandler<ServerRequestObservationContext> tenantServerRequestObservationHandler(
+            MeterRegistry meterRegistry) {
+        return new ObservationHandler<>() {
+            @Override
+            public void onStart(ServerRequestObservationContext context) {
+                context.put(Timer.Sample.class, Timer.start(meterRegistry));
+            }
+
+            @Override
+            public void onStop(ServerRequestObservationContext context) {
+                Timer.Sample sample = context.get(Timer.Sample.class);
+                HttpServletRequest request = context.getCarrier();
+                HttpServletResponse response = context.getResponse();
+                if (sample == null || request == null) {
+                    return;
+                }
+                Object tenantId = request.getAttribute(TenantContext.REQUEST_ATTRIBUTE);
+                sample.stop(meterRegistry.timer("http.server.requests" + TENANT_METER_SUFFIX,
+                        TENANT_TAG, tenantId != null ? tenantId.toString() : NO_TENANT,
+                        OUTCOME_TAG, response != null ? Outcome.forStatus(response.getStatus()).name() : "UNKNOWN"));
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return context instanceof ServerRequestObservationContext;
+            }
+        };
+    }
+
+    /**
+     * Stop a sample on the timer name with the given tags and on name.tenant with the tenant as well
+     */
+    public static void stop(Timer.Sample sample, MeterRegistry meterRegistry, String name, UUID tenantId, Tags tags) {
+        long nanos = sample.stop(meterRegistry.timer(name, tags));
+        meterRegistry.timer(name + TENANT_METER_SUFFIX, tags.and(tenantTag(tenantId)))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Tenant tag for the current request, "none" outside a tenant (platform admins, background jobs)
+     */
+    public static Tag tenantTag() {
+        return tenantTag(TenantContext.getTenantId());
+    }
+
+    public static Tag tenantTag(UUID tenantId) {
+        return Tag.of(TENANT_TAG, tenantId != null ? tenantId.toString() : NO_TENANT);
+    }
+}
@@ -0,0 +1,43 @@
+package com.hotelsaas.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read-only replica of the primary database. Read-only transactions are served from it while it
+ * is healthy and close enough behind the primary.
+ */
+@ConfigurationProperties(prefix = "app.datasource.replica")
+@Data
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 5;
+    private int minimumIdle = 1;
+
+    // Fail fast on a dead replica; the request then falls back to the primary
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    // Replicas further behind than this are not used
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    // Used by the @Scheduled health check of ReplicaHealthMonitor
+    private long healthCheckIntervalMs = 5000;
+
+    // Added to the measured lag: a tenant that wrote within lag + margin reads from the primary
+    private Duration readYourWritesMargin = Duration.ofSeconds(2);
+
+    // Returns the replay lag in seconds; 0 when fully caught up or not a standby
+    private String lagQuery = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END""";
+}
@@ -0,0 +1,73 @@
+package com.hotelsaas.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica for health and replication lag. Routing reads the cached result,
+ * so no request ever waits on a health check.
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final ReadReplicaProperties properties;
+
+    private volatile boolean healthy = false;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaHealthMonitor(DataSource replicaDataSource, ReadReplicaProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.replicaJdbcTemplate.setQueryTimeout(2);
+        this.properties = properties;
+
+        Gauge.builder("db.replica.lag", this, m -> m.lagSeconds)
+                .baseUnit("seconds")
+                .description("Replication lag of the read replica, NaN when unreachable")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.usable", this, m -> m.isUsable() ? 1 : 0)
+                .description("1 when read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-interval-ms:5000}")
+    public void check() {
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(properties.getLagQuery(), Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            if (!healthy) {
+                log.info("Read replica is healthy (lag {}s)", lagSeconds);
+            }
+            healthy = true;
+        } catch (Exception e) {
+            markUnhealthy(e);
+        }
+    }
+
+    public void markUnhealthy(Exception cause) {
+        if (healthy) {
+            log.warn("Read replica marked unhealthy, reads fall back to the primary: {}", cause.getMessage());
+        }
+        healthy = false;
+        lagSeconds = Double.NaN;
+    }
+
+    public boolean isUsable() {
+        return healthy && lagSeconds * 1000 <= properties.getMaxLag().toMillis();
+    }
+
+    /**
+     * How long after a write the writer must keep reading from the primary
+     */
+    public long readYourWritesWindowNanos() {
+        double lag = Double.isNaN(lagSeconds) ? 0 : lagSeconds;
+        return TimeUnit.MILLISECONDS.toNanos((long) (lag * 1000)) + properties.getReadYourWritesMargin().toNanos();
+    }
+}
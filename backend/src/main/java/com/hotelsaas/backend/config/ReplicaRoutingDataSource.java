@@ -0,0 +1,104 @@
+package com.hotelsaas.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * Must sit behind a LazyConnectionDataSourceProxy: the read-only flag of a transaction is only
+ * known after it has begun, so the physical connection has to be fetched on first use.
+ * <p>
+ * Read-your-writes: every committed read-write transaction stamps its tenant, and that tenant's
+ * reads stay on the primary for the current replication lag plus a margin. The stamps are kept in
+ * memory, so this only holds for requests served by the same instance; a read on another instance
+ * may see the replica up to the lag limit behind. Reads whose result is written back must therefore
+ * run inside the read-write transaction of the write, never in a read-only one.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    // Key for writes made outside a tenant (platform admin, background jobs)
+    private static final UUID NO_TENANT = new UUID(0L, 0L);
+
+    private final DataSource primary;
+    private final ReplicaHealthMonitor healthMonitor;
+    private final Map<UUID, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final Counter replicaReads;
+    private final Counter primaryFallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealthMonitor healthMonitor,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.healthMonitor = healthMonitor;
+        this.replicaReads = meterRegistry.counter("db.replica.routing", "target", REPLICA);
+        this.primaryFallbacks = meterRegistry.counter("db.replica.routing", "target", "primary-fallback");
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        UUID tenantKey = TenantContext.getTenantId() != null ? TenantContext.getTenantId() : NO_TENANT;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // Stamped at commit: the replica can only start applying the writes from then on
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lastWriteNanos.put(tenantKey, System.nanoTime());
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (!healthMonitor.isUsable()) {
+            return PRIMARY;
+        }
+        Long lastWrite = lastWriteNanos.get(tenantKey);
+        if (lastWrite != null && System.nanoTime() - lastWrite < healthMonitor.readYourWritesWindowNanos()) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (!REPLICA.equals(key)) {
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = resolvedDataSource(REPLICA).getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException e) {
+            // Replica went away between health checks: serve this read from the primary
+            healthMonitor.markUnhealthy(e);
+            primaryFallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTargetDataSource().getConnection(username, password);
+    }
+
+    private DataSource resolvedDataSource(Object key) {
+        return getResolvedDataSources().get(key);
+    }
+}
@@ -1,5 +1,6 @@
 package com.hotelsaas.backend.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -28,7 +29,14 @@ public class SecurityConfig {
                                 .csrf(AbstractHttpConfigurer::disable)
                                 .cors(Customizer.withDefaults()) // Uses a Bean by the name of corsConfigurationSource
                                 .authorizeHttpRequests(auth -> auth
+                                                // Completion of an already authorized async request (SSE streams)
+                                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                                 .requestMatchers("/api/auth/**", "/api/users/**", "/error").permitAll()
+                                                // Probes on the public port; /actuator is only served on the management port
+                                                .requestMatchers("/livez", "/readyz").permitAll()
+                                                // Cloud Scheduler; the controller verifies its OIDC token
+                                                .requestMatchers("/internal/jobs/**").permitAll()
+                                                .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
                                                 .anyRequest().authenticated())
                                 .sessionManagement(session -> session.sessionCreationPolicy(
                                                 SessionCreationPolicy.STATELESS))
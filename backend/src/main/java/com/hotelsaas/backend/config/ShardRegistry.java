@@ -0,0 +1,86 @@
+package com.hotelsaas.backend.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * All shard connection pools, keyed by shard name. Each additional shard is migrated with the
+ * same Flyway scripts as the default one when the registry is created.
+ */
+@Slf4j
+public class ShardRegistry implements DisposableBean {
+
+    private final String defaultShard;
+    private final Map<String, DataSource> dataSources = new LinkedHashMap<>();
+
+    public ShardRegistry(ShardingProperties properties, DataSource defaultDataSource, MeterRegistry meterRegistry) {
+        this.defaultShard = properties.getDefaultShard();
+        dataSources.put(defaultShard, defaultDataSource);
+
+        properties.getShards().forEach((name, shard) -> {
+            if (name.equals(defaultShard)) {
+                return;
+            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("shard-" + name);
+            config.setJdbcUrl(shard.getUrl());
+            config.setUsername(shard.getUsername());
+            config.setPassword(shard.getPassword());
+            config.setMaximumPoolSize(shard.getMaximumPoolSize());
+            config.setMinimumIdle(shard.getMinimumIdle());
+            // Pools built here are not beans, so bind their metrics explicitly (tagged by pool name)
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            HikariDataSource dataSource = new HikariDataSource(config);
+
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("0")
+                    .load()
+                    .migrate();
+
+            dataSources.put(name, dataSource);
+            log.info("Registered shard '{}' ({})", name, shard.getUrl());
+        });
+    }
+
+    public String defaultShard() {
+        return defaultShard;
+    }
+
+    public DataSource defaultDataSource() {
+        return dataSources.get(defaultShard);
+    }
+
+    public DataSource dataSource(String shard) {
+        DataSource dataSource = dataSources.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        return dataSource;
+    }
+
+    public Map<String, DataSource> dataSources() {
+        return Collections.unmodifiableMap(dataSources);
+    }
+
+    @Override
+    public void destroy() {
+        dataSources.forEach((name, dataSource) -> {
+            if (!name.equals(defaultShard) && dataSource instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        });
+    }
+}
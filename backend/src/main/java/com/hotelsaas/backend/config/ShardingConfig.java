@@ -0,0 +1,49 @@
+package com.hotelsaas.backend.config;
+
+import com.hotelsaas.backend.service.ShardDirectory;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the single auto-configured pool with a tenant-routing DataSource when
+ * app.sharding.enabled is true. With sharding off the regular Spring Boot DataSource is used.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({ShardingProperties.class, DataSourceProperties.class})
+public class ShardingConfig {
+
+    /**
+     * Default shard, configured like the regular datasource (spring.datasource.*)
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource defaultShardDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (dataSource.getPoolName() == null) {
+            dataSource.setPoolName("shard-default");
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public ShardRegistry shardRegistry(ShardingProperties properties, HikariDataSource defaultShardDataSource,
+                                       MeterRegistry meterRegistry) {
+        return new ShardRegistry(properties, defaultShardDataSource, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRegistry shardRegistry, ShardDirectory shardDirectory) {
+        return new TenantRoutingDataSource(shardRegistry, shardDirectory);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hotelsaas.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tenant sharding settings. The default shard is the regular spring.datasource and also hosts
+ * the tenant-to-shard directory; additional shards each get their own connection pool.
+ */
+@ConfigurationProperties(prefix = "app.sharding")
+@Data
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    private String defaultShard = "primary";
+
+    // How long a tenant's shard assignment is cached; also the wait used by migrations to freeze writes
+    private Duration directoryCacheTtl = Duration.ofSeconds(30);
+
+    private int copyBatchSize = 1000;
+
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 5;
+        private int minimumIdle = 1;
+    }
+}
@@ -0,0 +1,68 @@
+package com.hotelsaas.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Logs where startup time went once the application is ready: JVM time-to-ready, the main
+ * context phases and the slowest bean instantiations.
+ */
+@Component
+@Slf4j
+public class StartupTimingReporter {
+
+    private static final int SLOWEST_BEANS = 10;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        long jvmUptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Started in {} ms since JVM start ({} ms in SpringApplication.run, AOT {})",
+                jvmUptimeMs, event.getTimeTaken().toMillis(),
+                Boolean.getBoolean("spring.aot.enabled") ? "on" : "off");
+
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        // getBufferedTimeline() keeps the steps for /actuator/startup
+        StartupTimeline timeline = startup.getBufferedTimeline();
+
+        Map<String, Duration> phases = timeline.getEvents().stream()
+                .filter(e -> !e.getStartupStep().getName().equals("spring.beans.instantiate"))
+                .collect(Collectors.groupingBy(e -> e.getStartupStep().getName(),
+                        Collectors.reducing(Duration.ZERO, StartupTimeline.TimelineEvent::getDuration, Duration::plus)));
+        String phaseSummary = phases.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .map(e -> e.getKey() + "=" + e.getValue().toMillis() + "ms")
+                .collect(Collectors.joining(", "));
+        log.info("Startup phases: {}", phaseSummary);
+
+        List<String> slowestBeans = timeline.getEvents().stream()
+                .filter(e -> e.getStartupStep().getName().equals("spring.beans.instantiate"))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .map(e -> beanName(e.getStartupStep()) + "=" + e.getDuration().toMillis() + "ms")
+                .toList();
+        log.info("Slowest beans (including dependencies): {}", String.join(", ", slowestBeans));
+    }
+
+    private static String beanName(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> tag.getKey().equals("beanName"))
+                .map(StartupStep.Tag::getValue)
+                .findFirst()
+                .orElse("?");
+    }
+}
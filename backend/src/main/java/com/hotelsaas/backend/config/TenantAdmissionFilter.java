@@ -0,0 +1,159 @@
+package com.hotelsaas.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tenant admission control, applied before a request takes a database connection:
+ * <ol>
+ *     <li>a token bucket per tenant and endpoint class (e.g. reports vs. writes) caps the rate</li>
+ *     <li>a {@link FairPermitQueue} limits the requests using the database at once and shares
+ *     those permits between tenants by weighted round robin</li>
+ * </ol>
+ * Requests over the rate, or finding their tenant's queue full or the wait too long, get 429
+ * with Retry-After. Runs after the security chain, so the tenant is already bound, and before the
+ * idempotency filter opens its transaction.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TenantAdmissionFilter extends OncePerRequestFilter {
+
+    private record BucketKey(UUID tenantId, String endpointClass) {
+    }
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final FairPermitQueue permits;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<BucketKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Set<UUID> tenantGauges = ConcurrentHashMap.newKeySet();
+
+    public TenantAdmissionFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Map<UUID, Integer> weights = new ConcurrentHashMap<>();
+        properties.getTenantWeights().forEach((tenantId, weight) -> weights.put(UUID.fromString(tenantId), weight));
+        this.permits = new FairPermitQueue(properties.getDbPermits(), properties.getMaxDbPermitsPerTenant(),
+                properties.getMaxQueuedPerTenant(), tenantId -> weights.getOrDefault(tenantId, 1));
+        meterRegistry.gauge("admission.queue.depth", permits, FairPermitQueue::queued);
+        Gauge.builder("admission.db.permits.in_use", permits, p -> properties.getDbPermits() - p.available())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = path(request);
+        return !path.startsWith("/api/")
+                || properties.getExcludedPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        UUID tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            // Login and platform requests are not tenant work
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String endpointClass = endpointClass(request);
+        if (endpointClass != null) {
+            AdmissionProperties.EndpointClass limits = properties.getClasses().get(endpointClass);
+            long waitNanos = buckets.computeIfAbsent(new BucketKey(tenantId, endpointClass),
+                    key -> new TokenBucket(limits.getRatePerSecond(), limits.getBurst())).tryAcquire();
+            if (waitNanos > 0) {
+                reject(response, tenantId, endpointClass, "rate_limited", waitNanos);
+                return;
+            }
+        }
+
+        registerTenantGauge(tenantId);
+        long queuedAt = System.nanoTime();
+        FairPermitQueue.Result result;
+        try {
+            result = permits.acquire(tenantId, properties.getQueueTimeout().toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, tenantId, endpointClass, "interrupted", TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+        Timer.builder("admission.queue.wait")
+                .tags(Tags.of(MetricsConfig.tenantTag(tenantId)).and(MetricsConfig.OUTCOME_TAG, result.name().toLowerCase()))
+                .register(meterRegistry)
+                .record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        if (result != FairPermitQueue.Result.ACQUIRED) {
+            reject(response, tenantId, endpointClass, result.name().toLowerCase(), TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release(tenantId);
+        }
+    }
+
+    private String endpointClass(HttpServletRequest request) {
+        String path = path(request);
+        for (Map.Entry<String, AdmissionProperties.EndpointClass> entry : properties.getClasses().entrySet()) {
+            AdmissionProperties.EndpointClass candidate = entry.getValue();
+            if ((candidate.getMethods().isEmpty() || candidate.getMethods().contains(request.getMethod()))
+                    && candidate.getPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private void registerTenantGauge(UUID tenantId) {
+        if (tenantGauges.add(tenantId)) {
+            Gauge.builder("admission.tenant.queue.depth", permits, p -> p.queued(tenantId))
+                    .tags(Tags.of(MetricsConfig.tenantTag(tenantId)))
+                    .register(meterRegistry);
+        }
+    }
+
+    private void reject(HttpServletResponse response, UUID tenantId, String endpointClass, String reason,
+                        long retryAfterNanos) throws IOException {
+        meterRegistry.counter("admission.rejected", Tags.of(MetricsConfig.tenantTag(tenantId))
+                .and("class", endpointClass != null ? endpointClass : "none")
+                .and("reason", reason)).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests, please retry shortly\"}");
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
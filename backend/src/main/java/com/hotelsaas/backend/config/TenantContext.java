@@ -0,0 +1,51 @@
+package com.hotelsaas.backend.config;
+
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.UUID;
+
+/**
+ * Holds the tenant of the authenticated request for the current thread.
+ * Set by {@link JwtAuthenticationFilter} and cleared when the request completes.
+ */
+public final class TenantContext {
+
+    /**
+     * Request attribute holding the tenant id, for code that runs after the thread-local is cleared
+     * (e.g. HTTP server metrics recorded when the response completes)
+     */
+    public static final String REQUEST_ATTRIBUTE = TenantContext.class.getName() + ".tenantId";
+
+    private static final ThreadLocal<UUID> CURRENT_TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static UUID getTenantId() {
+        return CURRENT_TENANT.get();
+    }
+
+    /**
+     * Tenant of the current request, for endpoints that only make sense inside a tenant
+     * @throws AccessDeniedException if the caller is not bound to a tenant
+     */
+    public static UUID requireTenantId() {
+        UUID tenantId = CURRENT_TENANT.get();
+        if (tenantId == null) {
+            throw new AccessDeniedException("No tenant associated with the current user");
+        }
+        return tenantId;
+    }
+
+    public static void setTenantId(UUID tenantId) {
+        if (tenantId == null) {
+            CURRENT_TENANT.remove();
+        } else {
+            CURRENT_TENANT.set(tenantId);
+        }
+    }
+
+    public static void clear() {
+        CURRENT_TENANT.remove();
+    }
+}
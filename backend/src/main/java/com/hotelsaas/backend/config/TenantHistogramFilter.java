@@ -0,0 +1,25 @@
+package com.hotelsaas.backend.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+/**
+ * Publishes histogram buckets, percentiles and SLO boundaries only for meters without a tenant tag.
+ * Buckets would multiply every other tag combination by up to max-tenant-tags values; per tenant,
+ * the count, total and max of a timer are kept, which is enough for rates and averages. Latency
+ * distributions are recorded on a separate meter without the tenant.
+ */
+class TenantHistogramFilter implements MeterFilter {
+
+    private static final DistributionStatisticConfig NO_DISTRIBUTION = DistributionStatisticConfig.builder()
+            .percentilesHistogram(false)
+            .percentiles()
+            .serviceLevelObjectives()
+            .build();
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        return id.getTag(MetricsConfig.TENANT_TAG) != null ? NO_DISTRIBUTION.merge(config) : config;
+    }
+}
@@ -0,0 +1,31 @@
+package com.hotelsaas.backend.config;
+
+import com.hotelsaas.backend.service.ShardDirectory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.UUID;
+
+/**
+ * Routes each connection request to the shard of the tenant bound to the current thread.
+ * Requests without a tenant (login, platform admin, background jobs) use the default shard.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ShardRegistry shardRegistry;
+    private final ShardDirectory shardDirectory;
+
+    public TenantRoutingDataSource(ShardRegistry shardRegistry, ShardDirectory shardDirectory) {
+        this.shardRegistry = shardRegistry;
+        this.shardDirectory = shardDirectory;
+        setTargetDataSources(new HashMap<>(shardRegistry.dataSources()));
+        setDefaultTargetDataSource(shardRegistry.defaultDataSource());
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        UUID tenantId = TenantContext.getTenantId();
+        return tenantId != null ? shardDirectory.shardFor(tenantId) : shardRegistry.defaultShard();
+    }
+}
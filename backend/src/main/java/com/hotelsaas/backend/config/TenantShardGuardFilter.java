@@ -0,0 +1,50 @@
+package com.hotelsaas.backend.config;
+
+import com.hotelsaas.backend.service.ShardDirectory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Answers 503 for tenants whose data is being cut over to another shard, before any connection is taken.
+ * Runs after the security chain, so the tenant is already bound.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class TenantShardGuardFilter extends OncePerRequestFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final ShardDirectory shardDirectory;
+
+    public TenantShardGuardFilter(ShardDirectory shardDirectory) {
+        this.shardDirectory = shardDirectory;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        UUID tenantId = TenantContext.getTenantId();
+        if (tenantId != null && shardDirectory.isFrozen(tenantId)) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Tenant data is being moved, please retry shortly\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,39 @@
+package com.hotelsaas.backend.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caps the number of distinct tenant tag values. The first tenants seen keep their own time
+ * series; any tenant beyond the limit is reported as "other" so a growing customer base cannot
+ * blow up the metrics backend.
+ */
+class TenantTagCardinalityFilter implements MeterFilter {
+
+    static final String OVERFLOW_TENANT = "other";
+
+    private final int maxTenants;
+    private final Set<String> allowedTenants = ConcurrentHashMap.newKeySet();
+
+    TenantTagCardinalityFilter(int maxTenants) {
+        this.maxTenants = maxTenants;
+    }
+
+    @Override
+    public Meter.Id map(Meter.Id id) {
+        String tenant = id.getTag(MetricsConfig.TENANT_TAG);
+        if (tenant == null || MetricsConfig.NO_TENANT.equals(tenant) || allowedTenants.contains(tenant)) {
+            return id;
+        }
+        // Racy by design: the limit may be overshot by a few concurrent registrations, never by much
+        if (allowedTenants.size() < maxTenants) {
+            allowedTenants.add(tenant);
+            return id;
+        }
+        return id.withTag(Tag.of(MetricsConfig.TENANT_TAG, OVERFLOW_TENANT));
+    }
+}
@@ -2,9 +2,16 @@ package com.hotelsaas.backend.controller;
 
 import com.hotelsaas.backend.dto.AuthDto;
 import com.hotelsaas.backend.service.AuthService;
+import com.hotelsaas.backend.service.LoginAttemptLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -12,8 +19,29 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+
     @PostMapping("/google-login")
     public AuthDto.AuthResponse googleLogin(@RequestBody AuthDto.GoogleLoginRequest request) {
         return authService.loginWithGoogle(request.getIdToken());
     }
+
+    @PostMapping("/pin-login")
+    public ResponseEntity<?> pinLogin(@RequestBody AuthDto.PinLoginRequest request, HttpServletRequest httpRequest) {
+        String client = httpRequest.getRemoteAddr();
+        long retryAfterSeconds = loginAttemptLimiter.tryAttempt(client, request.getTenantId());
+        if (retryAfterSeconds > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(Map.of("error", "Too many PIN attempts, try again later"));
+        }
+        try {
+            AuthDto.AuthResponse response = authService.loginWithPin(request.getTenantId(), request.getPin());
+            loginAttemptLimiter.succeeded(client, request.getTenantId());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", e.getMessage()));
+        }
+    }
 }
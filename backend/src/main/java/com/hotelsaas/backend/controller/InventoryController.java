@@ -0,0 +1,152 @@
+package com.hotelsaas.backend.controller;
+
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.dto.InventoryItemDTO;
+import com.hotelsaas.backend.dto.InventorySummaryDTO;
+import com.hotelsaas.backend.model.Category;
+import com.hotelsaas.backend.model.InventoryItem;
+import com.hotelsaas.backend.model.Supplier;
+import com.hotelsaas.backend.repository.CategoryRepository;
+import com.hotelsaas.backend.repository.InventoryItemRepository;
+import com.hotelsaas.backend.repository.SupplierRepository;
+import com.hotelsaas.backend.repository.TenantRepository;
+import com.hotelsaas.backend.service.InventoryItemService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class InventoryController {
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final CategoryRepository categoryRepository;
+    private final SupplierRepository supplierRepository;
+    private final TenantRepository tenantRepository;
+    private final InventoryItemService inventoryItemService;
+
+    /**
+     * All items of the tenant. DTOs are mapped one at a time while Jackson writes the response
+     * (JSON, Smile or CBOR by Accept), so no second list of the whole inventory is built.
+     */
+    @GetMapping
+    public ResponseEntity<Stream<InventoryItemDTO>> getAllItems() {
+        UUID tenantId = TenantContext.requireTenantId();
+        return ResponseEntity.ok(inventoryItemRepository.findByTenantIdOrderByNameAsc(tenantId).stream()
+                .map(InventoryController::toDTO));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<InventoryItemDTO> getItemById(@PathVariable UUID id) {
+        UUID tenantId = TenantContext.requireTenantId();
+        return inventoryItemRepository.findByIdAndTenantId(id, tenantId)
+                .map(item -> ResponseEntity.ok(toDTO(item)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Dashboard figures computed in a single aggregate query
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<InventorySummaryDTO> getSummary() {
+        UUID tenantId = TenantContext.requireTenantId();
+        return ResponseEntity.ok(inventoryItemRepository.summarize(tenantId));
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createItem(@Valid @RequestBody InventoryItemDTO itemDTO) {
+        UUID tenantId = TenantContext.requireTenantId();
+
+        InventoryItem item = new InventoryItem();
+        item.setTenant(tenantRepository.getReferenceById(tenantId));
+        try {
+            applyDTO(item, itemDTO, tenantId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        InventoryItem saved = inventoryItemRepository.save(item);
+        return ResponseEntity.status(HttpStatus.CREATED).body(toDTO(saved));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateItem(@PathVariable UUID id, @Valid @RequestBody InventoryItemDTO itemDTO) {
+        UUID tenantId = TenantContext.requireTenantId();
+        try {
+            return inventoryItemService.update(tenantId, id, itemDTO)
+                    .<ResponseEntity<?>>map(item -> ResponseEntity.ok(toDTO(item)))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteItem(@PathVariable UUID id) {
+        UUID tenantId = TenantContext.requireTenantId();
+        try {
+            return inventoryItemService.delete(tenantId, id)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Item has stock transactions and cannot be deleted"));
+        }
+    }
+
+    private void applyDTO(InventoryItem item, InventoryItemDTO itemDTO, UUID tenantId) {
+        item.setName(itemDTO.getName());
+        item.setSku(itemDTO.getSku());
+        item.setUnit(itemDTO.getUnit());
+        item.setParLevel(itemDTO.getParLevel());
+        item.setUnitCost(itemDTO.getUnitCost());
+        item.setImageUrl(itemDTO.getImageUrl());
+
+        Category category = null;
+        if (itemDTO.getCategoryId() != null) {
+            category = categoryRepository.findById(itemDTO.getCategoryId())
+                    .filter(c -> c.getTenant().getId().equals(tenantId))
+                    .orElseThrow(() -> new IllegalArgumentException("Category not found"));
+        }
+        item.setCategory(category);
+
+        Supplier supplier = null;
+        if (itemDTO.getSupplierId() != null) {
+            supplier = supplierRepository.findById(itemDTO.getSupplierId())
+                    .filter(s -> s.getTenant().getId().equals(tenantId))
+                    .orElseThrow(() -> new IllegalArgumentException("Supplier not found"));
+        }
+        item.setSupplier(supplier);
+    }
+
+    public static InventoryItemDTO toDTO(InventoryItem item) {
+        InventoryItemDTO dto = new InventoryItemDTO();
+        dto.setId(item.getId());
+        dto.setName(item.getName());
+        dto.setSku(item.getSku());
+        dto.setUnit(item.getUnit());
+        dto.setCurrentQuantity(item.getCurrentQuantity());
+        dto.setParLevel(item.getParLevel());
+        dto.setUnitCost(item.getUnitCost());
+        if (item.getCategory() != null) {
+            dto.setCategoryId(item.getCategory().getId());
+            dto.setCategoryName(item.getCategory().getName());
+        }
+        if (item.getSupplier() != null) {
+            dto.setSupplierId(item.getSupplier().getId());
+            dto.setSupplierName(item.getSupplier().getName());
+        }
+        dto.setImageUrl(item.getImageUrl());
+        dto.setUpdatedAt(item.getUpdatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,42 @@
+package com.hotelsaas.backend.controller;
+
+import com.hotelsaas.backend.config.JobTriggerAuthenticator;
+import com.hotelsaas.backend.service.JobLock;
+import com.hotelsaas.backend.service.MaintenanceJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a maintenance job on request of Cloud Scheduler. Instances scaled to zero run no in-process
+ * schedule, so in prod the jobs are started this way; the request lasts as long as the job.
+ */
+@RestController
+@RequestMapping("/internal/jobs")
+@RequiredArgsConstructor
+public class JobTriggerController {
+
+    private final List<MaintenanceJob> jobs;
+    private final JobLock jobLock;
+    private final JobTriggerAuthenticator jobTriggerAuthenticator;
+
+    @PostMapping("/{name}")
+    public ResponseEntity<?> trigger(@PathVariable String name,
+                                     @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!jobTriggerAuthenticator.isTrusted(authorization)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Not a trusted job trigger"));
+        }
+        MaintenanceJob job = jobs.stream().filter(j -> j.name().equals(name)).findFirst().orElse(null);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Unknown or disabled job: " + name));
+        }
+        // Skipped when another instance runs it; not an error for the scheduler
+        boolean ran = jobLock.runExclusively(job);
+        return ResponseEntity.ok(Map.of("job", name, "status", ran ? "completed" : "skipped"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.hotelsaas.backend.controller;
+
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.dto.ParRecommendationDTO;
+import com.hotelsaas.backend.service.ParRecommendationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/par-recommendations")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ParRecommendationController {
+
+    private final ParRecommendationService parRecommendationService;
+
+    /**
+     * Nightly recommended par levels and reorder quantities, grouped by supplier
+     */
+    @GetMapping
+    public ResponseEntity<List<ParRecommendationDTO>> getRecommendations() {
+        UUID tenantId = TenantContext.requireTenantId();
+        return ResponseEntity.ok(parRecommendationService.bySupplier(tenantId));
+    }
+
+    /**
+     * Set the items' par level to the recommendation, for all items or one supplier's
+     */
+    @PostMapping("/apply")
+    @PreAuthorize("hasAnyRole('ORG_OWNER', 'PLATFORM_ADMIN')")
+    public ResponseEntity<?> applyRecommendations(@RequestParam(required = false) UUID supplierId) {
+        UUID tenantId = TenantContext.requireTenantId();
+        int updated = parRecommendationService.apply(tenantId, supplierId);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+}
@@ -0,0 +1,58 @@
+package com.hotelsaas.backend.controller;
+
+import com.hotelsaas.backend.service.ShardDirectory;
+import com.hotelsaas.backend.service.TenantShardMigrator;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/shards")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('PLATFORM_ADMIN')")
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardAdminController {
+
+    private final ShardDirectory shardDirectory;
+    private final TenantShardMigrator tenantShardMigrator;
+
+    @GetMapping
+    public ResponseEntity<List<ShardDirectory.Assignment>> getAssignments() {
+        return ResponseEntity.ok(shardDirectory.findAll());
+    }
+
+    /**
+     * Move a tenant to another shard online; poll the status endpoint for progress
+     */
+    @PostMapping("/migrations")
+    public ResponseEntity<?> startMigration(@RequestBody MigrationRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(tenantShardMigrator.startMigration(
+                    request.getTenantId(), request.getTargetShard(), request.isDeleteSource()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/migrations/{tenantId}")
+    public ResponseEntity<TenantShardMigrator.MigrationStatus> getMigration(@PathVariable UUID tenantId) {
+        return tenantShardMigrator.status(tenantId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Data
+    public static class MigrationRequest {
+        private UUID tenantId;
+        private String targetShard;
+        private boolean deleteSource = true;
+    }
+}
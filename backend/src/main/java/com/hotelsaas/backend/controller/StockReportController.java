@@ -0,0 +1,47 @@
+package com.hotelsaas.backend.controller;
+
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.dto.StockDiscrepancyDTO;
+import com.hotelsaas.backend.dto.StockPositionDTO;
+import com.hotelsaas.backend.service.StockSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StockReportController {
+
+    private final StockSnapshotService stockSnapshotService;
+
+    /**
+     * Stock on hand at a point in time, e.g. ?at=2026-10-01T00:00:00 for the month opening position
+     */
+    @GetMapping("/stock-at")
+    public ResponseEntity<?> getStockAt(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        UUID tenantId = TenantContext.requireTenantId();
+        if (at.isAfter(LocalDateTime.now())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Point in time must not be in the future"));
+        }
+        StockPositionDTO position = stockSnapshotService.stockAt(tenantId, at);
+        return ResponseEntity.ok(position);
+    }
+
+    /**
+     * Items whose current quantity no longer matches their ledger history
+     */
+    @GetMapping("/ledger-discrepancies")
+    public ResponseEntity<List<StockDiscrepancyDTO>> getLedgerDiscrepancies() {
+        UUID tenantId = TenantContext.requireTenantId();
+        return ResponseEntity.ok(stockSnapshotService.findDiscrepancies(tenantId));
+    }
+}
@@ -0,0 +1,36 @@
+package com.hotelsaas.backend.controller;
+
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.service.StockEventBus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StockStreamController {
+
+    private final StockEventBus stockEventBus;
+
+    /**
+     * Server-sent events for the tenant's committed stock movements: "stock" (latest quantity per
+     * item), "transactions" (ledger entries) and "overflow" (entries dropped for a slow client)
+     */
+    @GetMapping(path = "/stock", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStock() {
+        UUID tenantId = TenantContext.requireTenantId();
+        return stockEventBus.subscribe(tenantId)
+                // Stops nginx-style proxies from buffering the stream
+                .map(emitter -> ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30").build());
+    }
+}
@@ -0,0 +1,103 @@
+package com.hotelsaas.backend.controller;
+
+import com.hotelsaas.backend.config.AuthenticatedUser;
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.dto.StockMovementRequest;
+import com.hotelsaas.backend.dto.StockTransactionDTO;
+import com.hotelsaas.backend.model.StockTransaction;
+import com.hotelsaas.backend.repository.StockTransactionRepository;
+import com.hotelsaas.backend.service.LedgerArchiveService;
+import com.hotelsaas.backend.service.StockLedgerService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/api/transactions")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StockTransactionController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final StockTransactionRepository stockTransactionRepository;
+    private final StockLedgerService stockLedgerService;
+    private final LedgerArchiveService ledgerArchiveService;
+
+    /**
+     * Most recent ledger entries of the tenant, newest first; mapped to DTOs as they are written.
+     * With ?from= (and optionally &to=, default now) only entries in [from, to) are returned, read
+     * through to the archive for months that have been moved out of the live ledger.
+     */
+    @GetMapping
+    public ResponseEntity<?> getRecentTransactions(
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        UUID tenantId = TenantContext.requireTenantId();
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (from == null) {
+            if (to != null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "'to' requires 'from'"));
+            }
+            return ResponseEntity.ok(stockTransactionRepository
+                    .findByTenantIdOrderByTimestampDesc(tenantId, PageRequest.of(0, pageSize)).stream()
+                    .map(StockTransactionController::toDTO));
+        }
+        LocalDateTime until = to != null ? to : LocalDateTime.now();
+        if (!until.isAfter(from)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "'to' must be after 'from'"));
+        }
+        List<StockTransactionDTO> live = stockTransactionRepository
+                .findByTenantIdAndTimestampGreaterThanEqualAndTimestampLessThanOrderByTimestampDesc(
+                        tenantId, from, until, PageRequest.of(0, pageSize)).stream()
+                .map(StockTransactionController::toDTO)
+                .toList();
+        // Archived months are always older than the live ledger, so they only fill up a short page
+        List<StockTransactionDTO> archived = live.size() < pageSize
+                ? ledgerArchiveService.transactions(tenantId, from, until, pageSize - live.size())
+                : List.of();
+        return ResponseEntity.ok(Stream.concat(live.stream(), archived.stream()));
+    }
+
+    /**
+     * Record a stock movement (delivery, usage, waste or audit correction)
+     */
+    @PostMapping
+    public ResponseEntity<?> recordMovement(@AuthenticationPrincipal AuthenticatedUser user,
+                                            @Valid @RequestBody StockMovementRequest request) {
+        UUID tenantId = TenantContext.requireTenantId();
+        try {
+            StockTransaction transaction = stockLedgerService.recordMovement(
+                    tenantId, request.getItemId(), user.userId(), request.getType(), request.getQuantity());
+            return ResponseEntity.status(HttpStatus.CREATED).body(toDTO(transaction));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    public static StockTransactionDTO toDTO(StockTransaction transaction) {
+        StockTransactionDTO dto = new StockTransactionDTO();
+        dto.setId(transaction.getId());
+        dto.setItemId(transaction.getItem().getId());
+        dto.setItemName(transaction.getItem().getName());
+        dto.setUserId(transaction.getUser().getId());
+        dto.setUserName(transaction.getUser().getName());
+        dto.setType(transaction.getType());
+        dto.setQuantityChange(transaction.getQuantityChange());
+        dto.setCostAtTransaction(transaction.getCostAtTransaction());
+        dto.setTimestamp(transaction.getTimestamp());
+        return dto;
+    }
+}
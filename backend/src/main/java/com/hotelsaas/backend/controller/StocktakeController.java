@@ -0,0 +1,119 @@
+package com.hotelsaas.backend.controller;
+
+import com.hotelsaas.backend.config.AuthenticatedUser;
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.dto.StocktakeCountRequest;
+import com.hotelsaas.backend.dto.StocktakeLineDTO;
+import com.hotelsaas.backend.dto.StocktakeSessionDTO;
+import com.hotelsaas.backend.model.StocktakeSession;
+import com.hotelsaas.backend.repository.StocktakeSessionRepository;
+import com.hotelsaas.backend.service.StocktakeService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/stocktakes")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StocktakeController {
+
+    private final StocktakeService stocktakeService;
+    private final StocktakeSessionRepository stocktakeSessionRepository;
+
+    @GetMapping
+    public ResponseEntity<List<StocktakeSessionDTO>> getSessions() {
+        UUID tenantId = TenantContext.requireTenantId();
+        List<StocktakeSessionDTO> sessions = stocktakeSessionRepository.findByTenantIdOrderByStartedAtDesc(tenantId)
+                .stream()
+                .map(StocktakeController::toDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(sessions);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StocktakeSessionDTO> getSession(@PathVariable UUID id) {
+        UUID tenantId = TenantContext.requireTenantId();
+        return stocktakeSessionRepository.findByIdAndTenantId(id, tenantId)
+                .map(session -> ResponseEntity.ok(toDTO(session)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Snapshot and, once closed, counted/expected quantities and variance per item
+     */
+    @GetMapping("/{id}/lines")
+    public ResponseEntity<List<StocktakeLineDTO>> getLines(@PathVariable UUID id) {
+        UUID tenantId = TenantContext.requireTenantId();
+        if (stocktakeSessionRepository.findByIdAndTenantId(id, tenantId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(stocktakeService.lines(tenantId, id));
+    }
+
+    /**
+     * Start a stocktake; on-hand quantities are snapshotted now
+     */
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ORG_OWNER', 'PLATFORM_ADMIN')")
+    public ResponseEntity<StocktakeSessionDTO> openSession(@AuthenticationPrincipal AuthenticatedUser user) {
+        UUID tenantId = TenantContext.requireTenantId();
+        StocktakeSession session = stocktakeService.open(tenantId, user.userId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(toDTO(session));
+    }
+
+    /**
+     * Submit one or more counts; they are buffered and written shortly after
+     */
+    @PostMapping("/{id}/counts")
+    public ResponseEntity<?> submitCounts(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable UUID id,
+                                          @Valid @RequestBody StocktakeCountRequest request) {
+        UUID tenantId = TenantContext.requireTenantId();
+        try {
+            int accepted = stocktakeService.recordCounts(tenantId, id, user.userId(), request.getCounts());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("accepted", accepted));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stop counting and reconcile: variances are booked as AUDIT transactions
+     */
+    @PostMapping("/{id}/close")
+    @PreAuthorize("hasAnyRole('ORG_OWNER', 'PLATFORM_ADMIN')")
+    public ResponseEntity<?> closeSession(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable UUID id) {
+        UUID tenantId = TenantContext.requireTenantId();
+        try {
+            return ResponseEntity.ok(toDTO(stocktakeService.close(tenantId, id, user.userId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    public static StocktakeSessionDTO toDTO(StocktakeSession session) {
+        StocktakeSessionDTO dto = new StocktakeSessionDTO();
+        dto.setId(session.getId());
+        dto.setStatus(session.getStatus());
+        dto.setStartedBy(session.getStartedBy().getId());
+        dto.setStartedAt(session.getStartedAt());
+        dto.setClosedBy(session.getClosedBy() != null ? session.getClosedBy().getId() : null);
+        dto.setClosedAt(session.getClosedAt());
+        dto.setCountedItems(session.getCountedItems());
+        dto.setAdjustedItems(session.getAdjustedItems());
+        return dto;
+    }
+}
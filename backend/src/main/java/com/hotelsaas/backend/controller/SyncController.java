@@ -0,0 +1,42 @@
+package com.hotelsaas.backend.controller;
+
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.dto.ChangeBatchDTO;
+import com.hotelsaas.backend.service.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SyncController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @Value("${app.change-feed.batch-size:500}")
+    private int defaultBatchSize;
+
+    @Value("${app.change-feed.max-batch-size:5000}")
+    private int maxBatchSize;
+
+    /**
+     * Items, categories, suppliers and users changed after sequence number since (0 for a full sync)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(defaultValue = "0") long since,
+                                        @RequestParam(required = false) Integer limit) {
+        UUID tenantId = TenantContext.requireTenantId();
+        if (since < 0 || (limit != null && limit < 1)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "'since' must be >= 0 and 'limit' >= 1"));
+        }
+        int batchSize = Math.min(limit != null ? limit : defaultBatchSize, maxBatchSize);
+        ChangeBatchDTO batch = changeFeedService.changes(tenantId, since, batchSize);
+        return ResponseEntity.ok(batch);
+    }
+}
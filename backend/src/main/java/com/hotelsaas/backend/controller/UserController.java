@@ -9,12 +9,12 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/users")
@@ -25,11 +25,9 @@ public class UserController {
     private final UserRepository userRepository;
 
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(users);
+    public ResponseEntity<Stream<UserDTO>> getAllUsers() {
+        return ResponseEntity.ok(userRepository.findAll().stream()
+                .map(UserController::toDTO));
     }
 
     @GetMapping("/{id}")
@@ -40,6 +38,7 @@ public class UserController {
     }
 
     @PostMapping
+    @Transactional
     public ResponseEntity<?> createUser(@Valid @RequestBody UserDTO userDTO) {
         if (userRepository.existsByEmail(userDTO.getEmail())) {
             return ResponseEntity.badRequest()
@@ -47,6 +46,11 @@ public class UserController {
         }
 
         User user = new User();
+        if (isPinTaken(user, userDTO.getPin())) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "PIN already in use"));
+        }
+
         user.setName(userDTO.getName());
         user.setEmail(userDTO.getEmail());
         user.setRole(userDTO.getRole() != null ? userDTO.getRole() : UserRole.ORG_EMPLOYEE);
@@ -57,7 +61,9 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(toDTO(saved));
     }
 
+    // Read-write throughout, so the user and the uniqueness checks feeding the save come from the primary
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> updateUser(@PathVariable UUID id, @Valid @RequestBody UserDTO userDTO) {
         return userRepository.findById(id)
                 .map(user -> {
@@ -67,6 +73,10 @@ public class UserController {
                         return ResponseEntity.badRequest()
                                 .body(Map.of("error", "Email already exists"));
                     }
+                    if (isPinTaken(user, userDTO.getPin())) {
+                        return ResponseEntity.badRequest()
+                                .body(Map.of("error", "PIN already in use"));
+                    }
 
                     user.setName(userDTO.getName());
                     user.setEmail(userDTO.getEmail());
@@ -81,6 +91,7 @@ public class UserController {
     }
 
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteUser(@PathVariable UUID id) {
         if (!userRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
@@ -89,7 +100,20 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
-    private UserDTO toDTO(User user) {
+    /**
+     * PIN login names the tenant, so a PIN identifies one user within it
+     */
+    private boolean isPinTaken(User user, String pin) {
+        if (pin == null) {
+            return false;
+        }
+        UUID tenantId = user.getTenant() != null ? user.getTenant().getId() : null;
+        return userRepository.findByPin(tenantId, pin)
+                .filter(holder -> !holder.getId().equals(user.getId()))
+                .isPresent();
+    }
+
+    public static UserDTO toDTO(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
         dto.setName(user.getName());
@@ -0,0 +1,68 @@
+package com.hotelsaas.backend.controller;
+
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.dto.CostOfGoodsSoldDTO;
+import com.hotelsaas.backend.dto.InventoryValuationDTO;
+import com.hotelsaas.backend.service.InventoryValuationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/valuation")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ValuationController {
+
+    private final InventoryValuationService inventoryValuationService;
+
+    /**
+     * Current inventory value under FIFO and weighted-average cost
+     */
+    @GetMapping
+    public ResponseEntity<InventoryValuationDTO> getValuation() {
+        UUID tenantId = TenantContext.requireTenantId();
+        return ResponseEntity.ok(inventoryValuationService.valuation(tenantId));
+    }
+
+    /**
+     * Cost of goods issued over a range of months, e.g. ?from=2026-01&to=2026-03
+     */
+    @GetMapping("/cogs")
+    public ResponseEntity<?> getCostOfGoodsSold(@RequestParam YearMonth from, @RequestParam YearMonth to) {
+        UUID tenantId = TenantContext.requireTenantId();
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "'to' must not be before 'from'"));
+        }
+        CostOfGoodsSoldDTO cogs = inventoryValuationService.costOfGoodsSold(tenantId, from, to);
+        return ResponseEntity.ok(cogs);
+    }
+
+    /**
+     * Recompute the tenant's valuation from its full ledger (backfill); poll GET for progress
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasAnyRole('ORG_OWNER', 'PLATFORM_ADMIN')")
+    public ResponseEntity<?> startRebuild() {
+        UUID tenantId = TenantContext.requireTenantId();
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(inventoryValuationService.startRebuild(tenantId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/rebuild")
+    public ResponseEntity<InventoryValuationService.RebuildStatus> getRebuild() {
+        UUID tenantId = TenantContext.requireTenantId();
+        return inventoryValuationService.rebuildStatus(tenantId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.util.UUID;
+
 public class AuthDto {
 
     @Data
@@ -11,6 +13,13 @@ public class AuthDto {
         private String idToken;
     }
 
+    @Data
+    public static class PinLoginRequest {
+        // Hotel the tablet is set up for; null for users without a tenant
+        private UUID tenantId;
+        private String pin;
+    }
+
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
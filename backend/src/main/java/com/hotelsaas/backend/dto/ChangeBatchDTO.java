@@ -0,0 +1,66 @@
+package com.hotelsaas.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hotelsaas.backend.model.UserRole;
+import com.hotelsaas.backend.model.UserStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Catalog changes after a sequence number: current state of changed entities and ids of deleted
+ * ones. Empty lists are left out of the response. Request the next batch with since=next while
+ * hasMore is set; resetRequired means the client is too far behind and must resync from 0,
+ * discarding its local copy.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class ChangeBatchDTO {
+    private long since;
+    private long next;
+    private boolean hasMore;
+    private boolean resetRequired;
+    private List<InventoryItemDTO> items = new ArrayList<>();
+    private List<CategoryEntry> categories = new ArrayList<>();
+    private List<SupplierEntry> suppliers = new ArrayList<>();
+    private List<UserEntry> users = new ArrayList<>();
+    private List<UUID> deletedItems = new ArrayList<>();
+    private List<UUID> deletedCategories = new ArrayList<>();
+    private List<UUID> deletedSuppliers = new ArrayList<>();
+    private List<UUID> deletedUsers = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryEntry {
+        private UUID id;
+        private String name;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SupplierEntry {
+        private UUID id;
+        private String name;
+        private String contactInfo;
+    }
+
+    /**
+     * Staff as the tablets need them for display and role checks; never the PIN
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserEntry {
+        private UUID id;
+        private String name;
+        private UserRole role;
+        private UserStatus status;
+    }
+}
@@ -0,0 +1,35 @@
+package com.hotelsaas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cost of stock issued (used, wasted or written off) over a range of months
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CostOfGoodsSoldDTO {
+    private YearMonth from;
+    private YearMonth to;
+    private BigDecimal fifoCost;
+    private BigDecimal weightedAverageCost;
+    private List<Line> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private UUID itemId;
+        private String itemName;
+        private BigDecimal quantityIssued;
+        private BigDecimal fifoCost;
+        private BigDecimal weightedAverageCost;
+    }
+}
@@ -0,0 +1,44 @@
+package com.hotelsaas.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class InventoryItemDTO {
+    private UUID id;
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 255, message = "Name must be at most 255 characters")
+    private String name;
+
+    private String sku;
+
+    private String unit;
+
+    // Read-only: quantities only change through stock movements
+    private BigDecimal currentQuantity;
+
+    @PositiveOrZero(message = "Par level cannot be negative")
+    private BigDecimal parLevel;
+
+    @PositiveOrZero(message = "Unit cost cannot be negative")
+    private BigDecimal unitCost;
+
+    private UUID categoryId;
+
+    private String categoryName;
+
+    private UUID supplierId;
+
+    private String supplierName;
+
+    private String imageUrl;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.hotelsaas.backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+public class InventorySummaryDTO {
+    private long itemCount;
+    private long lowStockCount;
+    private BigDecimal totalValue;
+
+    /**
+     * Constructor used by the aggregate JPQL query, where sums over an empty table are null
+     */
+    public InventorySummaryDTO(Long itemCount, Long lowStockCount, BigDecimal totalValue) {
+        this.itemCount = itemCount != null ? itemCount : 0L;
+        this.lowStockCount = lowStockCount != null ? lowStockCount : 0L;
+        this.totalValue = totalValue != null ? totalValue : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,34 @@
+package com.hotelsaas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Current inventory value under FIFO and weighted-average cost
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryValuationDTO {
+    private BigDecimal fifoValue;
+    private BigDecimal weightedAverageValue;
+    private List<Line> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private UUID itemId;
+        private String itemName;
+        private BigDecimal fifoQuantity;
+        private BigDecimal fifoValue;
+        private BigDecimal weightedAverageQuantity;
+        private BigDecimal weightedAverageUnitCost;
+        private BigDecimal weightedAverageValue;
+    }
+}
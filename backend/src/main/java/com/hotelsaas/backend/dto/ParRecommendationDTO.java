@@ -0,0 +1,41 @@
+package com.hotelsaas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recommended par levels and reorder quantities of one supplier's items (supplierId is null for
+ * items without a supplier)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParRecommendationDTO {
+    private UUID supplierId;
+    private String supplierName;
+    private BigDecimal reorderValue;
+    private List<Line> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private UUID itemId;
+        private String itemName;
+        private String unit;
+        private BigDecimal currentQuantity;
+        private BigDecimal parLevel;
+        private BigDecimal averageDailyUsage;
+        private BigDecimal forecastUsage;
+        private BigDecimal safetyStock;
+        private BigDecimal recommendedPar;
+        private BigDecimal reorderQuantity;
+        private LocalDateTime computedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hotelsaas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * An item whose currentQuantity differs from the sum of its ledger entries
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDiscrepancyDTO {
+    private UUID itemId;
+    private String itemName;
+    private BigDecimal currentQuantity;
+    private BigDecimal ledgerQuantity;
+}
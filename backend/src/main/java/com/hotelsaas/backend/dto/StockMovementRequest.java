@@ -0,0 +1,22 @@
+package com.hotelsaas.backend.dto;
+
+import com.hotelsaas.backend.model.TransactionType;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+public class StockMovementRequest {
+
+    @NotNull(message = "Item is required")
+    private UUID itemId;
+
+    @NotNull(message = "Type is required")
+    private TransactionType type;
+
+    // Positive amount for IN/OUT_*; signed correction for AUDIT
+    @NotNull(message = "Quantity is required")
+    private BigDecimal quantity;
+}
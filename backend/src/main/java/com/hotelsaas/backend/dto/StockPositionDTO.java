@@ -0,0 +1,35 @@
+package com.hotelsaas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stock on hand at a point in time, rebuilt from the nearest snapshot plus later ledger changes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockPositionDTO {
+    private LocalDateTime at;
+    // Snapshot the position was replayed from; null when replayed from the start of the ledger
+    private LocalDateTime snapshotAt;
+    private BigDecimal totalValue;
+    private List<Line> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private UUID itemId;
+        private String itemName;
+        private BigDecimal quantity;
+        private BigDecimal unitCost;
+        private BigDecimal value;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hotelsaas.backend.dto;
+
+import com.hotelsaas.backend.model.TransactionType;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class StockTransactionDTO {
+    private UUID id;
+    private UUID itemId;
+    private String itemName;
+    private UUID userId;
+    private String userName;
+    private TransactionType type;
+    private BigDecimal quantityChange;
+    private BigDecimal costAtTransaction;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,36 @@
+package com.hotelsaas.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Counts submitted by one counter; scanners may send each scan or batch them while offline
+ */
+@Data
+public class StocktakeCountRequest {
+
+    @NotEmpty(message = "At least one count is required")
+    @Size(max = 5000, message = "At most 5000 counts per request")
+    @Valid
+    private List<Count> counts;
+
+    @Data
+    public static class Count {
+
+        @NotNull(message = "Item is required")
+        private UUID itemId;
+
+        // Quantity on the counter's shelf; a later count by the same counter replaces it
+        @NotNull(message = "Quantity is required")
+        @PositiveOrZero(message = "Quantity cannot be negative")
+        private BigDecimal quantity;
+    }
+}
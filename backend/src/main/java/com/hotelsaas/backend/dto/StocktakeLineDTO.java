@@ -0,0 +1,23 @@
+package com.hotelsaas.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Per-item stocktake result; counted, expected and variance are null until the session is closed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StocktakeLineDTO {
+    private UUID itemId;
+    private String itemName;
+    private BigDecimal snapshotQuantity;
+    private BigDecimal countedQuantity;
+    private BigDecimal expectedQuantity;
+    private BigDecimal variance;
+}
@@ -0,0 +1,19 @@
+package com.hotelsaas.backend.dto;
+
+import com.hotelsaas.backend.model.StocktakeStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class StocktakeSessionDTO {
+    private UUID id;
+    private StocktakeStatus status;
+    private UUID startedBy;
+    private LocalDateTime startedAt;
+    private UUID closedBy;
+    private LocalDateTime closedAt;
+    private Integer countedItems;
+    private Integer adjustedItems;
+}
@@ -45,7 +45,3 @@ public class StockTransaction {
     @JoinColumn(name = "tenant_id", nullable = false)
     private Tenant tenant;
 }
-
-enum TransactionType {
-    IN, OUT_USE, OUT_WASTE, AUDIT
-}
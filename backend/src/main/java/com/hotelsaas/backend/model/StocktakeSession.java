@@ -0,0 +1,52 @@
+package com.hotelsaas.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A physical count of a tenant's stock. Per-item snapshot, counts and results live in
+ * stocktake_lines and stocktake_counts, which are written in bulk by StocktakeService.
+ */
+@Entity
+@Table(name = "stocktake_sessions")
+@Data
+@NoArgsConstructor
+public class StocktakeSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tenant_id", nullable = false)
+    private Tenant tenant;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StocktakeStatus status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "started_by", nullable = false)
+    private User startedBy;
+
+    // Set after the snapshot locks are taken, see StocktakeService.open
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "closed_by")
+    private User closedBy;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    @Column(name = "counted_items")
+    private Integer countedItems;
+
+    @Column(name = "adjusted_items")
+    private Integer adjustedItems;
+}
@@ -0,0 +1,7 @@
+package com.hotelsaas.backend.model;
+
+public enum StocktakeStatus {
+    OPEN,
+    RECONCILING,
+    CLOSED
+}
@@ -0,0 +1,8 @@
+package com.hotelsaas.backend.model;
+
+public enum TransactionType {
+    IN,
+    OUT_USE,
+    OUT_WASTE,
+    AUDIT
+}
@@ -1,10 +1,43 @@
 package com.hotelsaas.backend.repository;
 
+import com.hotelsaas.backend.dto.InventorySummaryDTO;
 import com.hotelsaas.backend.model.InventoryItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface InventoryItemRepository extends JpaRepository<InventoryItem, UUID> {
     List<InventoryItem> findByTenantId(UUID tenantId);
+
+    @EntityGraph(attributePaths = {"category", "supplier"})
+    List<InventoryItem> findByTenantIdOrderByNameAsc(UUID tenantId);
+
+    @EntityGraph(attributePaths = {"category", "supplier"})
+    Optional<InventoryItem> findByIdAndTenantId(UUID id, UUID tenantId);
+
+    @EntityGraph(attributePaths = {"category", "supplier"})
+    List<InventoryItem> findByIdInAndTenantId(Collection<UUID> ids, UUID tenantId);
+
+    // Never read-only: a row lock must be taken on the primary
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from InventoryItem i where i.id = :id")
+    Optional<InventoryItem> findByIdForUpdate(@Param("id") UUID id);
+
+    // Dashboard report, served by the read replica when one is configured
+    @Transactional(readOnly = true)
+    @Query("select new com.hotelsaas.backend.dto.InventorySummaryDTO(count(i), "
+            + "count(case when i.currentQuantity < i.parLevel then 1 end), "
+            + "sum(i.currentQuantity * i.unitCost)) "
+            + "from InventoryItem i where i.tenant.id = :tenantId")
+    InventorySummaryDTO summarize(@Param("tenantId") UUID tenantId);
 }
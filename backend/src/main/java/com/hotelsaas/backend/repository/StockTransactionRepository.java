@@ -1,10 +1,21 @@
 package com.hotelsaas.backend.repository;
 
 import com.hotelsaas.backend.model.StockTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface StockTransactionRepository extends JpaRepository<StockTransaction, UUID> {
     List<StockTransaction> findByTenantId(UUID tenantId);
+
+    @EntityGraph(attributePaths = {"item", "user"})
+    List<StockTransaction> findByTenantIdOrderByTimestampDesc(UUID tenantId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "user"})
+    List<StockTransaction> findByTenantIdAndTimestampGreaterThanEqualAndTimestampLessThanOrderByTimestampDesc(
+            UUID tenantId, LocalDateTime from, LocalDateTime to, Pageable pageable);
 }
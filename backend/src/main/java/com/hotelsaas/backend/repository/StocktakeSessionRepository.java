@@ -0,0 +1,25 @@
+package com.hotelsaas.backend.repository;
+
+import com.hotelsaas.backend.model.StocktakeSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StocktakeSessionRepository extends JpaRepository<StocktakeSession, UUID> {
+    List<StocktakeSession> findByTenantIdOrderByStartedAtDesc(UUID tenantId);
+
+    Optional<StocktakeSession> findByIdAndTenantId(UUID id, UUID tenantId);
+
+    // Never read-only: a row lock must be taken on the primary
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from StocktakeSession s where s.id = :id and s.tenant.id = :tenantId")
+    Optional<StocktakeSession> findByIdAndTenantIdForUpdate(@Param("id") UUID id, @Param("tenantId") UUID tenantId);
+}
@@ -11,7 +11,16 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
 
-    Optional<User> findByPin(String pin);
+    Optional<User> findByTenantIdAndPin(UUID tenantId, String pin);
+
+    Optional<User> findByTenantIsNullAndPin(String pin);
+
+    /**
+     * The user holding a PIN; PINs are unique per tenant, and among users without a tenant
+     */
+    default Optional<User> findByPin(UUID tenantId, String pin) {
+        return tenantId != null ? findByTenantIdAndPin(tenantId, pin) : findByTenantIsNullAndPin(pin);
+    }
 
     boolean existsByEmail(String email);
 }
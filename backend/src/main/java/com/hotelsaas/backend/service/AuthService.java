@@ -1,24 +1,99 @@
 package com.hotelsaas.backend.service;
 
+import com.hotelsaas.backend.config.MetricsConfig;
+import com.hotelsaas.backend.config.TenantContext;
 import com.hotelsaas.backend.dto.AuthDto;
+import com.hotelsaas.backend.model.User;
+import com.hotelsaas.backend.model.UserStatus;
+import com.hotelsaas.backend.repository.TenantRepository;
 import com.hotelsaas.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.UUID;
+
 @Service
 public class AuthService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // Placeholder login logic until JwtService and Google Verification is
     // implemented
     public AuthDto.AuthResponse loginWithGoogle(String idToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         // TODO: Verify Google Token (using Google IdTokenVerifier)
         // TODO: Find or Create User
         // TODO: Generate App JWT
 
         // Mock response
-        return new AuthDto.AuthResponse("mock-jwt-token", "Mock User", "mock@example.com", "ORG_OWNER");
+        AuthDto.AuthResponse response = new AuthDto.AuthResponse("mock-jwt-token", "Mock User", "mock@example.com", "ORG_OWNER");
+        recordLogin(sample, "google", "success", null);
+        return response;
+    }
+
+    /**
+     * Employee login with a 5-digit PIN, used at shift start on shared tablets set up for one hotel
+     * @param tenantId the hotel of the tablet, null for users without a tenant
+     * @throws IllegalArgumentException if the PIN is unknown or the user is inactive
+     */
+    public AuthDto.AuthResponse loginWithPin(UUID tenantId, String pin) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        if (pin == null || !pin.matches("\\d{5}")) {
+            recordLogin(sample, "pin", "rejected", null);
+            throw new IllegalArgumentException("Invalid PIN");
+        }
+
+        User user = findByPin(tenantId, pin)
+                .filter(u -> u.getStatus() == UserStatus.ACTIVE)
+                .orElse(null);
+        if (user == null) {
+            recordLogin(sample, "pin", "rejected", null);
+            throw new IllegalArgumentException("Invalid PIN");
+        }
+
+        AuthDto.AuthResponse response = new AuthDto.AuthResponse(jwtService.generateToken(user), user.getName(),
+                user.getEmail(), user.getRole().name());
+        recordLogin(sample, "pin", "success", user.getTenant() != null ? user.getTenant().getId() : null);
+        return response;
+    }
+
+    /**
+     * Users move with their tenant when it is migrated to another shard, so the lookup runs with the
+     * tenant bound and is routed to its shard. The tenant is first checked against the tenants table
+     * of the default shard, which lists every tenant, so unknown ids never reach the shard directory.
+     */
+    private Optional<User> findByPin(UUID tenantId, String pin) {
+        if (tenantId == null) {
+            return userRepository.findByPin(null, pin);
+        }
+        if (!tenantRepository.existsById(tenantId)) {
+            return Optional.empty();
+        }
+        UUID previous = TenantContext.getTenantId();
+        TenantContext.setTenantId(tenantId);
+        try {
+            return userRepository.findByPin(tenantId, pin);
+        } finally {
+            TenantContext.setTenantId(previous);
+        }
+    }
+
+    private void recordLogin(Timer.Sample sample, String method, String outcome, UUID tenantId) {
+        MetricsConfig.stop(sample, meterRegistry, "auth.login", tenantId,
+                Tags.of("method", method, MetricsConfig.OUTCOME_TAG, outcome));
     }
 }
@@ -0,0 +1,131 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.controller.InventoryController;
+import com.hotelsaas.backend.dto.ChangeBatchDTO;
+import com.hotelsaas.backend.repository.CategoryRepository;
+import com.hotelsaas.backend.repository.InventoryItemRepository;
+import com.hotelsaas.backend.repository.SupplierRepository;
+import com.hotelsaas.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Delta sync over the per-tenant change sequence maintained by the change_log triggers (V9).
+ * Sequence numbers become visible in order, so everything up to the last one returned has been
+ * seen and the client can continue from it.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+
+    static final String ITEM = "ITEM";
+    static final String CATEGORY = "CATEGORY";
+    static final String SUPPLIER = "SUPPLIER";
+    static final String USER = "USER";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final CategoryRepository categoryRepository;
+    private final SupplierRepository supplierRepository;
+    private final UserRepository userRepository;
+
+    private record Change(String entityType, UUID entityId, long seq, boolean deleted) {
+    }
+
+    /**
+     * Up to limit changes after since. since=0 is a full sync: current entities only, no tombstones.
+     */
+    @Transactional(readOnly = true)
+    public ChangeBatchDTO changes(UUID tenantId, long since, int limit) {
+        ChangeBatchDTO batch = new ChangeBatchDTO();
+        batch.setSince(since);
+        List<Long> prunedSeq = jdbcTemplate.queryForList(
+                "SELECT pruned_seq FROM tenant_change_sequences WHERE tenant_id = ?", Long.class, tenantId);
+        if (since > 0 && !prunedSeq.isEmpty() && since < prunedSeq.get(0)) {
+            // Tombstones the client has not seen are gone
+            batch.setResetRequired(true);
+            return batch;
+        }
+
+        List<Change> changes = jdbcTemplate.query("""
+                SELECT entity_type, entity_id, seq, deleted FROM change_log
+                WHERE tenant_id = ? AND seq > ? AND (? OR NOT deleted)
+                ORDER BY seq LIMIT ?""",
+                (rs, rowNum) -> new Change(rs.getString("entity_type"), rs.getObject("entity_id", UUID.class),
+                        rs.getLong("seq"), rs.getBoolean("deleted")),
+                tenantId, since, since > 0, limit + 1);
+        batch.setHasMore(changes.size() > limit);
+        if (batch.isHasMore()) {
+            changes = changes.subList(0, limit);
+        }
+        batch.setNext(changes.isEmpty() ? since : changes.get(changes.size() - 1).seq());
+
+        Map<String, List<UUID>> changed = new HashMap<>();
+        for (Change change : changes) {
+            if (change.deleted()) {
+                deletedList(batch, change.entityType()).add(change.entityId());
+            } else {
+                changed.computeIfAbsent(change.entityType(), type -> new ArrayList<>()).add(change.entityId());
+            }
+        }
+        // Entities are read as they are now; one deleted meanwhile is skipped and its tombstone follows
+        if (changed.containsKey(ITEM)) {
+            inventoryItemRepository.findByIdInAndTenantId(changed.get(ITEM), tenantId)
+                    .forEach(item -> batch.getItems().add(InventoryController.toDTO(item)));
+        }
+        if (changed.containsKey(CATEGORY)) {
+            categoryRepository.findAllById(changed.get(CATEGORY)).forEach(category -> batch.getCategories()
+                    .add(new ChangeBatchDTO.CategoryEntry(category.getId(), category.getName())));
+        }
+        if (changed.containsKey(SUPPLIER)) {
+            supplierRepository.findAllById(changed.get(SUPPLIER)).forEach(supplier -> batch.getSuppliers()
+                    .add(new ChangeBatchDTO.SupplierEntry(supplier.getId(), supplier.getName(),
+                            supplier.getContactInfo())));
+        }
+        if (changed.containsKey(USER)) {
+            userRepository.findAllById(changed.get(USER))
+                    .forEach(user -> batch.getUsers().add(new ChangeBatchDTO.UserEntry(user.getId(), user.getName(),
+                            user.getRole(), user.getStatus())));
+        }
+        return batch;
+    }
+
+    /**
+     * Drop tombstones recorded before the cutoff; clients that have not synced past them must
+     * resync from 0
+     * @return the number of tombstones deleted
+     */
+    @Transactional
+    public int pruneTombstones(UUID tenantId, LocalDateTime cutoff) {
+        Integer pruned = jdbcTemplate.queryForObject("""
+                WITH pruned AS (
+                    DELETE FROM change_log WHERE tenant_id = ? AND deleted AND changed_at < ? RETURNING seq
+                ), marked AS (
+                    UPDATE tenant_change_sequences SET pruned_seq = GREATEST(pruned_seq, (SELECT max(seq) FROM pruned))
+                    WHERE tenant_id = ? AND EXISTS (SELECT 1 FROM pruned) RETURNING 1
+                )
+                SELECT count(*) FROM pruned""",
+                Integer.class, tenantId, Timestamp.valueOf(cutoff), tenantId);
+        return pruned != null ? pruned : 0;
+    }
+
+    private static List<UUID> deletedList(ChangeBatchDTO batch, String entityType) {
+        return switch (entityType) {
+            case ITEM -> batch.getDeletedItems();
+            case CATEGORY -> batch.getDeletedCategories();
+            case SUPPLIER -> batch.getDeletedSuppliers();
+            case USER -> batch.getDeletedUsers();
+            default -> throw new IllegalStateException("Unknown entity type in change_log: " + entityType);
+        };
+    }
+}
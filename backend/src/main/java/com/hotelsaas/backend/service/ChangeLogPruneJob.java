@@ -0,0 +1,64 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.model.Tenant;
+import com.hotelsaas.backend.repository.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Nightly removal of old delete tombstones from the change log, which would otherwise grow with
+ * every entity ever deleted
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.change-feed.tombstone-pruning", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeLogPruneJob implements MaintenanceJob {
+
+    private final TenantRepository tenantRepository;
+    private final ChangeFeedService changeFeedService;
+    private final JobLock jobLock;
+
+    // Tablets offline for longer than this do a full resync
+    @Value("${app.change-feed.tombstone-pruning.retention-days:30}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${app.change-feed.tombstone-pruning.cron:0 15 1 * * *}")
+    public void run() {
+        jobLock.runExclusively(this);
+    }
+
+    @Override
+    public String name() {
+        return "change-log-prune";
+    }
+
+    @Override
+    public void execute() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        // The tenants table of the default shard lists every tenant
+        List<UUID> tenantIds = tenantRepository.findAll().stream().map(Tenant::getId).toList();
+        for (UUID tenantId : tenantIds) {
+            TenantContext.setTenantId(tenantId);
+            try {
+                int pruned = changeFeedService.pruneTombstones(tenantId, cutoff);
+                if (pruned > 0) {
+                    log.info("Pruned {} change log tombstones of tenant {}", pruned, tenantId);
+                }
+            } catch (Exception e) {
+                log.error("Pruning the change log of tenant {} failed: {}", tenantId, e.getMessage());
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.hotelsaas.backend.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Consumption forecast from a daily usage history: a moving-average level scaled by day-of-week
+ * seasonality, and the par level that covers the review period plus supplier lead time at the
+ * configured service level.
+ */
+final class ConsumptionForecast {
+
+    /**
+     * @param averageDailyUsage moving average over the level window
+     * @param forecastUsage forecast usage over review period + lead time
+     * @param safetyStock buffer for demand variability over the same horizon
+     * @param recommendedPar forecastUsage + safetyStock
+     */
+    record Result(double averageDailyUsage, double forecastUsage, double safetyStock, double recommendedPar) {
+    }
+
+    /**
+     * @param levelWindowDays days averaged for the level (the most recent ones)
+     * @param horizonDays review period + lead time
+     * @param serviceLevelZ standard normal quantile of the service level (1.65 for 95%)
+     */
+    record Settings(int levelWindowDays, int horizonDays, double serviceLevelZ) {
+    }
+
+    private ConsumptionForecast() {
+    }
+
+    /**
+     * @param dailyUsage usage per day, oldest first; dailyUsage[i] is the usage on firstDay + i
+     * @param firstDay date of dailyUsage[0]
+     * @param forecastStart first day of the horizon
+     */
+    static Result forecast(double[] dailyUsage, LocalDate firstDay, LocalDate forecastStart, Settings settings) {
+        int days = dailyUsage.length;
+        if (days == 0) {
+            return new Result(0, 0, 0, 0);
+        }
+
+        double total = 0;
+        double[] weekdayTotals = new double[7];
+        int[] weekdayCounts = new int[7];
+        for (int i = 0; i < days; i++) {
+            int weekday = firstDay.plusDays(i).getDayOfWeek().getValue() - 1;
+            weekdayTotals[weekday] += dailyUsage[i];
+            weekdayCounts[weekday]++;
+            total += dailyUsage[i];
+        }
+        double overallMean = total / days;
+
+        // Seasonal index per weekday: its mean relative to the overall mean
+        double[] seasonal = new double[7];
+        for (int d = 0; d < 7; d++) {
+            seasonal[d] = overallMean > 0 && weekdayCounts[d] > 0
+                    ? (weekdayTotals[d] / weekdayCounts[d]) / overallMean
+                    : 1.0;
+        }
+
+        int window = Math.min(settings.levelWindowDays(), days);
+        double windowTotal = 0;
+        for (int i = days - window; i < days; i++) {
+            windowTotal += dailyUsage[i];
+        }
+        double level = windowTotal / window;
+
+        // Spread of the de-seasonalized history around the level
+        double squaredErrors = 0;
+        for (int i = 0; i < days; i++) {
+            double expected = level * seasonal[firstDay.plusDays(i).getDayOfWeek().getValue() - 1];
+            double error = dailyUsage[i] - expected;
+            squaredErrors += error * error;
+        }
+        double dailyStdDev = days > 1 ? Math.sqrt(squaredErrors / (days - 1)) : 0;
+
+        double forecastUsage = 0;
+        for (int i = 0; i < settings.horizonDays(); i++) {
+            DayOfWeek weekday = forecastStart.plusDays(i).getDayOfWeek();
+            forecastUsage += level * seasonal[weekday.getValue() - 1];
+        }
+        double safetyStock = settings.serviceLevelZ() * dailyStdDev * Math.sqrt(settings.horizonDays());
+        return new Result(level, forecastUsage, safetyStock, forecastUsage + safetyStock);
+    }
+}
@@ -0,0 +1,231 @@
+package com.hotelsaas.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Cost state of one item under both valuation methods: FIFO receipt layers (oldest first) and a
+ * running weighted-average cost. Amounts are fixed-point longs: quantities in 0.01 units, unit
+ * costs in 0.0001, values in 0.000001.
+ * <p>
+ * The FIFO layers are stored as a compact byte array: a format version, the layer count, then
+ * quantity and unit cost of each layer as zig-zag varints (typically 4-6 bytes per layer).
+ */
+final class CostLayers {
+
+    static final int QUANTITY_SCALE = 2;
+    static final int COST_SCALE = 4;
+    static final int VALUE_SCALE = QUANTITY_SCALE + COST_SCALE;
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte[] EMPTY = encode(new long[0], new long[0], 0, 0);
+
+    private long[] quantities;
+    private long[] costs;
+    private int head;
+    private int tail;
+
+    private long wacQuantity;
+    private long wacCost;
+
+    /**
+     * Value of an issue under each method
+     */
+    record Issue(long fifoValue, long wacValue) {
+    }
+
+    CostLayers() {
+        this(new long[4], new long[4], 0, 0, 0, 0);
+    }
+
+    private CostLayers(long[] quantities, long[] costs, int head, int tail, long wacQuantity, long wacCost) {
+        this.quantities = quantities;
+        this.costs = costs;
+        this.head = head;
+        this.tail = tail;
+        this.wacQuantity = wacQuantity;
+        this.wacCost = wacCost;
+    }
+
+    /**
+     * Stock received at the given unit cost
+     */
+    void receive(long quantity, long unitCost) {
+        if (quantity <= 0) {
+            return;
+        }
+        if (tail > head && costs[tail - 1] == unitCost) {
+            // Same cost as the newest layer: extend it instead of adding one
+            quantities[tail - 1] += quantity;
+        } else {
+            ensureCapacity();
+            quantities[tail] = quantity;
+            costs[tail] = unitCost;
+            tail++;
+        }
+
+        long total = wacQuantity + quantity;
+        long weighted = Math.addExact(Math.multiplyExact(wacQuantity, wacCost), Math.multiplyExact(quantity, unitCost));
+        wacCost = divideRounded(weighted, total);
+        wacQuantity = total;
+    }
+
+    /**
+     * Stock issued (used, wasted or written off). Quantities beyond the known layers (opening stock
+     * that predates the ledger) are valued at the fallback cost.
+     */
+    Issue issue(long quantity, long fallbackCost) {
+        if (quantity <= 0) {
+            return new Issue(0, 0);
+        }
+        long remaining = quantity;
+        long fifoValue = 0;
+        while (remaining > 0 && head < tail) {
+            long taken = Math.min(remaining, quantities[head]);
+            fifoValue = Math.addExact(fifoValue, Math.multiplyExact(taken, costs[head]));
+            quantities[head] -= taken;
+            remaining -= taken;
+            if (quantities[head] == 0) {
+                head++;
+            }
+        }
+        fifoValue = Math.addExact(fifoValue, Math.multiplyExact(remaining, fallbackCost));
+
+        long wacIssued = Math.min(quantity, wacQuantity);
+        long wacValue = Math.addExact(Math.multiplyExact(wacIssued, wacCost),
+                Math.multiplyExact(quantity - wacIssued, fallbackCost));
+        wacQuantity -= wacIssued;
+        if (wacQuantity == 0) {
+            wacCost = 0;
+        }
+        return new Issue(fifoValue, wacValue);
+    }
+
+    long fifoQuantity() {
+        long total = 0;
+        for (int i = head; i < tail; i++) {
+            total += quantities[i];
+        }
+        return total;
+    }
+
+    long fifoValue() {
+        long total = 0;
+        for (int i = head; i < tail; i++) {
+            total = Math.addExact(total, Math.multiplyExact(quantities[i], costs[i]));
+        }
+        return total;
+    }
+
+    long wacQuantity() {
+        return wacQuantity;
+    }
+
+    long wacCost() {
+        return wacCost;
+    }
+
+    int layerCount() {
+        return tail - head;
+    }
+
+    byte[] encodeLayers() {
+        return encode(quantities, costs, head, tail);
+    }
+
+    static CostLayers decode(byte[] layers, long wacQuantity, long wacCost) {
+        if (layers == null || layers.length == 0) {
+            layers = EMPTY;
+        }
+        if (layers[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown cost layer format: " + layers[0]);
+        }
+        int[] position = {1};
+        int count = (int) readVarint(layers, position);
+        int capacity = Math.max(4, count + 1);
+        long[] quantities = new long[capacity];
+        long[] costs = new long[capacity];
+        for (int i = 0; i < count; i++) {
+            quantities[i] = readVarint(layers, position);
+            costs[i] = readVarint(layers, position);
+        }
+        return new CostLayers(quantities, costs, 0, count, wacQuantity, wacCost);
+    }
+
+    static long toQuantityUnits(BigDecimal quantity) {
+        return quantity.setScale(QUANTITY_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    static long toCostUnits(BigDecimal cost) {
+        return cost == null ? 0 : cost.setScale(COST_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal quantity(long units) {
+        return BigDecimal.valueOf(units, QUANTITY_SCALE);
+    }
+
+    static BigDecimal cost(long units) {
+        return BigDecimal.valueOf(units, COST_SCALE);
+    }
+
+    static BigDecimal value(long units) {
+        return BigDecimal.valueOf(units, VALUE_SCALE);
+    }
+
+    private void ensureCapacity() {
+        if (tail < quantities.length) {
+            return;
+        }
+        if (head > 0) {
+            // Reclaim consumed layers before growing
+            int live = tail - head;
+            System.arraycopy(quantities, head, quantities, 0, live);
+            System.arraycopy(costs, head, costs, 0, live);
+            head = 0;
+            tail = live;
+            if (tail < quantities.length) {
+                return;
+            }
+        }
+        quantities = Arrays.copyOf(quantities, quantities.length * 2);
+        costs = Arrays.copyOf(costs, costs.length * 2);
+    }
+
+    private static long divideRounded(long dividend, long divisor) {
+        return divisor == 0 ? 0 : Math.floorDiv(dividend + divisor / 2, divisor);
+    }
+
+    private static byte[] encode(long[] quantities, long[] costs, int head, int tail) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + (tail - head) * 6);
+        out.write(FORMAT_VERSION);
+        writeVarint(out, tail - head);
+        for (int i = head; i < tail; i++) {
+            writeVarint(out, quantities[i]);
+            writeVarint(out, costs[i]);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.write((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.write((int) zigZag);
+    }
+
+    private static long readVarint(byte[] data, int[] position) {
+        long zigZag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            zigZag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+}
@@ -0,0 +1,68 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.model.Tenant;
+import com.hotelsaas.backend.repository.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hourly removal of stored idempotency keys past their retention; a request retried later than
+ * that is treated as new
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.idempotency.pruning", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyKeyPruneJob implements MaintenanceJob {
+
+    private final TenantRepository tenantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JobLock jobLock;
+
+    @Value("${app.idempotency.retention:24h}")
+    private Duration retention;
+
+    @Scheduled(cron = "${app.idempotency.pruning.cron:0 5 * * * *}")
+    public void run() {
+        jobLock.runExclusively(this);
+    }
+
+    @Override
+    public String name() {
+        return "idempotency-key-prune";
+    }
+
+    @Override
+    public void execute() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        // The tenants table of the default shard lists every tenant
+        List<UUID> tenantIds = tenantRepository.findAll().stream().map(Tenant::getId).toList();
+        int pruned = 0;
+        for (UUID tenantId : tenantIds) {
+            TenantContext.setTenantId(tenantId);
+            try {
+                pruned += jdbcTemplate.update("DELETE FROM idempotency_keys WHERE tenant_id = ? AND created_at < ?",
+                        tenantId, cutoff);
+            } catch (Exception e) {
+                log.error("Pruning idempotency keys of tenant {} failed: {}", tenantId, e.getMessage());
+            } finally {
+                TenantContext.clear();
+            }
+        }
+        if (pruned > 0) {
+            log.info("Pruned {} idempotency keys older than {}", pruned, retention);
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.hotelsaas.backend.service;
 
 import com.google.cloud.storage.*;
+import com.hotelsaas.backend.config.MetricsConfig;
+import com.hotelsaas.backend.config.TenantContext;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -12,9 +19,14 @@ import java.util.UUID;
 @Service
 public class ImageStorageService {
 
+    // Proxy, so the client is only built on the first upload
     @Autowired
+    @Lazy
     private Storage storage;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${gcs.bucket-name}")
     private String bucketName;
 
@@ -29,6 +41,27 @@ public class ImageStorageService {
      * @throws IOException if upload fails
      */
     public String uploadImage(MultipartFile file, String folder) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String url = doUploadImage(file, folder);
+            outcome = "success";
+            DistributionSummary.builder("image.upload.bytes")
+                    .baseUnit("bytes")
+                    .tags(Tags.of(MetricsConfig.tenantTag()).and("folder", folder))
+                    .register(meterRegistry)
+                    .record(file.getSize());
+            return url;
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            MetricsConfig.stop(sample, meterRegistry, "image.upload", TenantContext.getTenantId(),
+                    Tags.of("folder", folder, MetricsConfig.OUTCOME_TAG, outcome));
+        }
+    }
+
+    private String doUploadImage(MultipartFile file, String folder) throws IOException {
         // Validate file
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
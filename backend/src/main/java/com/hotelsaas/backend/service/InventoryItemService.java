@@ -0,0 +1,80 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.dto.InventoryItemDTO;
+import com.hotelsaas.backend.model.InventoryItem;
+import com.hotelsaas.backend.repository.CategoryRepository;
+import com.hotelsaas.backend.repository.InventoryItemRepository;
+import com.hotelsaas.backend.repository.SupplierRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Catalog edits of inventory items. The on-hand quantity is owned by the ledger
+ * ({@link StockLedgerService}, stocktakes), so an edit never writes it back. The item is read in the
+ * read-write transaction of the change, so on the primary even when a replica is configured.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryItemService {
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final CategoryRepository categoryRepository;
+    private final SupplierRepository supplierRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Update the catalog fields of an item
+     * @return the updated item, or empty if it does not exist in the tenant
+     * @throws IllegalArgumentException if the category or supplier does not exist in the tenant
+     */
+    @Transactional
+    public Optional<InventoryItem> update(UUID tenantId, UUID itemId, InventoryItemDTO itemDTO) {
+        if (itemDTO.getCategoryId() != null && categoryRepository.findById(itemDTO.getCategoryId())
+                .filter(c -> c.getTenant().getId().equals(tenantId)).isEmpty()) {
+            throw new IllegalArgumentException("Category not found");
+        }
+        if (itemDTO.getSupplierId() != null && supplierRepository.findById(itemDTO.getSupplierId())
+                .filter(s -> s.getTenant().getId().equals(tenantId)).isEmpty()) {
+            throw new IllegalArgumentException("Supplier not found");
+        }
+        if (updateCatalog(tenantId, itemId, itemDTO) == 0) {
+            return Optional.empty();
+        }
+        return inventoryItemRepository.findByIdAndTenantId(itemId, tenantId);
+    }
+
+    /**
+     * Delete an item
+     * @return false if it does not exist in the tenant
+     * @throws org.springframework.dao.DataIntegrityViolationException if the item has ledger entries
+     */
+    @Transactional
+    public boolean delete(UUID tenantId, UUID itemId) {
+        Optional<InventoryItem> item = inventoryItemRepository.findByIdAndTenantId(itemId, tenantId);
+        if (item.isEmpty()) {
+            return false;
+        }
+        inventoryItemRepository.delete(item.get());
+        // Surfaces the foreign key violation here rather than at commit
+        inventoryItemRepository.flush();
+        return true;
+    }
+
+    /**
+     * Write the catalog columns only: a movement committing between a read of the item and its save
+     * would otherwise be undone by the stale current_quantity of the entity
+     */
+    int updateCatalog(UUID tenantId, UUID itemId, InventoryItemDTO itemDTO) {
+        return jdbcTemplate.update("""
+                UPDATE inventory_items SET name = ?, sku = ?, unit = ?, par_level = ?, unit_cost = ?, image_url = ?,
+                       category_id = ?, supplier_id = ?, updated_at = now()
+                WHERE id = ? AND tenant_id = ?""",
+                itemDTO.getName(), itemDTO.getSku(), itemDTO.getUnit(), itemDTO.getParLevel(), itemDTO.getUnitCost(),
+                itemDTO.getImageUrl(), itemDTO.getCategoryId(), itemDTO.getSupplierId(), itemId, tenantId);
+    }
+}
@@ -0,0 +1,385 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.dto.CostOfGoodsSoldDTO;
+import com.hotelsaas.backend.dto.InventoryValuationDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * FIFO and weighted-average valuation, kept up to date as movements are recorded instead of being
+ * recomputed from history. Each movement updates the item's {@link CostLayers} and, for issues,
+ * the item's cost of goods for the month, inside the transaction that records the movement (the
+ * item row is locked there, so updates per item are serialized).
+ * <p>
+ * Receipts and positive AUDIT corrections add a layer at the movement's unit cost; usage, waste and
+ * negative corrections consume layers. Stock that predates the ledger has no layer and is issued at
+ * the movement's unit cost.
+ * <p>
+ * {@link #startRebuild} recomputes a tenant from its ledger. Archived ledger months are replayed
+ * once, from the archive and before any item is locked; then the items are split into chunks that
+ * replay the live ledger in parallel, each in its own transaction holding the chunk's item locks.
+ */
+@Service
+@Slf4j
+public class InventoryValuationService implements DisposableBean {
+
+    private static final String UPSERT_LAYERS_SQL = """
+            INSERT INTO item_cost_layers (item_id, tenant_id, fifo_layers, fifo_quantity, fifo_value,
+                                          wac_quantity, wac_unit_cost, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (item_id) DO UPDATE SET fifo_layers = EXCLUDED.fifo_layers,
+                fifo_quantity = EXCLUDED.fifo_quantity, fifo_value = EXCLUDED.fifo_value,
+                wac_quantity = EXCLUDED.wac_quantity, wac_unit_cost = EXCLUDED.wac_unit_cost,
+                updated_at = EXCLUDED.updated_at""";
+
+    private static final String ADD_COGS_SQL = """
+            INSERT INTO item_cogs_monthly (item_id, month, tenant_id, quantity_issued, cogs_fifo, cogs_wac)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (item_id, month) DO UPDATE SET
+                quantity_issued = item_cogs_monthly.quantity_issued + EXCLUDED.quantity_issued,
+                cogs_fifo = item_cogs_monthly.cogs_fifo + EXCLUDED.cogs_fifo,
+                cogs_wac = item_cogs_monthly.cogs_wac + EXCLUDED.cogs_wac""";
+
+    private static final int REBUILD_FETCH_SIZE = 5000;
+
+    /**
+     * A ledger entry as seen by the valuation: signed quantity change at a unit cost
+     */
+    public record Movement(UUID itemId, BigDecimal change, BigDecimal unitCost, LocalDateTime timestamp) {
+    }
+
+    public record RebuildStatus(UUID tenantId, String phase, int items, int itemsDone, long transactions,
+                                LocalDateTime startedAt, LocalDateTime finishedAt, String error) {
+    }
+
+    private record CogsKey(UUID itemId, LocalDate month) {
+    }
+
+    /**
+     * Valuation state after the archived ledger months, and how many months that was
+     */
+    private record ArchivedState(Map<UUID, CostLayers> layers, Map<CogsKey, long[]> cogs, int months) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final LedgerArchiveService ledgerArchiveService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int rebuildChunkSize;
+    private final ExecutorService rebuildCoordinator;
+    private final ExecutorService rebuildWorkers;
+    private final Map<UUID, RebuildStatus> rebuilds = new ConcurrentHashMap<>();
+
+    public InventoryValuationService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     LedgerArchiveService ledgerArchiveService,
+                                     @Value("${app.valuation.enabled:true}") boolean enabled,
+                                     @Value("${app.valuation.rebuild-parallelism:4}") int rebuildParallelism,
+                                     @Value("${app.valuation.rebuild-chunk-size:500}") int rebuildChunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(REBUILD_FETCH_SIZE);
+        this.ledgerArchiveService = ledgerArchiveService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.rebuildChunkSize = rebuildChunkSize;
+        int workers = Math.max(1, Math.min(rebuildParallelism, Runtime.getRuntime().availableProcessors()));
+        this.rebuildCoordinator = Executors.newSingleThreadExecutor(daemon("valuation-rebuild"));
+        this.rebuildWorkers = Executors.newFixedThreadPool(workers, daemon("valuation-rebuild-worker"));
+    }
+
+    /**
+     * Apply recorded movements to the valuation. Must run in the transaction that recorded them,
+     * with the items locked.
+     */
+    @Transactional
+    public void apply(UUID tenantId, List<Movement> movements) {
+        if (!enabled || movements.isEmpty()) {
+            return;
+        }
+        List<UUID> itemIds = movements.stream().map(Movement::itemId).distinct().toList();
+        Map<UUID, CostLayers> layers = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT item_id, fifo_layers, wac_quantity, wac_unit_cost FROM item_cost_layers WHERE item_id = ANY(?)",
+                uuidArray(itemIds),
+                rs -> {
+                    layers.put(rs.getObject("item_id", UUID.class), CostLayers.decode(rs.getBytes("fifo_layers"),
+                            CostLayers.toQuantityUnits(rs.getBigDecimal("wac_quantity")),
+                            CostLayers.toCostUnits(rs.getBigDecimal("wac_unit_cost"))));
+                });
+
+        Map<CogsKey, long[]> cogs = new HashMap<>();
+        for (Movement movement : movements) {
+            applyMovement(layers.computeIfAbsent(movement.itemId(), id -> new CostLayers()), movement, cogs);
+        }
+        saveLayers(tenantId, layers);
+        saveCogs(tenantId, cogs);
+    }
+
+    /**
+     * Current value of every valued item under both methods
+     */
+    @Transactional(readOnly = true)
+    public InventoryValuationDTO valuation(UUID tenantId) {
+        List<InventoryValuationDTO.Line> lines = jdbcTemplate.query("""
+                SELECT l.item_id, i.name, l.fifo_quantity, l.fifo_value, l.wac_quantity, l.wac_unit_cost
+                FROM item_cost_layers l JOIN inventory_items i ON i.id = l.item_id
+                WHERE l.tenant_id = ?
+                ORDER BY i.name""",
+                (rs, rowNum) -> {
+                    BigDecimal wacQuantity = rs.getBigDecimal("wac_quantity");
+                    BigDecimal wacUnitCost = rs.getBigDecimal("wac_unit_cost");
+                    return new InventoryValuationDTO.Line(rs.getObject("item_id", UUID.class), rs.getString("name"),
+                            rs.getBigDecimal("fifo_quantity"), rs.getBigDecimal("fifo_value"),
+                            wacQuantity, wacUnitCost, wacQuantity.multiply(wacUnitCost));
+                },
+                tenantId);
+        return new InventoryValuationDTO(
+                lines.stream().map(InventoryValuationDTO.Line::getFifoValue).reduce(BigDecimal.ZERO, BigDecimal::add),
+                lines.stream().map(InventoryValuationDTO.Line::getWeightedAverageValue).reduce(BigDecimal.ZERO, BigDecimal::add),
+                lines);
+    }
+
+    /**
+     * Cost of goods issued per item over an inclusive range of months
+     */
+    @Transactional(readOnly = true)
+    public CostOfGoodsSoldDTO costOfGoodsSold(UUID tenantId, YearMonth from, YearMonth to) {
+        List<CostOfGoodsSoldDTO.Line> lines = jdbcTemplate.query("""
+                SELECT c.item_id, i.name, SUM(c.quantity_issued) AS quantity_issued,
+                       SUM(c.cogs_fifo) AS cogs_fifo, SUM(c.cogs_wac) AS cogs_wac
+                FROM item_cogs_monthly c JOIN inventory_items i ON i.id = c.item_id
+                WHERE c.tenant_id = ? AND c.month BETWEEN ? AND ?
+                GROUP BY c.item_id, i.name
+                ORDER BY i.name""",
+                (rs, rowNum) -> new CostOfGoodsSoldDTO.Line(rs.getObject("item_id", UUID.class), rs.getString("name"),
+                        rs.getBigDecimal("quantity_issued"), rs.getBigDecimal("cogs_fifo"), rs.getBigDecimal("cogs_wac")),
+                tenantId, Date.valueOf(from.atDay(1)), Date.valueOf(to.atDay(1)));
+        return new CostOfGoodsSoldDTO(from, to,
+                lines.stream().map(CostOfGoodsSoldDTO.Line::getFifoCost).reduce(BigDecimal.ZERO, BigDecimal::add),
+                lines.stream().map(CostOfGoodsSoldDTO.Line::getWeightedAverageCost).reduce(BigDecimal.ZERO, BigDecimal::add),
+                lines);
+    }
+
+    /**
+     * Recompute the tenant's valuation from its ledger in the background
+     * @throws IllegalStateException if a rebuild of the tenant is already running
+     */
+    public RebuildStatus startRebuild(UUID tenantId) {
+        RebuildStatus started = new RebuildStatus(tenantId, "QUEUED", 0, 0, 0, LocalDateTime.now(), null, null);
+        RebuildStatus previous = rebuilds.compute(tenantId, (id, current) ->
+                current != null && current.finishedAt() == null ? current : started);
+        if (previous != started) {
+            throw new IllegalStateException("A valuation rebuild is already running for this tenant");
+        }
+        rebuildCoordinator.submit(() -> runRebuild(tenantId, started.startedAt()));
+        return started;
+    }
+
+    public Optional<RebuildStatus> rebuildStatus(UUID tenantId) {
+        return Optional.ofNullable(rebuilds.get(tenantId));
+    }
+
+    private void runRebuild(UUID tenantId, LocalDateTime startedAt) {
+        AtomicInteger itemsDone = new AtomicInteger();
+        AtomicLong transactions = new AtomicLong();
+        List<UUID> items = List.of();
+        try {
+            items = withTenant(tenantId, () -> jdbcTemplate.queryForList(
+                    "SELECT id FROM inventory_items WHERE tenant_id = ? ORDER BY id", UUID.class, tenantId));
+            int itemCount = items.size();
+            rebuilds.put(tenantId, new RebuildStatus(tenantId, "RUNNING", itemCount, 0, 0, startedAt, null, null));
+            ArchivedState archived = withTenant(tenantId, () -> replayArchive(tenantId, transactions));
+
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 0; from < itemCount; from += rebuildChunkSize) {
+                List<UUID> chunk = items.subList(from, Math.min(itemCount, from + rebuildChunkSize));
+                chunks.add(rebuildWorkers.submit(() -> {
+                    withTenant(tenantId, () -> transactionTemplate.execute(
+                            status -> rebuildChunk(tenantId, chunk, archived, transactions)));
+                    rebuilds.put(tenantId, new RebuildStatus(tenantId, "RUNNING", itemCount,
+                            itemsDone.addAndGet(chunk.size()), transactions.get(), startedAt, null, null));
+                    return null;
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+            rebuilds.put(tenantId, new RebuildStatus(tenantId, "DONE", itemCount, itemsDone.get(),
+                    transactions.get(), startedAt, LocalDateTime.now(), null));
+            log.info("Rebuilt valuation of tenant {}: {} items, {} ledger entries in {}", tenantId, itemCount,
+                    transactions.get(), Duration.between(startedAt, LocalDateTime.now()));
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Valuation rebuild of tenant {} failed", tenantId, cause);
+            rebuilds.put(tenantId, new RebuildStatus(tenantId, "FAILED", items.size(), itemsDone.get(),
+                    transactions.get(), startedAt, LocalDateTime.now(), cause.getMessage()));
+        }
+    }
+
+    /**
+     * Replay the archived months of every item. Downloading the files can take a while, so only the
+     * shared ledger lock is held, keeping archival out, and no item is locked yet.
+     */
+    private ArchivedState replayArchive(UUID tenantId, AtomicLong transactions) {
+        Map<UUID, CostLayers> layers = new HashMap<>();
+        Map<CogsKey, long[]> cogs = new HashMap<>();
+        Integer months = transactionTemplate.execute(status -> {
+            ledgerArchiveService.lockLedger(tenantId, true);
+            return ledgerArchiveService.forEachArchived(tenantId, row -> {
+                applyMovement(layers.computeIfAbsent(row.itemId(), id -> new CostLayers()),
+                        new Movement(row.itemId(), row.quantityChange(), row.costAtTransaction(), row.timestamp()), cogs);
+                transactions.incrementAndGet();
+            });
+        });
+        return new ArchivedState(layers, cogs, months != null ? months : 0);
+    }
+
+    private Void rebuildChunk(UUID tenantId, List<UUID> itemIds, ArchivedState archived, AtomicLong transactions) {
+        PreparedStatementSetter items = uuidArray(itemIds);
+        // Same lock order as stocktake reconciliation; movements on these items wait for the chunk
+        jdbcTemplate.query("SELECT id FROM inventory_items WHERE id = ANY(?) ORDER BY id FOR UPDATE", items, rs -> {
+        });
+        // A month archived since the archive was replayed would be missing from both reads
+        ledgerArchiveService.lockLedger(tenantId, true);
+        if (ledgerArchiveService.archivedMonthCount(tenantId) != archived.months()) {
+            throw new IllegalStateException("Ledger months were archived during the rebuild; start it again");
+        }
+        jdbcTemplate.update("DELETE FROM item_cost_layers WHERE item_id = ANY(?)", items);
+        jdbcTemplate.update("DELETE FROM item_cogs_monthly WHERE item_id = ANY(?)", items);
+
+        // Each item belongs to one chunk, so its archived state is continued in place
+        Set<UUID> chunkItems = Set.copyOf(itemIds);
+        Map<UUID, CostLayers> layers = new HashMap<>();
+        Map<CogsKey, long[]> cogs = new HashMap<>();
+        archived.layers().forEach((itemId, l) -> {
+            if (chunkItems.contains(itemId)) {
+                layers.put(itemId, l);
+            }
+        });
+        archived.cogs().forEach((key, totals) -> {
+            if (chunkItems.contains(key.itemId())) {
+                cogs.put(key, totals);
+            }
+        });
+        streamingJdbcTemplate.query("""
+                SELECT item_id, quantity_change, cost_at_transaction, "timestamp" FROM stock_transactions
+                WHERE tenant_id = ? AND item_id = ANY(?)
+                ORDER BY item_id, "timestamp", id""",
+                ps -> {
+                    ps.setObject(1, tenantId);
+                    ps.setArray(2, ps.getConnection().createArrayOf("uuid", itemIds.toArray()));
+                },
+                rs -> {
+                    UUID itemId = rs.getObject("item_id", UUID.class);
+                    applyMovement(layers.computeIfAbsent(itemId, id -> new CostLayers()),
+                            new Movement(itemId, rs.getBigDecimal("quantity_change"),
+                                    rs.getBigDecimal("cost_at_transaction"),
+                                    rs.getTimestamp("timestamp").toLocalDateTime()),
+                            cogs);
+                    transactions.incrementAndGet();
+                });
+        saveLayers(tenantId, layers);
+        saveCogs(tenantId, cogs);
+        return null;
+    }
+
+    private static void applyMovement(CostLayers layers, Movement movement, Map<CogsKey, long[]> cogs) {
+        long quantity = CostLayers.toQuantityUnits(movement.change());
+        long unitCost = CostLayers.toCostUnits(movement.unitCost());
+        if (quantity > 0) {
+            layers.receive(quantity, unitCost);
+        } else if (quantity < 0) {
+            CostLayers.Issue issue = layers.issue(-quantity, unitCost);
+            long[] totals = cogs.computeIfAbsent(
+                    new CogsKey(movement.itemId(), movement.timestamp().toLocalDate().withDayOfMonth(1)),
+                    key -> new long[3]);
+            totals[0] -= quantity;
+            totals[1] += issue.fifoValue();
+            totals[2] += issue.wacValue();
+        }
+    }
+
+    private void saveLayers(UUID tenantId, Map<UUID, CostLayers> layers) {
+        if (layers.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(layers.size());
+        layers.forEach((itemId, l) -> rows.add(new Object[]{itemId, tenantId, l.encodeLayers(),
+                CostLayers.quantity(l.fifoQuantity()), CostLayers.value(l.fifoValue()),
+                CostLayers.quantity(l.wacQuantity()), CostLayers.cost(l.wacCost()), now}));
+        jdbcTemplate.batchUpdate(UPSERT_LAYERS_SQL, rows);
+    }
+
+    private void saveCogs(UUID tenantId, Map<CogsKey, long[]> cogs) {
+        if (cogs.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(cogs.size());
+        cogs.forEach((key, totals) -> rows.add(new Object[]{key.itemId(), Date.valueOf(key.month()), tenantId,
+                CostLayers.quantity(totals[0]), CostLayers.value(totals[1]), CostLayers.value(totals[2])}));
+        jdbcTemplate.batchUpdate(ADD_COGS_SQL, rows);
+    }
+
+    private static PreparedStatementSetter uuidArray(Collection<UUID> ids) {
+        return ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+    }
+
+    private static <T> T withTenant(UUID tenantId, Supplier<T> work) {
+        // Bind the tenant so connections go to its shard
+        TenantContext.setTenantId(tenantId);
+        try {
+            return work.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void destroy() {
+        rebuildCoordinator.shutdownNow();
+        rebuildWorkers.shutdownNow();
+    }
+}
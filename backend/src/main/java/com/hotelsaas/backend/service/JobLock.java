@@ -0,0 +1,108 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.MetricsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Runs a maintenance job on one instance at a time, under a lease row in scheduled_job_locks of the
+ * default shard. No connection is held while the job runs: the lease expires after
+ * lock-at-most-for, so a job of an instance that died is picked up again, and is kept for at least
+ * lock-at-least-for, so instances whose clocks fire the same schedule a little apart do not run a
+ * short job twice.
+ */
+@Component
+@Slf4j
+public class JobLock {
+
+    private static final String UPDATE_SQL = """
+            UPDATE scheduled_job_locks SET locked_until = ?, locked_at = ?, locked_by = ?
+            WHERE job_name = ? AND locked_until <= ?""";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO scheduled_job_locks (job_name, locked_until, locked_at, locked_by) VALUES (?, ?, ?, ?)
+            ON CONFLICT (job_name) DO NOTHING""";
+
+    private static final String RELEASE_SQL = """
+            UPDATE scheduled_job_locks SET locked_until = ?
+            WHERE job_name = ? AND locked_by = ? AND locked_at = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration lockAtMostFor;
+    private final Duration lockAtLeastFor;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public JobLock(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                   @Value("${app.jobs.lock-at-most-for:2h}") Duration lockAtMostFor,
+                   @Value("${app.jobs.lock-at-least-for:1m}") Duration lockAtLeastFor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.lockAtMostFor = lockAtMostFor;
+        this.lockAtLeastFor = lockAtLeastFor;
+    }
+
+    /**
+     * Run the job unless another instance holds its lock
+     * @return false if the job was skipped
+     */
+    public boolean runExclusively(MaintenanceJob job) {
+        // Stored with microsecond precision, and matched again on release
+        LocalDateTime lockedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (!acquire(job.name(), lockedAt)) {
+            log.info("Job {} is running on another instance or ran moments ago; skipped", job.name());
+            count(job.name(), "skipped");
+            return false;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            job.execute();
+            return true;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("jobs.duration", "job", job.name()));
+            count(job.name(), outcome);
+            release(job.name(), lockedAt);
+        }
+    }
+
+    private boolean acquire(String name, LocalDateTime now) {
+        Timestamp lockedAt = Timestamp.valueOf(now);
+        Timestamp lockedUntil = Timestamp.valueOf(now.plus(lockAtMostFor));
+        if (jdbcTemplate.update(UPDATE_SQL, lockedUntil, lockedAt, instanceId, name, lockedAt) == 1) {
+            return true;
+        }
+        // First run of the job
+        return jdbcTemplate.update(INSERT_SQL, name, lockedUntil, lockedAt, instanceId) == 1;
+    }
+
+    private void release(String name, LocalDateTime lockedAt) {
+        LocalDateTime until = LocalDateTime.now();
+        if (until.isBefore(lockedAt.plus(lockAtLeastFor))) {
+            until = lockedAt.plus(lockAtLeastFor);
+        }
+        try {
+            jdbcTemplate.update(RELEASE_SQL, Timestamp.valueOf(until), name, instanceId, Timestamp.valueOf(lockedAt));
+        } catch (Exception e) {
+            // The lease then runs out after lock-at-most-for
+            log.error("Releasing the lock of job {} failed: {}", name, e.getMessage());
+        }
+    }
+
+    private void count(String name, String outcome) {
+        meterRegistry.counter("jobs.runs", "job", name, MetricsConfig.OUTCOME_TAG, outcome).increment();
+    }
+}
@@ -1,5 +1,6 @@
 package com.hotelsaas.backend.service;
 
+import com.hotelsaas.backend.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -12,11 +13,16 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_TENANT_ID = "tenantId";
+    public static final String CLAIM_ROLE = "role";
+
     @Value("${app.jwt.secret:this_is_a_very_long_secret_key_for_development_purpose_only_please_change_in_prod}")
     private String secretKey;
 
@@ -29,6 +35,26 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Issue an application token for a user, carrying the claims the request filter needs
+     * to authenticate without a database lookup.
+     */
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId().toString());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        if (user.getTenant() != null) {
+            claims.put(CLAIM_TENANT_ID, user.getTenant().getId().toString());
+        }
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(user.getEmail())
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)) // 24 hours
+                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
@@ -56,6 +82,30 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    /**
+     * Verify the signature and expiry of a token and return its claims
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
+    public UUID extractUserId(Claims claims) {
+        return toUuid(claims.get(CLAIM_USER_ID, String.class));
+    }
+
+    public UUID extractTenantId(Claims claims) {
+        return toUuid(claims.get(CLAIM_TENANT_ID, String.class));
+    }
+
+    public String extractRole(Claims claims) {
+        return claims.get(CLAIM_ROLE, String.class);
+    }
+
+    private UUID toUuid(String value) {
+        return value != null ? UUID.fromString(value) : null;
+    }
+
     private Claims extractAllClaims(String token) {
         return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
     }
@@ -0,0 +1,335 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.model.TransactionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * One tenant-month of archived ledger rows as a compressed columnar file.
+ * <p>
+ * An uncompressed header (magic, format version, row count and min/max of timestamp and quantity
+ * change) is followed by a deflated body: item and user dictionaries carrying the names at archival
+ * time, the transaction type dictionary, then one column after the other. Timestamps are
+ * delta-encoded microseconds, amounts are fixed-point in 0.01 like the ledger columns, and all
+ * integers are (zig-zag) varints, so a row costs little more than its 16-byte id.
+ */
+final class LedgerArchiveFile {
+
+    static final int AMOUNT_SCALE = 2;
+
+    private static final int MAGIC = 0x4C444741; // "LDGA"
+    private static final byte FORMAT_VERSION = 1;
+
+    /**
+     * A ledger entry with the item and user names it had when archived
+     */
+    record Row(UUID id, UUID itemId, String itemName, UUID userId, String userName, TransactionType type,
+               BigDecimal quantityChange, BigDecimal costAtTransaction, LocalDateTime timestamp) {
+    }
+
+    record Stats(int rowCount, LocalDateTime minTimestamp, LocalDateTime maxTimestamp,
+                 BigDecimal minQuantityChange, BigDecimal maxQuantityChange) {
+    }
+
+    private LedgerArchiveFile() {
+    }
+
+    /**
+     * Encode rows in ledger order ("timestamp", id); the order is kept on decode
+     */
+    static byte[] encode(List<Row> rows) {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to archive");
+        }
+        Dictionary<UUID> items = new Dictionary<>();
+        Dictionary<UUID> users = new Dictionary<>();
+        Dictionary<TransactionType> types = new Dictionary<>();
+        List<String> itemNames = new ArrayList<>();
+        List<String> userNames = new ArrayList<>();
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        long minQuantity = Long.MAX_VALUE;
+        long maxQuantity = Long.MIN_VALUE;
+        for (Row row : rows) {
+            if (items.add(row.itemId())) {
+                itemNames.add(row.itemName());
+            }
+            if (users.add(row.userId())) {
+                userNames.add(row.userName());
+            }
+            types.add(row.type());
+            long timestamp = toMicros(row.timestamp());
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            long quantity = toUnits(row.quantityChange());
+            minQuantity = Math.min(minQuantity, quantity);
+            maxQuantity = Math.max(maxQuantity, quantity);
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 + rows.size() * 24);
+        Deflater compressor = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            DataOutputStream header = new DataOutputStream(buffer);
+            header.writeInt(MAGIC);
+            header.writeByte(FORMAT_VERSION);
+            header.writeInt(rows.size());
+            header.writeLong(minTimestamp);
+            header.writeLong(maxTimestamp);
+            header.writeLong(minQuantity);
+            header.writeLong(maxQuantity);
+            header.flush();
+
+            DeflaterOutputStream deflater = new DeflaterOutputStream(buffer, compressor);
+            DataOutputStream body = new DataOutputStream(deflater);
+            writeVarint(body, items.size());
+            for (int i = 0; i < items.size(); i++) {
+                writeUuid(body, items.get(i));
+                body.writeUTF(itemNames.get(i));
+            }
+            writeVarint(body, users.size());
+            for (int i = 0; i < users.size(); i++) {
+                writeUuid(body, users.get(i));
+                body.writeUTF(userNames.get(i));
+            }
+            writeVarint(body, types.size());
+            for (int i = 0; i < types.size(); i++) {
+                body.writeUTF(types.get(i).name());
+            }
+
+            long previous = 0;
+            for (Row row : rows) {
+                long timestamp = toMicros(row.timestamp());
+                writeSignedVarint(body, timestamp - previous);
+                previous = timestamp;
+            }
+            for (Row row : rows) {
+                writeUuid(body, row.id());
+            }
+            for (Row row : rows) {
+                writeVarint(body, items.indexOf(row.itemId()));
+            }
+            for (Row row : rows) {
+                writeVarint(body, users.indexOf(row.userId()));
+            }
+            for (Row row : rows) {
+                writeVarint(body, types.indexOf(row.type()));
+            }
+            for (Row row : rows) {
+                writeSignedVarint(body, toUnits(row.quantityChange()));
+            }
+            for (Row row : rows) {
+                // 0 marks a missing cost, so present costs are shifted by one
+                writeVarint(body, row.costAtTransaction() == null ? 0 : zigZag(toUnits(row.costAtTransaction())) + 1);
+            }
+            body.flush();
+            deflater.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            compressor.end();
+        }
+        return buffer.toByteArray();
+    }
+
+    static Stats stats(byte[] content) {
+        try {
+            DataInputStream header = new DataInputStream(new ByteArrayInputStream(content));
+            return readHeader(header);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated ledger archive", e);
+        }
+    }
+
+    static List<Row> decode(byte[] content) {
+        ByteArrayInputStream input = new ByteArrayInputStream(content);
+        try (DataInputStream body = new DataInputStream(new InflaterInputStream(input))) {
+            Stats stats = readHeader(new DataInputStream(input));
+            int rowCount = stats.rowCount();
+
+            int itemCount = (int) readVarint(body);
+            UUID[] itemIds = new UUID[itemCount];
+            String[] itemNames = new String[itemCount];
+            for (int i = 0; i < itemCount; i++) {
+                itemIds[i] = readUuid(body);
+                itemNames[i] = body.readUTF();
+            }
+            int userCount = (int) readVarint(body);
+            UUID[] userIds = new UUID[userCount];
+            String[] userNames = new String[userCount];
+            for (int i = 0; i < userCount; i++) {
+                userIds[i] = readUuid(body);
+                userNames[i] = body.readUTF();
+            }
+            int typeCount = (int) readVarint(body);
+            TransactionType[] types = new TransactionType[typeCount];
+            for (int i = 0; i < typeCount; i++) {
+                types[i] = TransactionType.valueOf(body.readUTF());
+            }
+
+            long[] timestamps = new long[rowCount];
+            long previous = 0;
+            for (int i = 0; i < rowCount; i++) {
+                previous += readSignedVarint(body);
+                timestamps[i] = previous;
+            }
+            UUID[] ids = new UUID[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                ids[i] = readUuid(body);
+            }
+            int[] itemIndexes = readIndexes(body, rowCount);
+            int[] userIndexes = readIndexes(body, rowCount);
+            int[] typeIndexes = readIndexes(body, rowCount);
+            long[] quantities = new long[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                quantities[i] = readSignedVarint(body);
+            }
+
+            List<Row> rows = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                long cost = readVarint(body);
+                rows.add(new Row(ids[i], itemIds[itemIndexes[i]], itemNames[itemIndexes[i]],
+                        userIds[userIndexes[i]], userNames[userIndexes[i]], types[typeIndexes[i]],
+                        amount(quantities[i]), cost == 0 ? null : amount(unZigZag(cost - 1)),
+                        fromMicros(timestamps[i])));
+            }
+            return rows;
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Corrupt ledger archive", e);
+        }
+    }
+
+    private static Stats readHeader(DataInputStream header) throws IOException {
+        if (header.readInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a ledger archive");
+        }
+        byte version = header.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown ledger archive format: " + version);
+        }
+        int rowCount = header.readInt();
+        return new Stats(rowCount, fromMicros(header.readLong()), fromMicros(header.readLong()),
+                amount(header.readLong()), amount(header.readLong()));
+    }
+
+    private static int[] readIndexes(InputStream in, int count) throws IOException {
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = (int) readVarint(in);
+        }
+        return indexes;
+    }
+
+    private static long toUnits(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal amount(long units) {
+        return BigDecimal.valueOf(units, AMOUNT_SCALE);
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        return Math.addExact(Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), 1_000_000L),
+                timestamp.getNano() / 1_000);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeSignedVarint(OutputStream out, long value) throws IOException {
+        writeVarint(out, zigZag(value));
+    }
+
+    private static long readSignedVarint(InputStream in) throws IOException {
+        return unZigZag(readVarint(in));
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.read();
+            if (b < 0 || shift > 63) {
+                throw new IOException("Truncated varint");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Distinct values in order of first appearance
+     */
+    private static final class Dictionary<T> {
+
+        private final List<T> values = new ArrayList<>();
+        private final Map<T, Integer> indexes = new HashMap<>();
+
+        boolean add(T value) {
+            if (indexes.putIfAbsent(value, values.size()) != null) {
+                return false;
+            }
+            values.add(value);
+            return true;
+        }
+
+        int indexOf(T value) {
+            return indexes.get(value);
+        }
+
+        T get(int index) {
+            return values.get(index);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
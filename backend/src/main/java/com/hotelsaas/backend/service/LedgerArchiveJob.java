@@ -0,0 +1,111 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.MetricsConfig;
+import com.hotelsaas.backend.config.ShardRegistry;
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.model.Tenant;
+import com.hotelsaas.backend.repository.TenantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Nightly archival of ledger months older than the retention period, per tenant and oldest month
+ * first; a tenant stops at its first month that cannot be archived yet, so its archived months stay
+ * a prefix of its history. Afterwards, partitions emptied by the archival are dropped on every shard.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.ledger.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LedgerArchiveJob implements MaintenanceJob {
+
+    private final TenantRepository tenantRepository;
+    private final LedgerArchiveService ledgerArchiveService;
+    private final ObjectProvider<ShardDirectory> shardDirectory;
+    private final ObjectProvider<ShardRegistry> shardRegistry;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final JobLock jobLock;
+
+    @Value("${app.ledger.archive.retention-months:24}")
+    private int retentionMonths;
+
+    @Scheduled(cron = "${app.ledger.archive.cron:0 0 4 * * *}")
+    public void run() {
+        jobLock.runExclusively(this);
+    }
+
+    @Override
+    public String name() {
+        return "ledger-archive";
+    }
+
+    @Override
+    public void execute() {
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        // The tenants table of the default shard lists every tenant
+        List<UUID> tenantIds = tenantRepository.findAll().stream().map(Tenant::getId).toList();
+        for (UUID tenantId : tenantIds) {
+            if (isMigrating(tenantId)) {
+                // The shard migrator copies the ledger append-only; archive once the tenant has moved
+                continue;
+            }
+            TenantContext.setTenantId(tenantId);
+            try {
+                archiveTenant(tenantId, cutoff);
+            } catch (Exception e) {
+                log.error("Ledger archival of tenant {} failed: {}", tenantId, e.getMessage());
+            } finally {
+                TenantContext.clear();
+            }
+        }
+
+        ShardRegistry registry = shardRegistry.getIfAvailable();
+        Map<String, DataSource> targets = registry != null ? registry.dataSources() : Map.of("default", dataSource);
+        targets.forEach((shard, target) -> dropEmptyPartitions(shard, target, cutoff));
+    }
+
+    private void archiveTenant(UUID tenantId, YearMonth cutoff) {
+        for (YearMonth month : ledgerArchiveService.unarchivedMonthsBefore(tenantId, cutoff)) {
+            if (!ledgerArchiveService.isCoveredBySnapshot(tenantId, month)) {
+                log.info("Not archiving ledger of tenant {} from {}: no stock snapshot after that month yet",
+                        tenantId, month);
+                return;
+            }
+            int rows = ledgerArchiveService.archiveMonth(tenantId, month);
+            meterRegistry.counter("ledger.archive.rows", Tags.of(MetricsConfig.tenantTag(tenantId))).increment(rows);
+        }
+    }
+
+    private boolean isMigrating(UUID tenantId) {
+        ShardDirectory directory = shardDirectory.getIfAvailable();
+        return directory != null && !ShardDirectory.STATUS_ACTIVE.equals(directory.assignment(tenantId).status());
+    }
+
+    private void dropEmptyPartitions(String shard, DataSource target, YearMonth cutoff) {
+        try {
+            Integer dropped = new JdbcTemplate(target).queryForObject(
+                    "SELECT drop_empty_stock_transaction_partitions(?)", Integer.class, Date.valueOf(cutoff.atDay(1)));
+            if (dropped != null && dropped > 0) {
+                log.info("Dropped {} archived stock_transactions partition(s) on shard '{}'", dropped, shard);
+            }
+        } catch (Exception e) {
+            log.error("Failed to drop archived stock_transactions partitions on shard '{}': {}", shard, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.hotelsaas.backend.service;
+
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.hotelsaas.backend.dto.StockTransactionDTO;
+import com.hotelsaas.backend.model.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Cold storage for old ledger months. {@link #archiveMonth} moves a tenant's stock_transactions
+ * rows of one month into a {@link LedgerArchiveFile} in object storage and records it in
+ * ledger_archives; the read methods query through to those files, skipping the ones whose
+ * min/max timestamps lie outside the requested range.
+ * <p>
+ * Months are archived oldest first and only once a stock snapshot has been taken after them, so
+ * archived rows always precede the tenant's remaining ledger and snapshot-based reads of later
+ * points in time never need them.
+ */
+@Service
+@Slf4j
+public class LedgerArchiveService {
+
+    private static final RowMapper<Archive> ARCHIVE_MAPPER = (rs, rowNum) -> new Archive(
+            rs.getDate("month").toLocalDate(), rs.getString("bucket"), rs.getString("object_name"),
+            rs.getTimestamp("min_timestamp").toLocalDateTime(), rs.getTimestamp("max_timestamp").toLocalDateTime(),
+            rs.getString("checksum"));
+
+    private static final RowMapper<LedgerArchiveFile.Row> LEDGER_ROW_MAPPER = (rs, rowNum) -> new LedgerArchiveFile.Row(
+            rs.getObject("id", UUID.class), rs.getObject("item_id", UUID.class), rs.getString("item_name"),
+            rs.getObject("user_id", UUID.class), rs.getString("user_name"),
+            TransactionType.valueOf(rs.getString("type")), rs.getBigDecimal("quantity_change"),
+            rs.getBigDecimal("cost_at_transaction"), rs.getTimestamp("timestamp").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // Proxy, so the client is only built when an archive is written or read
+    private final Storage storage;
+    private final String bucket;
+    private final String prefix;
+
+    /**
+     * An archived tenant-month as recorded in the manifest
+     */
+    record Archive(LocalDate month, String bucket, String objectName, LocalDateTime minTimestamp,
+                   LocalDateTime maxTimestamp, String checksum) {
+    }
+
+    public LedgerArchiveService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                @Lazy Storage storage,
+                                @Value("${app.ledger.archive.bucket}") String bucket,
+                                @Value("${app.ledger.archive.prefix:ledger-archive}") String prefix) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.storage = storage;
+        this.bucket = bucket;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Months before the cutoff that still have rows in stock_transactions, oldest first
+     */
+    public List<YearMonth> unarchivedMonthsBefore(UUID tenantId, YearMonth cutoff) {
+        return jdbcTemplate.queryForList("""
+                SELECT DISTINCT CAST(date_trunc('month', "timestamp") AS DATE) AS month FROM stock_transactions
+                WHERE tenant_id = ? AND "timestamp" < ?
+                ORDER BY month""", Date.class, tenantId, Timestamp.valueOf(cutoff.atDay(1).atStartOfDay()))
+                .stream().map(month -> YearMonth.from(month.toLocalDate())).toList();
+    }
+
+    /**
+     * Whether a stock snapshot was taken at or after the end of the month. Month-start snapshots are
+     * never pruned, so once true this stays true.
+     */
+    public boolean isCoveredBySnapshot(UUID tenantId, YearMonth month) {
+        Boolean covered = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM stock_snapshots WHERE tenant_id = ? AND taken_at >= ?)",
+                Boolean.class, tenantId, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+        return Boolean.TRUE.equals(covered);
+    }
+
+    /**
+     * Move the tenant's ledger rows of the month to object storage. The file is written and read back
+     * before the rows are deleted; a failure leaves the rows in place and the month is retried on the
+     * next run (the object is simply overwritten).
+     * @return the number of rows archived
+     */
+    public int archiveMonth(UUID tenantId, YearMonth month) {
+        Timestamp start = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp end = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        List<LedgerArchiveFile.Row> rows = jdbcTemplate.query("""
+                SELECT t.id, t.item_id, i.name AS item_name, t.user_id, u.name AS user_name, t.type,
+                       t.quantity_change, t.cost_at_transaction, t."timestamp"
+                FROM stock_transactions t
+                JOIN inventory_items i ON i.id = t.item_id
+                JOIN users u ON u.id = t.user_id
+                WHERE t.tenant_id = ? AND t."timestamp" >= ? AND t."timestamp" < ?
+                ORDER BY t."timestamp", t.id""", LEDGER_ROW_MAPPER, tenantId, start, end);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        byte[] content = LedgerArchiveFile.encode(rows);
+        String checksum = checksum(content);
+        String objectName = String.format("%s/%s/%s.ldga", prefix, tenantId, month);
+        BlobId blobId = BlobId.of(bucket, objectName);
+        storage.create(BlobInfo.newBuilder(blobId).setContentType("application/octet-stream").build(), content);
+        if (!checksum.equals(checksum(storage.readAllBytes(blobId)))) {
+            throw new IllegalStateException("Ledger archive " + objectName + " did not read back intact");
+        }
+
+        LedgerArchiveFile.Stats stats = LedgerArchiveFile.stats(content);
+        transactionTemplate.executeWithoutResult(status -> {
+            lockLedger(tenantId, false);
+            jdbcTemplate.update("""
+                    INSERT INTO ledger_archives (tenant_id, month, bucket, object_name, row_count, min_timestamp,
+                                                 max_timestamp, min_quantity_change, max_quantity_change,
+                                                 stored_bytes, checksum, archived_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""",
+                    tenantId, Date.valueOf(month.atDay(1)), bucket, objectName, stats.rowCount(),
+                    Timestamp.valueOf(stats.minTimestamp()), Timestamp.valueOf(stats.maxTimestamp()),
+                    stats.minQuantityChange(), stats.maxQuantityChange(), (long) content.length, checksum,
+                    Timestamp.valueOf(LocalDateTime.now()));
+            int deleted = jdbcTemplate.update(
+                    "DELETE FROM stock_transactions WHERE tenant_id = ? AND \"timestamp\" >= ? AND \"timestamp\" < ?",
+                    tenantId, start, end);
+            if (deleted != rows.size()) {
+                throw new IllegalStateException("Ledger of tenant " + tenantId + " for " + month
+                        + " changed while being archived (" + rows.size() + " archived, " + deleted + " deleted)");
+            }
+        });
+        log.info("Archived {} ledger rows of tenant {} for {} to {} ({} bytes)", rows.size(), tenantId, month,
+                objectName, content.length);
+        return rows.size();
+    }
+
+    /**
+     * Archived ledger entries with from <= timestamp < to, newest first. Files are read newest first
+     * and reading stops once the limit is reached.
+     */
+    public List<StockTransactionDTO> transactions(UUID tenantId, LocalDateTime from, LocalDateTime to, int limit) {
+        List<Archive> archives = archives(tenantId, from, to);
+        List<StockTransactionDTO> transactions = new ArrayList<>();
+        for (int i = archives.size() - 1; i >= 0 && transactions.size() < limit; i--) {
+            List<LedgerArchiveFile.Row> rows = read(archives.get(i));
+            for (int j = rows.size() - 1; j >= 0 && transactions.size() < limit; j--) {
+                LedgerArchiveFile.Row row = rows.get(j);
+                if (!row.timestamp().isBefore(from) && row.timestamp().isBefore(to)) {
+                    transactions.add(toDTO(row));
+                }
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Net archived quantity change per item with after < timestamp <= upTo; empty when no archive
+     * overlaps the range, without touching object storage
+     */
+    public Map<UUID, BigDecimal> changes(UUID tenantId, LocalDateTime after, LocalDateTime upTo) {
+        Map<UUID, BigDecimal> changes = new HashMap<>();
+        for (Archive archive : archives(tenantId, after, upTo)) {
+            for (LedgerArchiveFile.Row row : read(archive)) {
+                if (row.timestamp().isAfter(after) && !row.timestamp().isAfter(upTo)) {
+                    changes.merge(row.itemId(), row.quantityChange(), BigDecimal::add);
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Feed every archived entry of the tenant to the consumer in ledger order. Callers that also read
+     * stock_transactions should hold {@link #lockLedger} shared, so a month cannot move to the archive
+     * between the two reads.
+     * @return the number of archived months read, to compare with {@link #archivedMonthCount} later
+     */
+    int forEachArchived(UUID tenantId, Consumer<LedgerArchiveFile.Row> consumer) {
+        List<Archive> archives = archives(tenantId, null, null);
+        for (Archive archive : archives) {
+            read(archive).forEach(consumer);
+        }
+        return archives.size();
+    }
+
+    /**
+     * Archived months of the tenant; archival only adds months, so an unchanged count means unchanged archives
+     */
+    int archivedMonthCount(UUID tenantId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM ledger_archives WHERE tenant_id = ?", Integer.class, tenantId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Transaction-scoped advisory lock on the tenant's ledger: exclusive while a month is moved to the
+     * archive, shared by readers that combine archived and live rows
+     */
+    void lockLedger(UUID tenantId, boolean shared) {
+        long key = tenantId.getMostSignificantBits() ^ tenantId.getLeastSignificantBits();
+        jdbcTemplate.query(shared ? "SELECT pg_advisory_xact_lock_shared(?)" : "SELECT pg_advisory_xact_lock(?)",
+                rs -> {
+                }, key);
+    }
+
+    /**
+     * Archives whose timestamps overlap [from, to], oldest first; null bounds are open
+     */
+    private List<Archive> archives(UUID tenantId, LocalDateTime from, LocalDateTime to) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT month, bucket, object_name, min_timestamp, max_timestamp, checksum FROM ledger_archives
+                WHERE tenant_id = ?""");
+        List<Object> args = new ArrayList<>(List.of(tenantId));
+        if (from != null) {
+            sql.append(" AND max_timestamp >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND min_timestamp <= ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY month");
+        return jdbcTemplate.query(sql.toString(), ARCHIVE_MAPPER, args.toArray());
+    }
+
+    private List<LedgerArchiveFile.Row> read(Archive archive) {
+        byte[] content = storage.readAllBytes(BlobId.of(archive.bucket(), archive.objectName()));
+        if (!archive.checksum().equals(checksum(content))) {
+            throw new IllegalStateException("Ledger archive " + archive.objectName() + " does not match its checksum");
+        }
+        return LedgerArchiveFile.decode(content);
+    }
+
+    private static String checksum(byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        return HexFormat.of().toHexDigits((int) crc.getValue());
+    }
+
+    private static StockTransactionDTO toDTO(LedgerArchiveFile.Row row) {
+        StockTransactionDTO dto = new StockTransactionDTO();
+        dto.setId(row.id());
+        dto.setItemId(row.itemId());
+        dto.setItemName(row.itemName());
+        dto.setUserId(row.userId());
+        dto.setUserName(row.userName());
+        dto.setType(row.type());
+        dto.setQuantityChange(row.quantityChange());
+        dto.setCostAtTransaction(row.costAtTransaction());
+        dto.setTimestamp(row.timestamp());
+        return dto;
+    }
+}
@@ -0,0 +1,100 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.ShardRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps monthly partitions of stock_transactions created ahead of time, so ledger inserts
+ * never hit a month without a partition. The partitioning itself is set up by the V2 migration.
+ * Rows outside every monthly partition land in stock_transactions_default (V13); its row count is
+ * published as ledger.partitions.default.rows and logged as an error, since it should stay empty.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.ledger.partitions", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LedgerPartitionService implements MaintenanceJob {
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ShardRegistry> shardRegistry;
+    private final MeterRegistry meterRegistry;
+    private final JobLock jobLock;
+    private final Map<String, AtomicLong> defaultPartitionGauges = new ConcurrentHashMap<>();
+
+    @Value("${app.ledger.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.ledger.partitions.cron:0 15 3 * * *}")
+    public void ensureFuturePartitions() {
+        jobLock.runExclusively(this);
+    }
+
+    @Override
+    public String name() {
+        return "ledger-partitions";
+    }
+
+    @Override
+    public void execute() {
+        ShardRegistry registry = shardRegistry.getIfAvailable();
+        Map<String, DataSource> targets = registry != null ? registry.dataSources() : Map.of("default", dataSource);
+        targets.forEach(this::ensureFuturePartitions);
+    }
+
+    /**
+     * Runs on every instance, each publishing the gauge; it only reads
+     */
+    @Scheduled(fixedDelayString = "${app.ledger.partitions.default-check-interval-ms:300000}")
+    public void checkDefaultPartitions() {
+        ShardRegistry registry = shardRegistry.getIfAvailable();
+        Map<String, DataSource> targets = registry != null ? registry.dataSources() : Map.of("default", dataSource);
+        targets.forEach(this::checkDefaultPartition);
+    }
+
+    private void ensureFuturePartitions(String shard, DataSource target) {
+        try {
+            Integer created = new JdbcTemplate(target).queryForObject(
+                    "SELECT ensure_stock_transaction_partitions(date_trunc('month', CURRENT_DATE)::date, ?)",
+                    Integer.class, monthsAhead);
+            if (created != null && created > 0) {
+                log.info("Created {} stock_transactions partition(s) on shard '{}', covering {} months ahead",
+                        created, shard, monthsAhead);
+            }
+        } catch (Exception e) {
+            log.error("Failed to create stock_transactions partitions on shard '{}': {}", shard, e.getMessage());
+        }
+    }
+
+    private void checkDefaultPartition(String shard, DataSource target) {
+        try {
+            Long rows = new JdbcTemplate(target).queryForObject(
+                    "SELECT count(*) FROM stock_transactions_default", Long.class);
+            defaultPartitionGauges.computeIfAbsent(shard, s -> meterRegistry.gauge("ledger.partitions.default.rows",
+                    Tags.of("shard", s), new AtomicLong())).set(rows != null ? rows : 0);
+            if (rows != null && rows > 0) {
+                // Rows of a month without its partition move there when create_stock_transaction_partition runs for it
+                log.error("{} ledger row(s) on shard '{}' are in stock_transactions_default, outside every monthly "
+                        + "partition", rows, shard);
+            }
+        } catch (Exception e) {
+            log.error("Failed to check the default stock_transactions partition on shard '{}': {}", shard, e.getMessage());
+        }
+    }
+}
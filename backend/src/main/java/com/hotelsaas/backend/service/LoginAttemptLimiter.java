@@ -0,0 +1,78 @@
+package com.hotelsaas.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits PIN login attempts per client address and per tenant within a fixed window. A 5-digit
+ * PIN has only 100,000 values, so a client gets a few attempts, and a tenant more (guesses spread
+ * over many addresses); successful logins give their attempt back. Kept in memory, so the limits
+ * apply per instance.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private record Window(long startedAt, int attempts) {
+    }
+
+    private final int maxAttemptsPerClient;
+    private final int maxAttemptsPerTenant;
+    private final long windowNanos;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public LoginAttemptLimiter(@Value("${app.auth.pin-login.max-attempts-per-client:5}") int maxAttemptsPerClient,
+                               @Value("${app.auth.pin-login.max-attempts-per-tenant:100}") int maxAttemptsPerTenant,
+                               @Value("${app.auth.pin-login.window:15m}") Duration window) {
+        this.maxAttemptsPerClient = maxAttemptsPerClient;
+        this.maxAttemptsPerTenant = maxAttemptsPerTenant;
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Count an attempt before checking the PIN, so concurrent guesses cannot all pass the check
+     * @return 0 if the attempt may proceed, otherwise the seconds until the window ends
+     */
+    public long tryAttempt(String client, UUID tenantId) {
+        long now = System.nanoTime();
+        long wait = attempt(clientKey(client), maxAttemptsPerClient, now);
+        if (wait == 0) {
+            // A locked-out client does not use up the attempts of the tenant's other tablets
+            wait = attempt(tenantKey(tenantId), maxAttemptsPerTenant, now);
+        }
+        return wait == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait));
+    }
+
+    public void succeeded(String client, UUID tenantId) {
+        windows.remove(clientKey(client));
+        windows.computeIfPresent(tenantKey(tenantId),
+                (key, window) -> window.attempts() <= 1 ? null : new Window(window.startedAt(), window.attempts() - 1));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        windows.values().removeIf(window -> now - window.startedAt() >= windowNanos);
+    }
+
+    private long attempt(String key, int maxAttempts, long now) {
+        Window window = windows.compute(key, (k, current) -> current == null || now - current.startedAt() >= windowNanos
+                ? new Window(now, 1)
+                : new Window(current.startedAt(), current.attempts() + 1));
+        return window.attempts() > maxAttempts ? Math.max(1, window.startedAt() + windowNanos - now) : 0;
+    }
+
+    private static String clientKey(String client) {
+        return "client:" + client;
+    }
+
+    private static String tenantKey(UUID tenantId) {
+        return "tenant:" + tenantId;
+    }
+}
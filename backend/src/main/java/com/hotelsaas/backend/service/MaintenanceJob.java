@@ -0,0 +1,19 @@
+package com.hotelsaas.backend.service;
+
+/**
+ * Background job over all tenants or shards that must not run on several instances at once.
+ * It is started by its own schedule or by Cloud Scheduler through POST /internal/jobs/{name},
+ * and always through {@link JobLock#runExclusively}.
+ */
+public interface MaintenanceJob {
+
+    /**
+     * Name in the trigger URL and in scheduled_job_locks
+     */
+    String name();
+
+    /**
+     * Do the work; called while holding the job's lock
+     */
+    void execute();
+}
@@ -0,0 +1,261 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.model.Tenant;
+import com.hotelsaas.backend.repository.TenantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nightly consumption forecast and par-level recommendation for every item of every tenant.
+ * <p>
+ * The tenants' items are cut into work units of a few thousand items and spread over a fork/join
+ * pool. Each unit streams its usage and waste history, aggregated per item and day by the
+ * database, over the lookback window; only one small daily series per item is held in memory.
+ * Results are upserted into par_recommendations; inventory_items.par_level is left untouched until
+ * the recommendations are applied.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "app.forecast", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ParRecommendationJob implements MaintenanceJob, DisposableBean {
+
+    private static final int FETCH_SIZE = 5000;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO par_recommendations (item_id, tenant_id, supplier_id, average_daily_usage, forecast_usage,
+                                             safety_stock, recommended_par, reorder_quantity, computed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (item_id) DO UPDATE SET supplier_id = EXCLUDED.supplier_id,
+                average_daily_usage = EXCLUDED.average_daily_usage, forecast_usage = EXCLUDED.forecast_usage,
+                safety_stock = EXCLUDED.safety_stock, recommended_par = EXCLUDED.recommended_par,
+                reorder_quantity = EXCLUDED.reorder_quantity, computed_at = EXCLUDED.computed_at""";
+
+    private record WorkUnit(UUID tenantId, List<UUID> itemIds) {
+    }
+
+    private record ItemState(UUID supplierId, BigDecimal currentQuantity, LocalDate firstDay) {
+    }
+
+    private final TenantRepository tenantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final JobLock jobLock;
+
+    @Value("${app.forecast.lookback-days:56}")
+    private int lookbackDays;
+
+    // Recent days averaged for the usage level; the full lookback feeds the weekday pattern
+    @Value("${app.forecast.level-window-days:28}")
+    private int levelWindowDays;
+
+    @Value("${app.forecast.lead-time-days:2}")
+    private int leadTimeDays;
+
+    @Value("${app.forecast.review-period-days:7}")
+    private int reviewPeriodDays;
+
+    @Value("${app.forecast.service-level-z:1.65}")
+    private double serviceLevelZ;
+
+    @Value("${app.forecast.items-per-task:2000}")
+    private int itemsPerTask;
+
+    public ParRecommendationJob(TenantRepository tenantRepository, JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager, JobLock jobLock,
+                                @Value("${app.forecast.parallelism:4}") int parallelism) {
+        this.tenantRepository = tenantRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Each worker holds a connection while its unit runs, so stay well below the pool size
+        this.pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, Runtime.getRuntime().availableProcessors())));
+        this.jobLock = jobLock;
+    }
+
+    @Scheduled(cron = "${app.forecast.cron:0 0 2 * * *}")
+    public void run() {
+        jobLock.runExclusively(this);
+    }
+
+    @Override
+    public String name() {
+        return "par-recommendations";
+    }
+
+    @Override
+    public void execute() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDate today = startedAt.toLocalDate();
+        List<WorkUnit> units = new ArrayList<>();
+        // The tenants table of the default shard lists every tenant
+        for (Tenant tenant : tenantRepository.findAll()) {
+            units.addAll(workUnits(tenant.getId()));
+        }
+        if (units.isEmpty()) {
+            return;
+        }
+        AtomicInteger items = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        pool.invoke(new Partition(units, 0, units.size(), today, items, failed));
+        log.info("Par recommendations computed for {} items in {} work units ({} failed) in {}",
+                items.get(), units.size(), failed.get(), Duration.between(startedAt, LocalDateTime.now()));
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private List<WorkUnit> workUnits(UUID tenantId) {
+        TenantContext.setTenantId(tenantId);
+        try {
+            List<UUID> itemIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM inventory_items WHERE tenant_id = ? ORDER BY id", UUID.class, tenantId);
+            List<WorkUnit> units = new ArrayList<>();
+            for (int i = 0; i < itemIds.size(); i += itemsPerTask) {
+                units.add(new WorkUnit(tenantId, itemIds.subList(i, Math.min(i + itemsPerTask, itemIds.size()))));
+            }
+            return units;
+        } catch (Exception e) {
+            log.error("Listing items of tenant {} for par recommendations failed: {}", tenantId, e.getMessage());
+            return List.of();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /**
+     * Splits the work units in halves until one is left, which it processes
+     */
+    private final class Partition extends RecursiveAction {
+
+        private final List<WorkUnit> units;
+        private final int from;
+        private final int to;
+        private final LocalDate today;
+        private final AtomicInteger items;
+        private final AtomicInteger failed;
+
+        Partition(List<WorkUnit> units, int from, int to, LocalDate today, AtomicInteger items, AtomicInteger failed) {
+            this.units = units;
+            this.from = from;
+            this.to = to;
+            this.today = today;
+            this.items = items;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Partition(units, from, middle, today, items, failed),
+                        new Partition(units, middle, to, today, items, failed));
+                return;
+            }
+            WorkUnit unit = units.get(from);
+            // Bind the tenant so connections go to its shard
+            TenantContext.setTenantId(unit.tenantId());
+            try {
+                items.addAndGet(transactionTemplate.execute(status -> process(unit, today)));
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.error("Par recommendations for {} items of tenant {} failed: {}", unit.itemIds().size(),
+                        unit.tenantId(), e.getMessage());
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private int process(WorkUnit unit, LocalDate today) {
+        LocalDate windowStart = today.minusDays(lookbackDays);
+        Map<UUID, ItemState> states = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT id, supplier_id, current_quantity, created_at FROM inventory_items WHERE id = ANY(?)""",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", unit.itemIds().toArray())),
+                rs -> {
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    // Days before the item existed would read as zero usage
+                    LocalDate firstDay = createdAt != null && createdAt.toLocalDateTime().toLocalDate().isAfter(windowStart)
+                            ? createdAt.toLocalDateTime().toLocalDate()
+                            : windowStart;
+                    states.put(rs.getObject("id", UUID.class), new ItemState(rs.getObject("supplier_id", UUID.class),
+                            rs.getBigDecimal("current_quantity"), firstDay));
+                });
+
+        Map<UUID, double[]> usage = new HashMap<>();
+        streamingJdbcTemplate.query("""
+                SELECT item_id, CAST("timestamp" AS DATE) AS day, -SUM(quantity_change) AS used
+                FROM stock_transactions
+                WHERE tenant_id = ? AND item_id = ANY(?) AND type IN ('OUT_USE', 'OUT_WASTE')
+                  AND "timestamp" >= ? AND "timestamp" < ?
+                GROUP BY item_id, CAST("timestamp" AS DATE)""",
+                ps -> {
+                    ps.setObject(1, unit.tenantId());
+                    ps.setArray(2, ps.getConnection().createArrayOf("uuid", unit.itemIds().toArray()));
+                    ps.setTimestamp(3, Timestamp.valueOf(windowStart.atStartOfDay()));
+                    ps.setTimestamp(4, Timestamp.valueOf(today.atStartOfDay()));
+                },
+                rs -> {
+                    UUID itemId = rs.getObject("item_id", UUID.class);
+                    ItemState state = states.get(itemId);
+                    if (state == null) {
+                        return;
+                    }
+                    int day = (int) ChronoUnit.DAYS.between(state.firstDay(), rs.getDate("day").toLocalDate());
+                    double[] series = usage.computeIfAbsent(itemId,
+                            id -> new double[(int) ChronoUnit.DAYS.between(state.firstDay(), today)]);
+                    if (day >= 0 && day < series.length) {
+                        series[day] += rs.getDouble("used");
+                    }
+                });
+
+        ConsumptionForecast.Settings settings = new ConsumptionForecast.Settings(levelWindowDays,
+                reviewPeriodDays + leadTimeDays, serviceLevelZ);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(states.size());
+        states.forEach((itemId, state) -> {
+            double[] series = usage.getOrDefault(itemId, new double[0]);
+            ConsumptionForecast.Result result = ConsumptionForecast.forecast(series, state.firstDay(), today, settings);
+            BigDecimal recommendedPar = BigDecimal.valueOf(result.recommendedPar()).setScale(2, RoundingMode.CEILING);
+            BigDecimal reorder = recommendedPar.subtract(state.currentQuantity()).max(BigDecimal.ZERO);
+            rows.add(new Object[]{itemId, unit.tenantId(), state.supplierId(),
+                    BigDecimal.valueOf(result.averageDailyUsage()).setScale(4, RoundingMode.HALF_UP),
+                    BigDecimal.valueOf(result.forecastUsage()).setScale(2, RoundingMode.HALF_UP),
+                    BigDecimal.valueOf(result.safetyStock()).setScale(2, RoundingMode.HALF_UP),
+                    recommendedPar, reorder, now});
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        }
+        return rows.size();
+    }
+}
@@ -0,0 +1,75 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.dto.ParRecommendationDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads and applies the recommendations written by {@link ParRecommendationJob}
+ */
+@Service
+@RequiredArgsConstructor
+public class ParRecommendationService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Recommendations grouped by supplier, suppliers by name, items without a supplier last
+     */
+    @Transactional(readOnly = true)
+    public List<ParRecommendationDTO> bySupplier(UUID tenantId) {
+        // Null key collects items without a supplier; sorted last by the query
+        Map<UUID, ParRecommendationDTO> groups = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT r.item_id, i.name, i.unit, i.current_quantity, i.par_level, i.unit_cost, r.supplier_id,
+                       s.name AS supplier_name, r.average_daily_usage, r.forecast_usage, r.safety_stock,
+                       r.recommended_par, r.reorder_quantity, r.computed_at
+                FROM par_recommendations r
+                JOIN inventory_items i ON i.id = r.item_id
+                LEFT JOIN suppliers s ON s.id = r.supplier_id
+                WHERE r.tenant_id = ?
+                ORDER BY s.name NULLS LAST, r.supplier_id, i.name""",
+                rs -> {
+                    UUID supplierId = rs.getObject("supplier_id", UUID.class);
+                    String supplierName = rs.getString("supplier_name");
+                    ParRecommendationDTO group = groups.computeIfAbsent(supplierId,
+                            id -> new ParRecommendationDTO(id, supplierName, BigDecimal.ZERO, new ArrayList<>()));
+                    BigDecimal reorder = rs.getBigDecimal("reorder_quantity");
+                    BigDecimal unitCost = rs.getBigDecimal("unit_cost");
+                    if (unitCost != null) {
+                        group.setReorderValue(group.getReorderValue().add(reorder.multiply(unitCost)));
+                    }
+                    group.getItems().add(new ParRecommendationDTO.Line(rs.getObject("item_id", UUID.class),
+                            rs.getString("name"), rs.getString("unit"), rs.getBigDecimal("current_quantity"),
+                            rs.getBigDecimal("par_level"), rs.getBigDecimal("average_daily_usage"),
+                            rs.getBigDecimal("forecast_usage"), rs.getBigDecimal("safety_stock"),
+                            rs.getBigDecimal("recommended_par"), reorder,
+                            rs.getTimestamp("computed_at").toLocalDateTime()));
+                },
+                tenantId);
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Copy the recommended par level to the items, optionally only those of one supplier
+     * @return the number of items updated
+     */
+    @Transactional
+    public int apply(UUID tenantId, UUID supplierId) {
+        return jdbcTemplate.update("""
+                UPDATE inventory_items i SET par_level = r.recommended_par, updated_at = now()
+                FROM par_recommendations r
+                WHERE r.item_id = i.id AND r.tenant_id = ? AND (CAST(? AS UUID) IS NULL OR r.supplier_id = ?)
+                  AND i.par_level IS DISTINCT FROM r.recommended_par""",
+                tenantId, supplierId, supplierId);
+    }
+}
@@ -0,0 +1,92 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.ShardRegistry;
+import com.hotelsaas.backend.config.ShardingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tenant-to-shard directory, stored in tenant_shards on the default shard and cached in memory.
+ * Tenants without a row live on the default shard. The cache is consulted on every connection
+ * checkout, so lookups are a map read except once per tenant per TTL.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardDirectory {
+
+    public static final String STATUS_ACTIVE = "ACTIVE";
+    public static final String STATUS_MIGRATING = "MIGRATING";
+    public static final String STATUS_FROZEN = "FROZEN";
+
+    private final ShardRegistry shardRegistry;
+    private final JdbcTemplate directoryJdbcTemplate;
+    private final long cacheTtlNanos;
+    private final Map<UUID, CachedAssignment> cache = new ConcurrentHashMap<>();
+
+    public ShardDirectory(ShardRegistry shardRegistry, ShardingProperties properties) {
+        this.shardRegistry = shardRegistry;
+        // Directory queries go straight to the default shard, never through the routing DataSource
+        this.directoryJdbcTemplate = new JdbcTemplate(shardRegistry.defaultDataSource());
+        this.cacheTtlNanos = properties.getDirectoryCacheTtl().toNanos();
+    }
+
+    public record Assignment(UUID tenantId, String shard, String status) {
+    }
+
+    public String shardFor(UUID tenantId) {
+        return assignment(tenantId).shard();
+    }
+
+    /**
+     * True while a migration has stopped writes for the tenant (final catch-up and cut-over)
+     */
+    public boolean isFrozen(UUID tenantId) {
+        return STATUS_FROZEN.equals(assignment(tenantId).status());
+    }
+
+    public Assignment assignment(UUID tenantId) {
+        long now = System.nanoTime();
+        CachedAssignment cached = cache.get(tenantId);
+        if (cached != null && now - cached.loadedAt() < cacheTtlNanos) {
+            return cached.assignment();
+        }
+        Assignment assignment = load(tenantId);
+        cache.put(tenantId, new CachedAssignment(assignment, now));
+        return assignment;
+    }
+
+    public List<Assignment> findAll() {
+        return directoryJdbcTemplate.query(
+                "SELECT tenant_id, shard, status FROM tenant_shards ORDER BY shard, tenant_id",
+                (rs, rowNum) -> new Assignment(rs.getObject("tenant_id", UUID.class), rs.getString("shard"),
+                        rs.getString("status")));
+    }
+
+    public void assign(UUID tenantId, String shard, String status) {
+        shardRegistry.dataSource(shard);
+        directoryJdbcTemplate.update("""
+                INSERT INTO tenant_shards (tenant_id, shard, status, updated_at)
+                VALUES (?, ?, ?, now())
+                ON CONFLICT (tenant_id) DO UPDATE
+                SET shard = EXCLUDED.shard, status = EXCLUDED.status, updated_at = EXCLUDED.updated_at
+                """, tenantId, shard, status);
+        cache.remove(tenantId);
+    }
+
+    private Assignment load(UUID tenantId) {
+        List<Assignment> rows = directoryJdbcTemplate.query(
+                "SELECT shard, status FROM tenant_shards WHERE tenant_id = ?",
+                (rs, rowNum) -> new Assignment(tenantId, rs.getString("shard"), rs.getString("status")),
+                tenantId);
+        return rows.isEmpty() ? new Assignment(tenantId, shardRegistry.defaultShard(), STATUS_ACTIVE) : rows.get(0);
+    }
+
+    private record CachedAssignment(Assignment assignment, long loadedAt) {
+    }
+}
@@ -0,0 +1,315 @@
+package com.hotelsaas.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed stock movements to the tenant's open SSE streams.
+ * <p>
+ * Idle streams hold no thread: they are async requests parked in the servlet container. The
+ * committing thread only appends to each subscriber's buffer; a small dispatcher pool writes to
+ * the clients, at most one thread per subscriber at a time. While a client is being written to (or
+ * is slow to read), its buffer keeps just the latest quantity per item and the most recent ledger
+ * entries up to a bound; older entries are dropped and the client is told how many, so it can
+ * refetch. Heartbeats keep proxies from closing idle streams and detect clients that went away.
+ * <p>
+ * Writes block while the client's socket buffer is full. A write taking longer than the write
+ * timeout evicts the subscriber and closes its stream, and the dispatcher gets an extra thread
+ * until the stuck write returns (at the latest when the container's socket write timeout,
+ * server.tomcat.connection-timeout, expires), so slow clients cannot hold up the others.
+ * <p>
+ * Only movements recorded by this instance are pushed; with several instances, clients should
+ * catch up through delta sync (GET /api/sync/changes) when they reconnect.
+ */
+@Service
+@Slf4j
+public class StockEventBus implements DisposableBean {
+
+    /**
+     * Latest on-hand quantity of an item
+     */
+    public record StockLevel(UUID itemId, BigDecimal currentQuantity, LocalDateTime timestamp) {
+    }
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    /**
+     * Marks a write the watchdog gave up on
+     */
+    private static final long STALLED = -1;
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ThreadPoolExecutor dispatcher;
+    private final Counter droppedEntries;
+    private final Counter stalledWrites;
+    private final int bufferSize;
+    private final int maxSubscribersPerTenant;
+    private final Duration streamTimeout;
+    private final long writeTimeoutNanos;
+
+    public StockEventBus(MeterRegistry meterRegistry,
+                         @Value("${app.push.dispatcher-threads:4}") int dispatcherThreads,
+                         @Value("${app.push.buffer-size:256}") int bufferSize,
+                         @Value("${app.push.max-subscribers-per-tenant:1000}") int maxSubscribersPerTenant,
+                         @Value("${app.push.stream-timeout:30m}") Duration streamTimeout,
+                         @Value("${app.push.write-timeout:10s}") Duration writeTimeout) {
+        AtomicInteger threads = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatcherThreads, dispatcherThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "stock-push-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.bufferSize = bufferSize;
+        this.maxSubscribersPerTenant = maxSubscribersPerTenant;
+        this.streamTimeout = streamTimeout;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.droppedEntries = meterRegistry.counter("push.entries.dropped");
+        this.stalledWrites = meterRegistry.counter("push.writes.stalled");
+        meterRegistry.gauge("push.subscribers", subscriberCount);
+    }
+
+    /**
+     * Open a stream for the tenant
+     * @return empty if the tenant already has the maximum number of open streams
+     */
+    public Optional<SseEmitter> subscribe(UUID tenantId) {
+        Set<Subscriber> tenantSubscribers = subscribers.computeIfAbsent(tenantId, id -> ConcurrentHashMap.newKeySet());
+        if (tenantSubscribers.size() >= maxSubscribersPerTenant) {
+            return Optional.empty();
+        }
+        // Clients reconnect after the timeout, which also bounds the life of half-open connections
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(tenantId, emitter);
+        tenantSubscribers.add(subscriber);
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        // First write commits the response headers so the client sees the stream open
+        subscriber.requestHeartbeat();
+        schedule(subscriber);
+        return Optional.of(emitter);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStockMoved(StockMovedEvent event) {
+        Set<Subscriber> tenantSubscribers = subscribers.get(event.tenantId());
+        if (tenantSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : tenantSubscribers) {
+            subscriber.offer(event.entries());
+            schedule(subscriber);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.push.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> tenantSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : tenantSubscribers) {
+                subscriber.requestHeartbeat();
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Evict subscribers whose write has been blocked longer than the write timeout
+     */
+    @Scheduled(fixedRateString = "${app.push.write-check-interval-ms:1000}")
+    public void evictStalledWriters() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> tenantSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : tenantSubscribers) {
+                long startedAt = subscriber.writeStartedAt.get();
+                if (startedAt == 0 || startedAt == STALLED || now - startedAt < writeTimeoutNanos
+                        || !subscriber.writeStartedAt.compareAndSet(startedAt, STALLED)) {
+                    continue;
+                }
+                stalledWrites.increment();
+                log.debug("Evicting a stock stream of tenant {}: write blocked for over {} ms",
+                        subscriber.tenantId, TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos));
+                remove(subscriber);
+                // The blocked thread is lost to the pool until its write returns
+                resizeDispatcher(1);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Close the streams before the web server's graceful shutdown, which would otherwise wait for them
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void closeStreams() {
+        subscribers.values().forEach(tenantSubscribers -> tenantSubscribers.forEach(s -> s.emitter.complete()));
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.closed.get() || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Pending pending;
+            while (!subscriber.closed.get() && (pending = subscriber.take()) != null) {
+                subscriber.writeStartedAt.set(Math.max(1, System.nanoTime()));
+                try {
+                    send(subscriber.emitter, pending);
+                } finally {
+                    if (subscriber.writeStartedAt.getAndSet(0) == STALLED) {
+                        resizeDispatcher(-1);
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (the container completes the request) or the stream already completed
+            remove(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Entries offered between the last take and clearing the flag
+        if (subscriber.hasPending()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void send(SseEmitter emitter, Pending pending) throws IOException {
+        if (pending.dropped() > 0) {
+            droppedEntries.increment(pending.dropped());
+            emitter.send(SseEmitter.event().name("overflow").data(Map.of("dropped", pending.dropped())));
+        }
+        if (!pending.levels().isEmpty()) {
+            emitter.send(SseEmitter.event().name("stock").data(pending.levels()));
+        }
+        if (!pending.entries().isEmpty()) {
+            emitter.send(SseEmitter.event().name("transactions").data(pending.entries()));
+        }
+        if (pending.heartbeat()) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private synchronized void resizeDispatcher(int delta) {
+        // The maximum must stay at or above the core size while both change
+        if (delta > 0) {
+            dispatcher.setMaximumPoolSize(dispatcher.getMaximumPoolSize() + delta);
+            dispatcher.setCorePoolSize(dispatcher.getCorePoolSize() + delta);
+        } else {
+            dispatcher.setCorePoolSize(dispatcher.getCorePoolSize() + delta);
+            dispatcher.setMaximumPoolSize(dispatcher.getMaximumPoolSize() + delta);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            Set<Subscriber> tenantSubscribers = subscribers.get(subscriber.tenantId);
+            if (tenantSubscribers != null) {
+                tenantSubscribers.remove(subscriber);
+            }
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private record Pending(List<StockLevel> levels, List<StockMovedEvent.Entry> entries, int dropped,
+                           boolean heartbeat) {
+    }
+
+    private final class Subscriber {
+
+        private final UUID tenantId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // When the current write started, 0 when not writing, STALLED once the watchdog gave up on it
+        private final AtomicLong writeStartedAt = new AtomicLong();
+
+        // Guarded by this
+        private final Map<UUID, StockLevel> levels = new LinkedHashMap<>();
+        private final ArrayDeque<StockMovedEvent.Entry> entries = new ArrayDeque<>();
+        private int dropped;
+        private boolean heartbeat;
+
+        Subscriber(UUID tenantId, SseEmitter emitter) {
+            this.tenantId = tenantId;
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(List<StockMovedEvent.Entry> moved) {
+            for (StockMovedEvent.Entry entry : moved) {
+                // Coalesced: a slow client only gets the latest quantity of each item
+                levels.put(entry.itemId(), new StockLevel(entry.itemId(), entry.currentQuantity(), entry.timestamp()));
+                if (entries.size() == bufferSize) {
+                    entries.pollFirst();
+                    dropped++;
+                }
+                entries.addLast(entry);
+            }
+        }
+
+        synchronized void requestHeartbeat() {
+            heartbeat = true;
+        }
+
+        synchronized boolean hasPending() {
+            return heartbeat || !levels.isEmpty() || !entries.isEmpty();
+        }
+
+        synchronized Pending take() {
+            if (!hasPending()) {
+                return null;
+            }
+            // A heartbeat is only needed when nothing else is sent
+            Pending pending = new Pending(new ArrayList<>(levels.values()), new ArrayList<>(entries), dropped,
+                    heartbeat && levels.isEmpty() && entries.isEmpty());
+            levels.clear();
+            entries.clear();
+            dropped = 0;
+            heartbeat = false;
+            return pending;
+        }
+    }
+}
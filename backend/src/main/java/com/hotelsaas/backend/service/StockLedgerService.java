@@ -0,0 +1,128 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.MetricsConfig;
+import com.hotelsaas.backend.model.InventoryItem;
+import com.hotelsaas.backend.model.StockTransaction;
+import com.hotelsaas.backend.model.TransactionType;
+import com.hotelsaas.backend.repository.InventoryItemRepository;
+import com.hotelsaas.backend.repository.StockTransactionRepository;
+import com.hotelsaas.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class StockLedgerService {
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final StockTransactionRepository stockTransactionRepository;
+    private final UserRepository userRepository;
+    private final InventoryValuationService inventoryValuationService;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Apply a stock movement to an item and append it to the ledger.
+     * The item row is locked so concurrent movements on the same item serialize.
+     * @param tenantId The tenant owning the item
+     * @param itemId The item being moved
+     * @param userId The user recording the movement
+     * @param type The movement type
+     * @param quantity The moved quantity; the sign is derived from the type except for AUDIT corrections
+     * @return The persisted ledger entry
+     * @throws IllegalArgumentException if the item does not exist in the tenant or stock would go negative
+     */
+    @Transactional
+    public StockTransaction recordMovement(UUID tenantId, UUID itemId, UUID userId, TransactionType type,
+                                           BigDecimal quantity) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        StockTransaction transaction;
+        try {
+            transaction = applyMovement(tenantId, itemId, userId, type, quantity);
+        } catch (IllegalArgumentException e) {
+            stopMovementTimer(sample, tenantId, type, "rejected");
+            throw e;
+        } catch (RuntimeException e) {
+            stopMovementTimer(sample, tenantId, type, "error");
+            throw e;
+        }
+        // A movement only succeeds once committed, possibly by a caller's surrounding transaction
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stopMovementTimer(sample, tenantId, type, status == STATUS_COMMITTED ? "success" : "error");
+            }
+        });
+        return transaction;
+    }
+
+    private void stopMovementTimer(Timer.Sample sample, UUID tenantId, TransactionType type, String outcome) {
+        MetricsConfig.stop(sample, meterRegistry, "stock.movement", tenantId,
+                Tags.of("type", type.name(), MetricsConfig.OUTCOME_TAG, outcome));
+    }
+
+    private StockTransaction applyMovement(UUID tenantId, UUID itemId, UUID userId, TransactionType type,
+                                           BigDecimal quantity) {
+        InventoryItem item = inventoryItemRepository.findByIdForUpdate(itemId)
+                .filter(i -> i.getTenant().getId().equals(tenantId))
+                .orElseThrow(() -> new IllegalArgumentException("Item not found: " + itemId));
+
+        BigDecimal change = signedChange(type, quantity);
+        item.setCurrentQuantity(applyChange(item.getCurrentQuantity(), change));
+
+        StockTransaction transaction = new StockTransaction();
+        transaction.setItem(item);
+        transaction.setUser(userRepository.getReferenceById(userId));
+        transaction.setTenant(item.getTenant());
+        transaction.setType(type);
+        transaction.setQuantityChange(change);
+        transaction.setCostAtTransaction(item.getUnitCost());
+
+        inventoryItemRepository.save(item);
+        StockTransaction saved = stockTransactionRepository.save(transaction);
+        LocalDateTime timestamp = saved.getTimestamp() != null ? saved.getTimestamp() : LocalDateTime.now();
+        inventoryValuationService.apply(tenantId, List.of(new InventoryValuationService.Movement(
+                item.getId(), change, item.getUnitCost(), timestamp)));
+        eventPublisher.publishEvent(new StockMovedEvent(tenantId, List.of(new StockMovedEvent.Entry(saved.getId(),
+                item.getId(), type, change, item.getCurrentQuantity(), userId, timestamp))));
+        return saved;
+    }
+
+    /**
+     * Signed ledger change for a movement: IN adds, OUT_* removes, AUDIT is already a signed correction
+     */
+    public static BigDecimal signedChange(TransactionType type, BigDecimal quantity) {
+        if (quantity == null) {
+            throw new IllegalArgumentException("Quantity is required");
+        }
+        return switch (type) {
+            case IN -> quantity.abs();
+            case OUT_USE, OUT_WASTE -> quantity.abs().negate();
+            case AUDIT -> quantity;
+        };
+    }
+
+    /**
+     * Apply a signed change to an on-hand quantity, rejecting movements that would go negative
+     */
+    public static BigDecimal applyChange(BigDecimal currentQuantity, BigDecimal change) {
+        BigDecimal result = currentQuantity.add(change);
+        if (result.signum() < 0) {
+            throw new IllegalArgumentException("Insufficient stock: on hand " + currentQuantity
+                    + ", requested change " + change);
+        }
+        return result;
+    }
+}
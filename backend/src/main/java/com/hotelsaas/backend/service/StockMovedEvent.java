@@ -0,0 +1,22 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stock movements recorded by one transaction. Published inside that transaction; listeners that
+ * only want committed movements use {@code @TransactionalEventListener}.
+ */
+public record StockMovedEvent(UUID tenantId, List<Entry> entries) {
+
+    /**
+     * One ledger entry and the item's quantity after it
+     */
+    public record Entry(UUID transactionId, UUID itemId, TransactionType type, BigDecimal quantityChange,
+                        BigDecimal currentQuantity, UUID userId, LocalDateTime timestamp) {
+    }
+}
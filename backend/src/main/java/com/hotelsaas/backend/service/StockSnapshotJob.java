@@ -0,0 +1,83 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.MetricsConfig;
+import com.hotelsaas.backend.config.TenantContext;
+import com.hotelsaas.backend.dto.StockDiscrepancyDTO;
+import com.hotelsaas.backend.model.Tenant;
+import com.hotelsaas.backend.repository.TenantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nightly snapshot of every tenant's stock as of midnight, followed by the ledger consistency check.
+ * Running well after midnight leaves time for movements timestamped before it to commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.stock-snapshots", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StockSnapshotJob implements MaintenanceJob {
+
+    private final TenantRepository tenantRepository;
+    private final StockSnapshotService stockSnapshotService;
+    private final MeterRegistry meterRegistry;
+    private final JobLock jobLock;
+    private final Map<UUID, AtomicInteger> discrepancyGauges = new ConcurrentHashMap<>();
+
+    // Daily snapshots older than this are pruned; month-start snapshots are kept
+    @Value("${app.stock-snapshots.retention-days:35}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${app.stock-snapshots.cron:0 30 0 * * *}")
+    public void run() {
+        jobLock.runExclusively(this);
+    }
+
+    @Override
+    public String name() {
+        return "stock-snapshots";
+    }
+
+    @Override
+    public void execute() {
+        LocalDateTime asOf = LocalDate.now().atStartOfDay();
+        // The tenants table of the default shard lists every tenant
+        List<UUID> tenantIds = tenantRepository.findAll().stream().map(Tenant::getId).toList();
+        for (UUID tenantId : tenantIds) {
+            TenantContext.setTenantId(tenantId);
+            try {
+                stockSnapshotService.takeSnapshot(tenantId, asOf);
+                stockSnapshotService.pruneSnapshots(tenantId, asOf.minusDays(retentionDays));
+                checkConsistency(tenantId);
+            } catch (Exception e) {
+                log.error("Stock snapshot of tenant {} failed: {}", tenantId, e.getMessage());
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private void checkConsistency(UUID tenantId) {
+        List<StockDiscrepancyDTO> discrepancies = stockSnapshotService.findDiscrepancies(tenantId);
+        discrepancyGauges.computeIfAbsent(tenantId, id -> meterRegistry.gauge("stock.ledger.discrepancies",
+                Tags.of(MetricsConfig.tenantTag(id)), new AtomicInteger())).set(discrepancies.size());
+        if (!discrepancies.isEmpty()) {
+            log.warn("Tenant {} has {} item(s) whose quantity differs from the ledger, e.g. {}",
+                    tenantId, discrepancies.size(), discrepancies.get(0));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.dto.StockDiscrepancyDTO;
+import com.hotelsaas.backend.dto.StockPositionDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Point-in-time stock from ledger snapshots. A snapshot holds, per item, the sum of the ledger up to
+ * its taken_at; it is built from the previous snapshot plus the changes since, so only the first
+ * snapshot of a tenant scans the full ledger. Stock at T then costs one snapshot read plus the
+ * changes in (taken_at, T], which partition pruning on stock_transactions keeps small.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockSnapshotService {
+
+    // Lower bound when there is no earlier snapshot: replay from the start of the ledger
+    private static final Timestamp LEDGER_START = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0));
+
+    private static final String DELTA_SQL = """
+            SELECT item_id, SUM(quantity_change) AS change FROM stock_transactions
+            WHERE tenant_id = ? AND "timestamp" > ? AND "timestamp" <= ?
+            GROUP BY item_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerArchiveService ledgerArchiveService;
+
+    record Snapshot(UUID id, LocalDateTime takenAt) {
+    }
+
+    /**
+     * Take the tenant's snapshot as of the given time unless it already exists. Ledger entries
+     * timestamped before asOf must all be committed, so asOf should lie safely in the past.
+     * @return true if a snapshot was written
+     */
+    @Transactional
+    public boolean takeSnapshot(UUID tenantId, LocalDateTime asOf) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM stock_snapshots WHERE tenant_id = ? AND taken_at = ?",
+                Integer.class, tenantId, Timestamp.valueOf(asOf));
+        if (existing != null && existing > 0) {
+            return false;
+        }
+        Optional<Snapshot> previous = nearestSnapshot(tenantId, asOf);
+        UUID snapshotId = UUID.randomUUID();
+        // Parent row first for the foreign key; totals are filled in below
+        jdbcTemplate.update("""
+                INSERT INTO stock_snapshots (id, tenant_id, taken_at, item_count, total_value)
+                VALUES (?, ?, ?, 0, 0)""", snapshotId, tenantId, Timestamp.valueOf(asOf));
+        int items = jdbcTemplate.update("""
+                INSERT INTO stock_snapshot_items (snapshot_id, item_id, tenant_id, quantity, unit_cost)
+                SELECT ?, i.id, i.tenant_id, COALESCE(p.quantity, 0) + COALESCE(d.change, 0), i.unit_cost
+                FROM inventory_items i
+                LEFT JOIN stock_snapshot_items p ON p.snapshot_id = ? AND p.item_id = i.id
+                LEFT JOIN (""" + DELTA_SQL + """
+                ) d ON d.item_id = i.id
+                WHERE i.tenant_id = ?""",
+                snapshotId, previous.map(Snapshot::id).orElse(null),
+                tenantId, previous.map(s -> Timestamp.valueOf(s.takenAt())).orElse(LEDGER_START),
+                Timestamp.valueOf(asOf), tenantId);
+        jdbcTemplate.update("""
+                UPDATE stock_snapshots SET item_count = ?, total_value = (
+                    SELECT COALESCE(SUM(quantity * unit_cost), 0) FROM stock_snapshot_items WHERE snapshot_id = ?)
+                WHERE id = ?""", items, snapshotId, snapshotId);
+        log.info("Took stock snapshot of tenant {} as of {} ({} items, {})", tenantId, asOf, items,
+                previous.map(s -> "incremental from " + s.takenAt()).orElse("full ledger replay"));
+        return true;
+    }
+
+    /**
+     * Stock on hand per item at the given time, valued at the unit cost recorded in the snapshot
+     * (current unit cost for items created after it). Changes in archived ledger months are read
+     * from the archive when the replayed range reaches back into them.
+     * <p>
+     * Holds the tenant's ledger lock shared, so no month moves to the archive between reading the
+     * live ledger and the archive manifest. The archival takes that lock on the primary, so this runs
+     * in a read-write transaction, which is never routed to the replica.
+     */
+    @Transactional
+    public StockPositionDTO stockAt(UUID tenantId, LocalDateTime at) {
+        ledgerArchiveService.lockLedger(tenantId, true);
+        Optional<Snapshot> snapshot = nearestSnapshot(tenantId, at);
+        LocalDateTime replayFrom = snapshot.map(Snapshot::takenAt).orElse(LEDGER_START.toLocalDateTime());
+        List<StockPositionDTO.Line> lines = jdbcTemplate.query("""
+                SELECT i.id, i.name, COALESCE(s.quantity, 0) + COALESCE(d.change, 0) AS quantity,
+                       COALESCE(s.unit_cost, i.unit_cost) AS unit_cost
+                FROM inventory_items i
+                LEFT JOIN stock_snapshot_items s ON s.snapshot_id = ? AND s.item_id = i.id
+                LEFT JOIN (""" + DELTA_SQL + """
+                ) d ON d.item_id = i.id
+                WHERE i.tenant_id = ? AND (s.item_id IS NOT NULL OR d.item_id IS NOT NULL)
+                ORDER BY i.name""",
+                (rs, rowNum) -> line(rs.getObject("id", UUID.class), rs.getString("name"),
+                        rs.getBigDecimal("quantity"), rs.getBigDecimal("unit_cost")),
+                snapshot.map(Snapshot::id).orElse(null),
+                tenantId, Timestamp.valueOf(replayFrom), Timestamp.valueOf(at), tenantId);
+        Map<UUID, BigDecimal> archived = ledgerArchiveService.changes(tenantId, replayFrom, at);
+        if (!archived.isEmpty()) {
+            lines = withArchivedChanges(tenantId, lines, archived);
+        }
+        BigDecimal totalValue = lines.stream().map(StockPositionDTO.Line::getValue).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new StockPositionDTO(at, snapshot.map(Snapshot::takenAt).orElse(null), totalValue, lines);
+    }
+
+    /**
+     * Items whose currentQuantity differs from the sum of their ledger entries. The ledger sum is
+     * taken from the latest snapshot plus the changes since, all read in one statement so a
+     * concurrent movement is seen on both sides or neither.
+     */
+    @Transactional(readOnly = true)
+    public List<StockDiscrepancyDTO> findDiscrepancies(UUID tenantId) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Snapshot> snapshot = nearestSnapshot(tenantId, now);
+        return jdbcTemplate.query("""
+                SELECT i.id, i.name, i.current_quantity, COALESCE(s.quantity, 0) + COALESCE(d.change, 0) AS ledger_quantity
+                FROM inventory_items i
+                LEFT JOIN stock_snapshot_items s ON s.snapshot_id = ? AND s.item_id = i.id
+                LEFT JOIN (SELECT item_id, SUM(quantity_change) AS change FROM stock_transactions
+                           WHERE tenant_id = ? AND "timestamp" > ? GROUP BY item_id) d ON d.item_id = i.id
+                WHERE i.tenant_id = ? AND i.current_quantity <> COALESCE(s.quantity, 0) + COALESCE(d.change, 0)
+                ORDER BY i.name""",
+                (rs, rowNum) -> new StockDiscrepancyDTO(rs.getObject("id", UUID.class), rs.getString("name"),
+                        rs.getBigDecimal("current_quantity"), rs.getBigDecimal("ledger_quantity")),
+                snapshot.map(Snapshot::id).orElse(null),
+                tenantId, snapshot.map(s -> Timestamp.valueOf(s.takenAt())).orElse(LEDGER_START), tenantId);
+    }
+
+    /**
+     * Drop daily snapshots older than the cutoff, keeping those taken at the start of a month
+     * @return the number of snapshots deleted
+     */
+    @Transactional
+    public int pruneSnapshots(UUID tenantId, LocalDateTime cutoff) {
+        return jdbcTemplate.update("""
+                DELETE FROM stock_snapshots
+                WHERE tenant_id = ? AND taken_at < ? AND taken_at <> date_trunc('month', taken_at)""",
+                tenantId, Timestamp.valueOf(cutoff));
+    }
+
+    /**
+     * Add archived changes to the lines; items with only archived changes are looked up (items
+     * deleted since are left out, as for live ledger rows)
+     */
+    private List<StockPositionDTO.Line> withArchivedChanges(UUID tenantId, List<StockPositionDTO.Line> lines,
+                                                            Map<UUID, BigDecimal> archived) {
+        Map<UUID, BigDecimal> missing = new HashMap<>(archived);
+        List<StockPositionDTO.Line> merged = new ArrayList<>(lines.size());
+        for (StockPositionDTO.Line line : lines) {
+            BigDecimal change = missing.remove(line.getItemId());
+            merged.add(change == null ? line : line(line.getItemId(), line.getItemName(),
+                    line.getQuantity().add(change), line.getUnitCost()));
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.query("SELECT id, name, unit_cost FROM inventory_items WHERE tenant_id = ? AND id = ANY(?)",
+                    ps -> {
+                        ps.setObject(1, tenantId);
+                        ps.setArray(2, ps.getConnection().createArrayOf("uuid", missing.keySet().toArray()));
+                    },
+                    rs -> {
+                        UUID itemId = rs.getObject("id", UUID.class);
+                        merged.add(line(itemId, rs.getString("name"), missing.get(itemId), rs.getBigDecimal("unit_cost")));
+                    });
+            merged.sort(Comparator.comparing(StockPositionDTO.Line::getItemName));
+        }
+        return merged;
+    }
+
+    private static StockPositionDTO.Line line(UUID itemId, String name, BigDecimal quantity, BigDecimal unitCost) {
+        BigDecimal value = unitCost != null ? quantity.multiply(unitCost) : BigDecimal.ZERO;
+        return new StockPositionDTO.Line(itemId, name, quantity, unitCost, value);
+    }
+
+    private Optional<Snapshot> nearestSnapshot(UUID tenantId, LocalDateTime at) {
+        try {
+            return Optional.ofNullable(jdbcTemplate.queryForObject("""
+                    SELECT id, taken_at FROM stock_snapshots WHERE tenant_id = ? AND taken_at <= ?
+                    ORDER BY taken_at DESC LIMIT 1""",
+                    (rs, rowNum) -> new Snapshot(rs.getObject("id", UUID.class),
+                            rs.getTimestamp("taken_at").toLocalDateTime()),
+                    tenantId, Timestamp.valueOf(at)));
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Holds incoming stocktake counts in memory and writes them to stocktake_counts in batches.
+ * A count replaces the pending count of the same session, item and counter, so rescans cost
+ * nothing until the next flush; the upsert keeps the newest count if instances race.
+ */
+@Component
+@Slf4j
+public class StocktakeCountBuffer {
+
+    // Unknown items and items of other tenants are dropped by the SELECT
+    private static final String UPSERT_SQL = """
+            INSERT INTO stocktake_counts (session_id, item_id, counter_id, tenant_id, quantity, counted_at)
+            SELECT ?, i.id, ?, i.tenant_id, ?, ? FROM inventory_items i WHERE i.id = ? AND i.tenant_id = ?
+            ON CONFLICT (session_id, item_id, counter_id) DO UPDATE
+                SET quantity = EXCLUDED.quantity, counted_at = EXCLUDED.counted_at
+                WHERE stocktake_counts.counted_at <= EXCLUDED.counted_at""";
+
+    record CountKey(UUID sessionId, UUID itemId, UUID counterId) {
+    }
+
+    record PendingCount(UUID tenantId, BigDecimal quantity, LocalDateTime countedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentHashMap<CountKey, PendingCount> pending = new ConcurrentHashMap<>();
+
+    @Value("${app.stocktake.max-buffered-counts:100000}")
+    private int maxBufferedCounts;
+
+    public StocktakeCountBuffer(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        Gauge.builder("stocktake.counts.buffered", pending, Map::size)
+                .description("Stocktake counts waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffer a count
+     * @return false if the buffer is full (the database is not keeping up), in which case nothing was buffered
+     */
+    public boolean add(UUID tenantId, UUID sessionId, UUID itemId, UUID counterId, BigDecimal quantity,
+                       LocalDateTime countedAt) {
+        CountKey key = new CountKey(sessionId, itemId, counterId);
+        if (pending.size() >= maxBufferedCounts && !pending.containsKey(key)) {
+            return false;
+        }
+        pending.merge(key, new PendingCount(tenantId, quantity, countedAt), StocktakeCountBuffer::newer);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stocktake.flush-interval-ms:1000}")
+    public void flushAll() {
+        flush(key -> true);
+    }
+
+    /**
+     * Write the pending counts of one session now, before it is reconciled
+     */
+    public void flush(UUID sessionId) {
+        flush(key -> key.sessionId().equals(sessionId));
+    }
+
+    private void flush(Predicate<CountKey> selector) {
+        // Remove only the exact values read, so a count arriving meanwhile stays for the next flush
+        Map<CountKey, PendingCount> drained = new HashMap<>();
+        for (Map.Entry<CountKey, PendingCount> entry : pending.entrySet()) {
+            if (selector.test(entry.getKey()) && pending.remove(entry.getKey(), entry.getValue())) {
+                drained.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<Map.Entry<CountKey, PendingCount>>> byTenant = drained.entrySet().stream()
+                .collect(Collectors.groupingBy(e -> e.getValue().tenantId()));
+        byTenant.forEach(this::write);
+    }
+
+    private void write(UUID tenantId, List<Map.Entry<CountKey, PendingCount>> counts) {
+        UUID previousTenant = TenantContext.getTenantId();
+        // Bind the tenant so the write goes to its shard
+        TenantContext.setTenantId(tenantId);
+        try {
+            List<Object[]> batch = new ArrayList<>(counts.size());
+            for (Map.Entry<CountKey, PendingCount> entry : counts) {
+                CountKey key = entry.getKey();
+                PendingCount count = entry.getValue();
+                batch.add(new Object[]{key.sessionId(), key.counterId(), count.quantity(),
+                        Timestamp.valueOf(count.countedAt()), key.itemId(), tenantId});
+            }
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+        } catch (Exception e) {
+            log.warn("Failed to write {} stocktake count(s) of tenant {}, retrying on next flush: {}",
+                    counts.size(), tenantId, e.getMessage());
+            counts.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), StocktakeCountBuffer::newer));
+        } finally {
+            if (previousTenant != null) {
+                TenantContext.setTenantId(previousTenant);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private static PendingCount newer(PendingCount existing, PendingCount candidate) {
+        return candidate.countedAt().isBefore(existing.countedAt()) ? existing : candidate;
+    }
+}
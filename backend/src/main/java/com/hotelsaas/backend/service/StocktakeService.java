@@ -0,0 +1,269 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.MetricsConfig;
+import com.hotelsaas.backend.dto.StocktakeCountRequest;
+import com.hotelsaas.backend.dto.StocktakeLineDTO;
+import com.hotelsaas.backend.model.StocktakeSession;
+import com.hotelsaas.backend.model.StocktakeStatus;
+import com.hotelsaas.backend.model.TransactionType;
+import com.hotelsaas.backend.repository.StocktakeSessionRepository;
+import com.hotelsaas.backend.repository.TenantRepository;
+import com.hotelsaas.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stocktake workflow: open (snapshot on-hand quantities), count (buffered, see
+ * {@link StocktakeCountBuffer}), close (reconcile every counted item in one batched transaction).
+ * <p>
+ * For each counted item the count is compared with what should have been on the shelf when it was
+ * counted: snapshot + ledger movements between the session start and the count. The variance is
+ * booked as an AUDIT entry and added to the current quantity, so movements recorded after the count
+ * are kept. Counts of different counters for the same item add up (separate locations); a counter
+ * counting an item again replaces their earlier count. Items nobody counted are left untouched.
+ */
+@Service
+@Slf4j
+public class StocktakeService {
+
+    private static final String RECONCILE_SQL = """
+            WITH counted AS (
+                SELECT item_id, SUM(quantity) AS counted_quantity, MAX(counted_at) AS counted_at
+                FROM stocktake_counts WHERE session_id = ? GROUP BY item_id
+            )
+            SELECT i.id, i.current_quantity, i.unit_cost, c.counted_quantity,
+                   COALESCE(l.snapshot_quantity, 0) AS snapshot_quantity,
+                   COALESCE((SELECT SUM(t.quantity_change) FROM stock_transactions t
+                             WHERE t.item_id = i.id AND t.tenant_id = i.tenant_id
+                               AND t."timestamp" > ? AND t."timestamp" <= c.counted_at), 0) AS moved
+            FROM counted c
+            JOIN inventory_items i ON i.id = c.item_id AND i.tenant_id = ?
+            LEFT JOIN stocktake_lines l ON l.session_id = ? AND l.item_id = i.id
+            ORDER BY i.id""";
+
+    private final StocktakeSessionRepository stocktakeSessionRepository;
+    private final TenantRepository tenantRepository;
+    private final UserRepository userRepository;
+    private final StocktakeCountBuffer countBuffer;
+    private final InventoryValuationService inventoryValuationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Lets other instances flush counts they buffered before the session stopped accepting them
+    @Value("${app.stocktake.close-grace-period:2s}")
+    private Duration closeGracePeriod;
+
+    public StocktakeService(StocktakeSessionRepository stocktakeSessionRepository, TenantRepository tenantRepository,
+                            UserRepository userRepository, StocktakeCountBuffer countBuffer,
+                            InventoryValuationService inventoryValuationService, JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            ApplicationEventPublisher eventPublisher) {
+        this.stocktakeSessionRepository = stocktakeSessionRepository;
+        this.tenantRepository = tenantRepository;
+        this.userRepository = userRepository;
+        this.countBuffer = countBuffer;
+        this.inventoryValuationService = inventoryValuationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Open a session and snapshot the on-hand quantity of every item of the tenant.
+     * Item rows are share-locked first, so movements in flight finish before the snapshot and every
+     * later movement is timestamped after the session start.
+     */
+    @Transactional
+    public StocktakeSession open(UUID tenantId, UUID userId) {
+        jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM (SELECT 1 FROM inventory_items WHERE tenant_id = ? FOR SHARE) locked",
+                Long.class, tenantId);
+
+        StocktakeSession session = new StocktakeSession();
+        session.setTenant(tenantRepository.getReferenceById(tenantId));
+        session.setStartedBy(userRepository.getReferenceById(userId));
+        session.setStatus(StocktakeStatus.OPEN);
+        session.setStartedAt(LocalDateTime.now());
+        session = stocktakeSessionRepository.saveAndFlush(session);
+
+        int items = jdbcTemplate.update("""
+                INSERT INTO stocktake_lines (session_id, item_id, tenant_id, snapshot_quantity)
+                SELECT ?, id, tenant_id, current_quantity FROM inventory_items WHERE tenant_id = ?""",
+                session.getId(), tenantId);
+        log.info("Opened stocktake {} for tenant {} with {} items", session.getId(), tenantId, items);
+        return session;
+    }
+
+    /**
+     * Buffer counts for an open session
+     * @throws IllegalArgumentException if the session does not exist in the tenant
+     * @throws IllegalStateException if the session no longer accepts counts or the buffer is full
+     */
+    // Read-write so the status is read on the primary: a replica may still show a closed session as open
+    @Transactional
+    public int recordCounts(UUID tenantId, UUID sessionId, UUID counterId, List<StocktakeCountRequest.Count> counts) {
+        StocktakeSession session = stocktakeSessionRepository.findByIdAndTenantId(sessionId, tenantId)
+                .orElseThrow(() -> new IllegalArgumentException("Stocktake not found: " + sessionId));
+        if (session.getStatus() != StocktakeStatus.OPEN) {
+            throw new IllegalStateException("Stocktake is " + session.getStatus() + " and no longer accepts counts");
+        }
+        LocalDateTime countedAt = LocalDateTime.now();
+        int accepted = 0;
+        for (StocktakeCountRequest.Count count : counts) {
+            if (!countBuffer.add(tenantId, sessionId, count.getItemId(), counterId, count.getQuantity(), countedAt)) {
+                throw new IllegalStateException("Too many pending counts, retry shortly");
+            }
+            accepted++;
+        }
+        return accepted;
+    }
+
+    /**
+     * Stop accepting counts, flush them and reconcile. Retrying a close that failed during
+     * reconciliation is allowed.
+     * @throws IllegalArgumentException if the session does not exist in the tenant
+     * @throws IllegalStateException if the session is already closed
+     */
+    public StocktakeSession close(UUID tenantId, UUID sessionId, UUID userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            StocktakeSession session = lockSession(tenantId, sessionId);
+            if (session.getStatus() == StocktakeStatus.CLOSED) {
+                throw new IllegalStateException("Stocktake is already closed");
+            }
+            session.setStatus(StocktakeStatus.RECONCILING);
+        });
+
+        countBuffer.flush(sessionId);
+        try {
+            Thread.sleep(closeGracePeriod.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while closing stocktake", e);
+        }
+        // Counts that raced the status change on this instance
+        countBuffer.flush(sessionId);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return transactionTemplate.execute(status -> reconcile(tenantId, sessionId, userId));
+        } finally {
+            sample.stop(meterRegistry.timer("stocktake.reconcile", Tags.of(MetricsConfig.tenantTag(tenantId))));
+        }
+    }
+
+    private StocktakeSession reconcile(UUID tenantId, UUID sessionId, UUID userId) {
+        StocktakeSession session = lockSession(tenantId, sessionId);
+        if (session.getStatus() != StocktakeStatus.RECONCILING) {
+            throw new IllegalStateException("Stocktake is " + session.getStatus());
+        }
+
+        // Lock the counted items in id order (as the query returns them) before reading quantities
+        jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM (SELECT 1 FROM inventory_items
+                    WHERE id IN (SELECT item_id FROM stocktake_counts WHERE session_id = ?)
+                    ORDER BY id FOR UPDATE) locked""", Long.class, sessionId);
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        List<Object[]> lines = new ArrayList<>();
+        List<Object[]> auditEntries = new ArrayList<>();
+        List<Object[]> quantityUpdates = new ArrayList<>();
+        List<InventoryValuationService.Movement> movements = new ArrayList<>();
+        List<StockMovedEvent.Entry> moved = new ArrayList<>();
+
+        jdbcTemplate.query(RECONCILE_SQL, rs -> {
+            UUID itemId = rs.getObject("id", UUID.class);
+            BigDecimal current = rs.getBigDecimal("current_quantity");
+            BigDecimal counted = rs.getBigDecimal("counted_quantity");
+            BigDecimal expected = rs.getBigDecimal("snapshot_quantity").add(rs.getBigDecimal("moved"));
+            BigDecimal variance = counted.subtract(expected);
+            lines.add(new Object[]{sessionId, itemId, tenantId, counted, expected, variance});
+            if (variance.signum() == 0) {
+                return;
+            }
+            // Outflows booked after the count may exceed what was counted; stock never goes negative
+            BigDecimal corrected = current.add(variance).max(BigDecimal.ZERO);
+            BigDecimal change = corrected.subtract(current);
+            if (change.signum() == 0) {
+                return;
+            }
+            UUID transactionId = UUID.randomUUID();
+            auditEntries.add(new Object[]{transactionId, itemId, userId, TransactionType.AUDIT.name(), change,
+                    rs.getBigDecimal("unit_cost"), nowTimestamp, tenantId});
+            quantityUpdates.add(new Object[]{corrected, nowTimestamp, itemId});
+            movements.add(new InventoryValuationService.Movement(itemId, change, rs.getBigDecimal("unit_cost"), now));
+            moved.add(new StockMovedEvent.Entry(transactionId, itemId, TransactionType.AUDIT, change, corrected,
+                    userId, now));
+        }, sessionId, Timestamp.valueOf(session.getStartedAt()), tenantId, sessionId);
+
+        batchUpdate("""
+                INSERT INTO stocktake_lines (session_id, item_id, tenant_id, snapshot_quantity,
+                                             counted_quantity, expected_quantity, variance)
+                VALUES (?, ?, ?, 0, ?, ?, ?)
+                ON CONFLICT (session_id, item_id) DO UPDATE SET counted_quantity = EXCLUDED.counted_quantity,
+                    expected_quantity = EXCLUDED.expected_quantity, variance = EXCLUDED.variance""", lines);
+        batchUpdate("""
+                INSERT INTO stock_transactions (id, item_id, user_id, type, quantity_change,
+                                                cost_at_transaction, "timestamp", tenant_id)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)""", auditEntries);
+        batchUpdate(
+                "UPDATE inventory_items SET current_quantity = ?, updated_at = ? WHERE id = ?", quantityUpdates);
+        inventoryValuationService.apply(tenantId, movements);
+        if (!moved.isEmpty()) {
+            eventPublisher.publishEvent(new StockMovedEvent(tenantId, moved));
+        }
+
+        session.setStatus(StocktakeStatus.CLOSED);
+        session.setClosedBy(userRepository.getReferenceById(userId));
+        session.setClosedAt(now);
+        session.setCountedItems(lines.size());
+        session.setAdjustedItems(auditEntries.size());
+        log.info("Closed stocktake {} for tenant {}: {} items counted, {} adjusted",
+                sessionId, tenantId, lines.size(), auditEntries.size());
+        return session;
+    }
+
+    @Transactional(readOnly = true)
+    public List<StocktakeLineDTO> lines(UUID tenantId, UUID sessionId) {
+        return jdbcTemplate.query("""
+                SELECT l.item_id, i.name, l.snapshot_quantity, l.counted_quantity, l.expected_quantity, l.variance
+                FROM stocktake_lines l JOIN inventory_items i ON i.id = l.item_id
+                WHERE l.session_id = ? AND l.tenant_id = ?
+                ORDER BY i.name""",
+                (rs, rowNum) -> new StocktakeLineDTO(rs.getObject("item_id", UUID.class), rs.getString("name"),
+                        rs.getBigDecimal("snapshot_quantity"), rs.getBigDecimal("counted_quantity"),
+                        rs.getBigDecimal("expected_quantity"), rs.getBigDecimal("variance")),
+                sessionId, tenantId);
+    }
+
+    private void batchUpdate(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    private StocktakeSession lockSession(UUID tenantId, UUID sessionId) {
+        return stocktakeSessionRepository.findByIdAndTenantIdForUpdate(sessionId, tenantId)
+                .orElseThrow(() -> new IllegalArgumentException("Stocktake not found: " + sessionId));
+    }
+}
@@ -0,0 +1,340 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.config.ShardRegistry;
+import com.hotelsaas.backend.config.ShardingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Moves a tenant's rows from its current shard to another one while the tenant keeps working.
+ * <ol>
+ *     <li>MIGRATING: bulk copy in foreign-key order, keyset-paginated, while reads and writes continue on the source</li>
+ *     <li>FROZEN: wait one directory cache TTL so every instance stops writing, then copy what changed</li>
+ *     <li>ACTIVE on the target: the directory flips, then the source rows are removed</li>
+ * </ol>
+ * Writes are only blocked during the second step, typically seconds. The tenants row stays on the
+ * default shard as well, where it serves as the global tenant list.
+ * <p>
+ * Users move with their tenant. Logins that run before any tenant is bound must therefore name
+ * the tenant (PIN login does) and be routed through the directory. Only users without a tenant
+ * stay on the default shard.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class TenantShardMigrator implements DisposableBean {
+
+    /**
+     * Tenant-owned tables in foreign-key order. Mutable tables are upserted and re-synced at
+     * cut-over; append-only tables are only copied forward. The change tables are synced after all
+     * others, see {@link #CHANGE_TABLES}.
+     */
+    static final List<TableSpec> TABLES = List.of(
+            new TableSpec("tenants", "id", List.of("id"), true),
+            new TableSpec("tenant_change_sequences", "tenant_id", List.of("tenant_id"), true),
+            new TableSpec("change_log", "tenant_id", List.of("tenant_id", "entity_type", "entity_id"), true),
+            new TableSpec("categories", "tenant_id", List.of("id"), true),
+            new TableSpec("suppliers", "tenant_id", List.of("id"), true),
+            new TableSpec("users", "tenant_id", List.of("id"), true),
+            new TableSpec("inventory_items", "tenant_id", List.of("id"), true),
+            new TableSpec("stock_transactions", "tenant_id", List.of("id", "timestamp"), false),
+            new TableSpec("ledger_archives", "tenant_id", List.of("tenant_id", "month"), true),
+            new TableSpec("stocktake_sessions", "tenant_id", List.of("id"), true),
+            new TableSpec("stocktake_lines", "tenant_id", List.of("session_id", "item_id"), true),
+            new TableSpec("stocktake_counts", "tenant_id", List.of("session_id", "item_id", "counter_id"), true),
+            new TableSpec("stock_snapshots", "tenant_id", List.of("id"), true),
+            new TableSpec("stock_snapshot_items", "tenant_id", List.of("snapshot_id", "item_id"), true),
+            new TableSpec("item_cost_layers", "tenant_id", List.of("item_id"), true),
+            new TableSpec("item_cogs_monthly", "tenant_id", List.of("item_id", "month"), true),
+            new TableSpec("par_recommendations", "tenant_id", List.of("item_id"), true),
+            new TableSpec("idempotency_keys", "tenant_id", List.of("tenant_id", "idempotency_key"), true));
+
+    /**
+     * Written by the change triggers on the target whenever a catalog row is copied or removed there.
+     * Synced after the catalog in both passes, so the source's sequence numbers overwrite the ones the
+     * copy assigned and clients do not see the whole catalog as changed.
+     */
+    private static final Set<String> CHANGE_TABLES = Set.of("tenant_change_sequences", "change_log");
+
+    // Ledger rows written this long before the bulk copy started are re-checked at cut-over
+    private static final Duration LEDGER_CATCH_UP_MARGIN = Duration.ofMinutes(5);
+
+    private final ShardRegistry shardRegistry;
+    private final ShardDirectory shardDirectory;
+    private final ShardingProperties properties;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "tenant-shard-migrator");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<UUID, MigrationStatus> statuses = new ConcurrentHashMap<>();
+
+    public TenantShardMigrator(ShardRegistry shardRegistry, ShardDirectory shardDirectory,
+                               ShardingProperties properties) {
+        this.shardRegistry = shardRegistry;
+        this.shardDirectory = shardDirectory;
+        this.properties = properties;
+    }
+
+    record TableSpec(String name, String tenantColumn, List<String> keyColumns, boolean mutable) {
+    }
+
+    public record MigrationStatus(UUID tenantId, String sourceShard, String targetShard, String phase,
+                                  long rowsCopied, String error, Instant startedAt, Instant finishedAt) {
+    }
+
+    /**
+     * Start moving a tenant to another shard in the background; one migration runs at a time
+     * @throws IllegalArgumentException if the target shard is unknown or already hosts the tenant
+     */
+    public MigrationStatus startMigration(UUID tenantId, String targetShard, boolean deleteSource) {
+        shardRegistry.dataSource(targetShard);
+        String sourceShard = shardDirectory.assignment(tenantId).shard();
+        if (sourceShard.equals(targetShard)) {
+            throw new IllegalArgumentException("Tenant already on shard " + targetShard);
+        }
+        MigrationStatus queued = new MigrationStatus(tenantId, sourceShard, targetShard, "QUEUED", 0, null,
+                Instant.now(), null);
+        MigrationStatus existing = statuses.putIfAbsent(tenantId, queued);
+        if (existing != null && existing.finishedAt() == null) {
+            throw new IllegalArgumentException("Migration already in progress for tenant " + tenantId);
+        }
+        statuses.put(tenantId, queued);
+        executor.submit(() -> migrate(tenantId, sourceShard, targetShard, deleteSource));
+        return queued;
+    }
+
+    public Optional<MigrationStatus> status(UUID tenantId) {
+        return Optional.ofNullable(statuses.get(tenantId));
+    }
+
+    private void migrate(UUID tenantId, String sourceShard, String targetShard, boolean deleteSource) {
+        JdbcTemplate source = new JdbcTemplate(shardRegistry.dataSource(sourceShard));
+        JdbcTemplate target = new JdbcTemplate(shardRegistry.dataSource(targetShard));
+        long copied = 0;
+        try {
+            update(tenantId, "COPYING", copied, null);
+            shardDirectory.assign(tenantId, sourceShard, ShardDirectory.STATUS_MIGRATING);
+            ensureLedgerPartitions(source, target, tenantId);
+            Instant copyStartedAt = Instant.now();
+            for (TableSpec table : tables(false)) {
+                copied += copyTable(source, target, table, tenantId, null);
+                update(tenantId, "COPYING", copied, null);
+            }
+            for (TableSpec table : tables(true)) {
+                copied += copyTable(source, target, table, tenantId, null);
+            }
+
+            update(tenantId, "FROZEN", copied, null);
+            shardDirectory.assign(tenantId, sourceShard, ShardDirectory.STATUS_FROZEN);
+            Thread.sleep(properties.getDirectoryCacheTtl().plusSeconds(1).toMillis());
+
+            Timestamp ledgerSince = Timestamp.from(copyStartedAt.minus(LEDGER_CATCH_UP_MARGIN));
+            for (TableSpec table : tables(false)) {
+                copied += copyTable(source, target, table, tenantId, table.mutable() ? null : ledgerSince);
+            }
+            removeDeletedRows(source, target, tables(false), tenantId);
+            for (TableSpec table : tables(true)) {
+                copied += copyTable(source, target, table, tenantId, null);
+            }
+            removeDeletedRows(source, target, tables(true), tenantId);
+
+            shardDirectory.assign(tenantId, targetShard, ShardDirectory.STATUS_ACTIVE);
+            log.info("Tenant {} moved from shard '{}' to '{}' ({} rows copied)", tenantId, sourceShard, targetShard,
+                    copied);
+
+            if (deleteSource) {
+                update(tenantId, "CLEANUP", copied, null);
+                // Instances still caching FROZEN keep the tenant blocked until they reload the new shard
+                Thread.sleep(properties.getDirectoryCacheTtl().plusSeconds(1).toMillis());
+                deleteTenantRows(source, tenantId, sourceShard.equals(shardRegistry.defaultShard()));
+            }
+            finish(tenantId, "DONE", copied, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(tenantId, sourceShard, copied, "Interrupted");
+        } catch (Exception e) {
+            log.error("Migration of tenant {} to shard '{}' failed", tenantId, targetShard, e);
+            fail(tenantId, sourceShard, copied, e.getMessage());
+        }
+    }
+
+    /**
+     * The target shard may only have partitions from the month it was created; history needs older ones
+     */
+    private void ensureLedgerPartitions(JdbcTemplate source, JdbcTemplate target, UUID tenantId) {
+        Timestamp oldest = source.queryForObject(
+                "SELECT min(\"timestamp\") FROM stock_transactions WHERE tenant_id = ?", Timestamp.class, tenantId);
+        if (oldest != null) {
+            target.queryForObject("SELECT ensure_stock_transaction_partitions(CAST(? AS date), 3)", Integer.class,
+                    oldest);
+        }
+    }
+
+    /**
+     * Copy a tenant's rows with keyset pagination on the key columns; when since is set, only ledger
+     * rows from then on
+     */
+    private long copyTable(JdbcTemplate source, JdbcTemplate target, TableSpec table, UUID tenantId,
+                           Timestamp since) {
+        String filter = quote(table.tenantColumn()) + " = ?" + (since != null ? " AND \"timestamp\" >= ?" : "");
+        String keys = keyList(table);
+        List<Object> lastKey = null;
+        long copied = 0;
+        while (true) {
+            List<Object> args = new ArrayList<>(List.of(tenantId));
+            if (since != null) {
+                args.add(since);
+            }
+            String sql = "SELECT * FROM " + table.name() + " WHERE " + filter;
+            if (lastKey != null) {
+                sql += " AND (" + keys + ") > (" + placeholders(lastKey.size()) + ")";
+                args.addAll(lastKey);
+            }
+            sql += " ORDER BY " + keys + " LIMIT " + properties.getCopyBatchSize();
+
+            List<Map<String, Object>> rows = source.queryForList(sql, args.toArray());
+            if (rows.isEmpty()) {
+                return copied;
+            }
+            insertRows(target, table, rows);
+            copied += rows.size();
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            lastKey = table.keyColumns().stream().map(last::get).toList();
+        }
+    }
+
+    private void insertRows(JdbcTemplate target, TableSpec table, List<Map<String, Object>> rows) {
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String columnList = columns.stream().map(TenantShardMigrator::quote).collect(Collectors.joining(", "));
+        String placeholders = columns.stream().map(c -> "?").collect(Collectors.joining(", "));
+        String conflictKey = keyList(table);
+        String onConflict;
+        if (table.mutable()) {
+            onConflict = "DO UPDATE SET " + columns.stream()
+                    .filter(c -> !table.keyColumns().contains(c))
+                    .map(c -> quote(c) + " = EXCLUDED." + quote(c))
+                    .collect(Collectors.joining(", "));
+        } else {
+            onConflict = "DO NOTHING";
+        }
+        String sql = "INSERT INTO " + table.name() + " (" + columnList + ") VALUES (" + placeholders + ") "
+                + "ON CONFLICT (" + conflictKey + ") " + onConflict;
+
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            batch.add(columns.stream().map(row::get).toArray());
+        }
+        target.batchUpdate(sql, batch);
+    }
+
+    /**
+     * Tables in foreign-key order, either the change tables or all others
+     */
+    static List<TableSpec> tables(boolean changeTables) {
+        return TABLES.stream().filter(table -> CHANGE_TABLES.contains(table.name()) == changeTables).toList();
+    }
+
+    /**
+     * Remove the rows of the mutable tables deleted on the source, children first
+     */
+    private void removeDeletedRows(JdbcTemplate source, JdbcTemplate target, List<TableSpec> tables, UUID tenantId) {
+        for (TableSpec table : tables.reversed()) {
+            if (table.mutable()) {
+                removeDeletedRows(source, target, table, tenantId);
+            }
+        }
+    }
+
+    /**
+     * Rows deleted on the source during the bulk copy must not survive on the target
+     */
+    private void removeDeletedRows(JdbcTemplate source, JdbcTemplate target, TableSpec table, UUID tenantId) {
+        int keyCount = table.keyColumns().size();
+        String sql = "SELECT " + keyList(table) + " FROM " + table.name() + " WHERE "
+                + quote(table.tenantColumn()) + " = ?";
+        RowMapper<List<Object>> keyMapper = (rs, rowNum) -> {
+            List<Object> key = new ArrayList<>(keyCount);
+            for (int i = 1; i <= keyCount; i++) {
+                key.add(rs.getObject(i));
+            }
+            return key;
+        };
+        Set<List<Object>> sourceKeys = new HashSet<>(source.query(sql, keyMapper, tenantId));
+        List<Object[]> deleted = target.query(sql, keyMapper, tenantId).stream()
+                .filter(key -> !sourceKeys.contains(key))
+                .map(List::toArray)
+                .collect(Collectors.toList());
+        if (!deleted.isEmpty()) {
+            String keyFilter = table.keyColumns().stream().map(c -> quote(c) + " = ?")
+                    .collect(Collectors.joining(" AND "));
+            target.batchUpdate("DELETE FROM " + table.name() + " WHERE " + keyFilter, deleted);
+        }
+    }
+
+    private void deleteTenantRows(JdbcTemplate source, UUID tenantId, boolean keepTenantRow) {
+        for (TableSpec table : TABLES.reversed()) {
+            if (keepTenantRow && table.name().equals("tenants")) {
+                continue;
+            }
+            source.update("DELETE FROM " + table.name() + " WHERE " + quote(table.tenantColumn()) + " = ?", tenantId);
+        }
+    }
+
+    private void fail(UUID tenantId, String sourceShard, long copied, String error) {
+        try {
+            // Writes resume on the source; partially copied rows on the target are overwritten by a retry
+            shardDirectory.assign(tenantId, sourceShard, ShardDirectory.STATUS_ACTIVE);
+        } catch (Exception e) {
+            log.error("Could not reactivate tenant {} on shard '{}': {}", tenantId, sourceShard, e.getMessage());
+        }
+        finish(tenantId, "FAILED", copied, error);
+    }
+
+    private void update(UUID tenantId, String phase, long copied, String error) {
+        statuses.computeIfPresent(tenantId, (id, s) -> new MigrationStatus(id, s.sourceShard(), s.targetShard(),
+                phase, copied, error, s.startedAt(), null));
+    }
+
+    private void finish(UUID tenantId, String phase, long copied, String error) {
+        statuses.computeIfPresent(tenantId, (id, s) -> new MigrationStatus(id, s.sourceShard(), s.targetShard(),
+                phase, copied, error, s.startedAt(), Instant.now()));
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier + "\"";
+    }
+
+    private static String keyList(TableSpec table) {
+        return table.keyColumns().stream().map(TenantShardMigrator::quote).collect(Collectors.joining(", "));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,15 @@
+-- Idempotency-Key of completed mutating requests and the response to replay (IdempotencyFilter).
+-- Written in the request's own transaction; the primary key rejects a duplicate attempt.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_fingerprint VARCHAR(2048) NOT NULL,
+    response_status INTEGER NOT NULL,
+    response_content_type VARCHAR(255),
+    response_body BYTEA,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (tenant_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_tenant_created ON idempotency_keys (tenant_id, created_at);
@@ -0,0 +1,48 @@
+-- Cold archival of old ledger months (LedgerArchiveService). Rows of a tenant and month are moved
+-- into one compressed columnar file in object storage; this manifest records where it is and its
+-- min/max statistics, so history reads only download files overlapping the requested range.
+
+CREATE TABLE IF NOT EXISTS ledger_archives (
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    month DATE NOT NULL,
+    bucket VARCHAR(255) NOT NULL,
+    object_name VARCHAR(1024) NOT NULL,
+    row_count INTEGER NOT NULL,
+    min_timestamp TIMESTAMP(6) NOT NULL,
+    max_timestamp TIMESTAMP(6) NOT NULL,
+    min_quantity_change NUMERIC(38, 2) NOT NULL,
+    max_quantity_change NUMERIC(38, 2) NOT NULL,
+    stored_bytes BIGINT NOT NULL,
+    checksum VARCHAR(16) NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (tenant_id, month)
+);
+
+-- Drop the stock_transactions partitions of months before before_month that no longer hold rows,
+-- i.e. every tenant's rows of that month have been archived. Returns the number dropped.
+-- Dropping a partition briefly locks the parent table, so this runs from the nightly archival job.
+CREATE OR REPLACE FUNCTION drop_empty_stock_transaction_partitions(before_month DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    part RECORD;
+    is_empty BOOLEAN;
+    dropped INTEGER := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'stock_transactions'::regclass
+          AND c.relname ~ '^stock_transactions_[0-9]{4}_[0-9]{2}$'
+          AND to_date(right(c.relname, 7), 'YYYY_MM') < date_trunc('month', before_month)::date
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('LOCK TABLE %I IN ACCESS EXCLUSIVE MODE', part.relname);
+        EXECUTE format('SELECT NOT EXISTS (SELECT 1 FROM %I)', part.relname) INTO is_empty;
+        IF is_empty THEN
+            EXECUTE format('DROP TABLE %I', part.relname);
+            dropped := dropped + 1;
+        END IF;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,9 @@
+-- PIN login names the tenant of the tablet, so a PIN must identify one user within its tenant;
+-- users without a tenant share one namespace. Reassign duplicate PINs before this migration runs.
+
+DROP INDEX IF EXISTS idx_users_pin;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_tenant_pin
+    ON users (tenant_id, pin) WHERE tenant_id IS NOT NULL AND pin IS NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_pin_without_tenant
+    ON users (pin) WHERE tenant_id IS NULL AND pin IS NOT NULL;
@@ -0,0 +1,38 @@
+-- Catch-all partition for ledger rows outside every monthly partition (partition maintenance fell
+-- behind, a clock far ahead, a late insert into an archived month), so such inserts are kept
+-- instead of failing. LedgerPartitionService alerts while it holds rows.
+
+CREATE TABLE IF NOT EXISTS stock_transactions_default PARTITION OF stock_transactions DEFAULT;
+
+-- Creating a partition fails while the default partition holds rows of its range, so those rows
+-- are moved into the new partition before it is attached.
+CREATE OR REPLACE FUNCTION create_stock_transaction_partition(month_start DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    partition_start DATE := date_trunc('month', month_start)::date;
+    partition_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := 'stock_transactions_' || to_char(partition_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM stock_transactions_default
+                   WHERE "timestamp" >= partition_start AND "timestamp" < partition_end) THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF stock_transactions FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, partition_start, partition_end);
+        RETURN TRUE;
+    END IF;
+
+    -- Keeps concurrent inserts out of the default partition until the rows are moved
+    LOCK TABLE stock_transactions_default IN SHARE ROW EXCLUSIVE MODE;
+    EXECUTE format('CREATE TABLE %I (LIKE stock_transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM stock_transactions_default
+                                   WHERE "timestamp" >= %L AND "timestamp" < %L RETURNING *)
+                    INSERT INTO %I SELECT * FROM moved',
+                   partition_start, partition_end, partition_name);
+    EXECUTE format('ALTER TABLE stock_transactions ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, partition_start, partition_end);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
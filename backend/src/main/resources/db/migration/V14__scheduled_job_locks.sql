@@ -0,0 +1,10 @@
+-- Leases of the maintenance jobs (JobLock), so each runs on one instance at a time however many
+-- instances are up. Only the default shard's table is used. A lease past locked_until is free,
+-- which releases the jobs of an instance that died while running them.
+
+CREATE TABLE IF NOT EXISTS scheduled_job_locks (
+    job_name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP(6) NOT NULL,
+    locked_at TIMESTAMP(6) NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
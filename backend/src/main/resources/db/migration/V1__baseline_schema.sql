@@ -0,0 +1,49 @@
+-- Baseline schema matching the JPA entities.
+-- IF NOT EXISTS lets databases previously created by ddl-auto=update be baselined in place.
+
+CREATE TABLE IF NOT EXISTS tenants (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    plan_type VARCHAR(255),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    role VARCHAR(255) NOT NULL,
+    pin VARCHAR(5),
+    status VARCHAR(255) NOT NULL,
+    tenant_id UUID REFERENCES tenants(id)
+);
+
+CREATE TABLE IF NOT EXISTS categories (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    tenant_id UUID NOT NULL REFERENCES tenants(id)
+);
+
+CREATE TABLE IF NOT EXISTS suppliers (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    contact_info TEXT,
+    tenant_id UUID NOT NULL REFERENCES tenants(id)
+);
+
+CREATE TABLE IF NOT EXISTS inventory_items (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    sku VARCHAR(255),
+    unit VARCHAR(255),
+    current_quantity NUMERIC(38, 2) NOT NULL,
+    par_level NUMERIC(38, 2),
+    unit_cost NUMERIC(38, 2),
+    category_id UUID REFERENCES categories(id),
+    supplier_id UUID REFERENCES suppliers(id),
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    image_url VARCHAR(500),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
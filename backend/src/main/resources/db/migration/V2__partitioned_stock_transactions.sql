@@ -0,0 +1,82 @@
+-- Range-partition the ledger by month on "timestamp".
+-- Partitioned tables need the partition key in the primary key, hence (id, timestamp).
+-- Rows of a pre-existing, unpartitioned ledger are moved into the new table.
+
+DO $$
+BEGIN
+    IF to_regclass('stock_transactions') IS NOT NULL THEN
+        ALTER TABLE stock_transactions RENAME TO stock_transactions_legacy;
+        -- Constraint names are not renamed with the table and would clash with the new primary key
+        IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'stock_transactions_pkey') THEN
+            ALTER TABLE stock_transactions_legacy
+                RENAME CONSTRAINT stock_transactions_pkey TO stock_transactions_legacy_pkey;
+        END IF;
+    END IF;
+END $$;
+
+CREATE TABLE stock_transactions (
+    id UUID NOT NULL,
+    item_id UUID NOT NULL REFERENCES inventory_items(id),
+    user_id UUID NOT NULL REFERENCES users(id),
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    type VARCHAR(255) NOT NULL,
+    quantity_change NUMERIC(38, 2) NOT NULL,
+    cost_at_transaction NUMERIC(38, 2),
+    "timestamp" TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, "timestamp")
+) PARTITION BY RANGE ("timestamp");
+
+-- Create the partition holding the given month, if missing. Returns true when created.
+CREATE OR REPLACE FUNCTION create_stock_transaction_partition(month_start DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    partition_start DATE := date_trunc('month', month_start)::date;
+    partition_name TEXT := 'stock_transactions_' || to_char(partition_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF stock_transactions FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, partition_start, (partition_start + INTERVAL '1 month')::date);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Ensure monthly partitions exist from from_month up to months_ahead months after the current one.
+-- Called by the application on startup and daily; returns the number of partitions created.
+CREATE OR REPLACE FUNCTION ensure_stock_transaction_partitions(from_month DATE, months_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    current_month DATE := date_trunc('month', from_month)::date;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + make_interval(months => months_ahead))::date;
+    created INTEGER := 0;
+BEGIN
+    WHILE current_month <= last_month LOOP
+        IF create_stock_transaction_partition(current_month) THEN
+            created := created + 1;
+        END IF;
+        current_month := (current_month + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    oldest_month DATE;
+BEGIN
+    IF to_regclass('stock_transactions_legacy') IS NOT NULL THEN
+        SELECT date_trunc('month', min("timestamp"))::date INTO oldest_month FROM stock_transactions_legacy;
+    END IF;
+
+    PERFORM ensure_stock_transaction_partitions(
+            COALESCE(oldest_month, date_trunc('month', CURRENT_DATE)::date), 3);
+
+    IF to_regclass('stock_transactions_legacy') IS NOT NULL THEN
+        INSERT INTO stock_transactions (id, item_id, user_id, tenant_id, type, quantity_change,
+                                        cost_at_transaction, "timestamp")
+        SELECT id, item_id, user_id, tenant_id, type, quantity_change, cost_at_transaction, "timestamp"
+        FROM stock_transactions_legacy;
+        DROP TABLE stock_transactions_legacy;
+    END IF;
+END $$;
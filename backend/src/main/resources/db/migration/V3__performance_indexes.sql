@@ -0,0 +1,29 @@
+-- Indexes for the tenant-scoped access paths.
+-- Indexes on the partitioned ledger are created on every partition, including future ones.
+
+-- Ledger: tenant history newest first, per-item replay, FK checks on user deletion
+CREATE INDEX IF NOT EXISTS idx_stock_transactions_tenant_timestamp
+    ON stock_transactions (tenant_id, "timestamp" DESC);
+CREATE INDEX IF NOT EXISTS idx_stock_transactions_item_timestamp
+    ON stock_transactions (item_id, "timestamp");
+CREATE INDEX IF NOT EXISTS idx_stock_transactions_user
+    ON stock_transactions (user_id);
+
+-- Inventory list ordered by name, FK checks on category/supplier deletion
+CREATE INDEX IF NOT EXISTS idx_inventory_items_tenant_name
+    ON inventory_items (tenant_id, name);
+CREATE INDEX IF NOT EXISTS idx_inventory_items_category
+    ON inventory_items (category_id);
+CREATE INDEX IF NOT EXISTS idx_inventory_items_supplier
+    ON inventory_items (supplier_id);
+
+CREATE INDEX IF NOT EXISTS idx_categories_tenant
+    ON categories (tenant_id);
+CREATE INDEX IF NOT EXISTS idx_suppliers_tenant
+    ON suppliers (tenant_id);
+
+-- Staff lists and PIN login at shift start
+CREATE INDEX IF NOT EXISTS idx_users_tenant
+    ON users (tenant_id);
+CREATE INDEX IF NOT EXISTS idx_users_pin
+    ON users (pin);
@@ -0,0 +1,10 @@
+-- Tenant-to-shard directory, read from the default shard only.
+-- Tenants without a row live on the default shard.
+CREATE TABLE IF NOT EXISTS tenant_shards (
+    tenant_id UUID PRIMARY KEY,
+    shard VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    updated_at TIMESTAMP(6) NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_tenant_shards_shard ON tenant_shards (shard);
@@ -0,0 +1,39 @@
+-- Stocktake (physical count) sessions.
+-- stocktake_lines holds the on-hand snapshot taken when the session opens and, after close,
+-- the reconciled result per item. stocktake_counts holds the latest count per item and counter.
+
+CREATE TABLE IF NOT EXISTS stocktake_sessions (
+    id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    status VARCHAR(20) NOT NULL,
+    started_by UUID NOT NULL REFERENCES users(id),
+    started_at TIMESTAMP(6) NOT NULL,
+    closed_by UUID REFERENCES users(id),
+    closed_at TIMESTAMP(6),
+    counted_items INTEGER,
+    adjusted_items INTEGER
+);
+
+CREATE INDEX IF NOT EXISTS idx_stocktake_sessions_tenant_started
+    ON stocktake_sessions (tenant_id, started_at DESC);
+
+CREATE TABLE IF NOT EXISTS stocktake_lines (
+    session_id UUID NOT NULL REFERENCES stocktake_sessions(id) ON DELETE CASCADE,
+    item_id UUID NOT NULL REFERENCES inventory_items(id) ON DELETE CASCADE,
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    snapshot_quantity NUMERIC(38, 2) NOT NULL,
+    counted_quantity NUMERIC(38, 2),
+    expected_quantity NUMERIC(38, 2),
+    variance NUMERIC(38, 2),
+    PRIMARY KEY (session_id, item_id)
+);
+
+CREATE TABLE IF NOT EXISTS stocktake_counts (
+    session_id UUID NOT NULL REFERENCES stocktake_sessions(id) ON DELETE CASCADE,
+    item_id UUID NOT NULL REFERENCES inventory_items(id) ON DELETE CASCADE,
+    counter_id UUID NOT NULL REFERENCES users(id),
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    quantity NUMERIC(38, 2) NOT NULL,
+    counted_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (session_id, item_id, counter_id)
+);
@@ -0,0 +1,23 @@
+-- Periodic per-tenant stock snapshots derived from the ledger.
+-- Stock at time T = nearest snapshot at or before T + ledger changes in (taken_at, T].
+
+CREATE TABLE IF NOT EXISTS stock_snapshots (
+    id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    taken_at TIMESTAMP(6) NOT NULL,
+    item_count INTEGER NOT NULL,
+    total_value NUMERIC(38, 2) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT now(),
+    UNIQUE (tenant_id, taken_at)
+);
+
+CREATE TABLE IF NOT EXISTS stock_snapshot_items (
+    snapshot_id UUID NOT NULL REFERENCES stock_snapshots(id) ON DELETE CASCADE,
+    item_id UUID NOT NULL REFERENCES inventory_items(id) ON DELETE CASCADE,
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    quantity NUMERIC(38, 2) NOT NULL,
+    unit_cost NUMERIC(38, 2),
+    PRIMARY KEY (snapshot_id, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_snapshot_items_item ON stock_snapshot_items (item_id);
@@ -0,0 +1,28 @@
+-- Incrementally maintained inventory valuation.
+-- item_cost_layers: per item, FIFO receipt layers (compact binary, see CostLayers) and the
+-- running weighted-average cost. item_cogs_monthly: cost of goods issued per item and month.
+
+CREATE TABLE IF NOT EXISTS item_cost_layers (
+    item_id UUID PRIMARY KEY REFERENCES inventory_items(id) ON DELETE CASCADE,
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    fifo_layers BYTEA NOT NULL,
+    fifo_quantity NUMERIC(38, 2) NOT NULL,
+    fifo_value NUMERIC(38, 6) NOT NULL,
+    wac_quantity NUMERIC(38, 2) NOT NULL,
+    wac_unit_cost NUMERIC(38, 4) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_cost_layers_tenant ON item_cost_layers (tenant_id);
+
+CREATE TABLE IF NOT EXISTS item_cogs_monthly (
+    item_id UUID NOT NULL REFERENCES inventory_items(id) ON DELETE CASCADE,
+    month DATE NOT NULL,
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    quantity_issued NUMERIC(38, 2) NOT NULL,
+    cogs_fifo NUMERIC(38, 6) NOT NULL,
+    cogs_wac NUMERIC(38, 6) NOT NULL,
+    PRIMARY KEY (item_id, month)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_cogs_monthly_tenant_month ON item_cogs_monthly (tenant_id, month);
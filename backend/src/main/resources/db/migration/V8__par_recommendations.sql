@@ -0,0 +1,16 @@
+-- Nightly consumption forecast and par-level recommendation per item (ParRecommendationJob).
+
+CREATE TABLE IF NOT EXISTS par_recommendations (
+    item_id UUID PRIMARY KEY REFERENCES inventory_items(id) ON DELETE CASCADE,
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    supplier_id UUID REFERENCES suppliers(id) ON DELETE SET NULL,
+    average_daily_usage NUMERIC(38, 4) NOT NULL,
+    forecast_usage NUMERIC(38, 2) NOT NULL,
+    safety_stock NUMERIC(38, 2) NOT NULL,
+    recommended_par NUMERIC(38, 2) NOT NULL,
+    reorder_quantity NUMERIC(38, 2) NOT NULL,
+    computed_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_par_recommendations_tenant_supplier
+    ON par_recommendations (tenant_id, supplier_id);
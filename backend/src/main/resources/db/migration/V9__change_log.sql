@@ -0,0 +1,88 @@
+-- Per-tenant change sequence for delta sync (GET /api/sync/changes?since=N).
+--
+-- Every insert, update and delete on the catalog tables is recorded in change_log with the next
+-- number of the tenant's sequence; one row per entity holds its latest change, deletes leave a
+-- tombstone. The triggers are deferred to commit time, so the tenant's counter row is only locked
+-- while the transaction commits, and sequence numbers become visible in the order they were
+-- assigned: a reader never sees N+1 before N.
+
+CREATE TABLE IF NOT EXISTS tenant_change_sequences (
+    tenant_id UUID PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    -- Tombstones up to this sequence were pruned; clients behind it must resync from 0
+    pruned_seq BIGINT NOT NULL DEFAULT 0
+);
+
+-- No foreign keys: rows are written by triggers while a tenant's rows may be deleted
+CREATE TABLE IF NOT EXISTS change_log (
+    tenant_id UUID NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id UUID NOT NULL,
+    seq BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL,
+    changed_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (tenant_id, entity_type, entity_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_change_log_tenant_seq ON change_log (tenant_id, seq);
+
+CREATE OR REPLACE FUNCTION record_change() RETURNS trigger AS $$
+DECLARE
+    row_tenant UUID;
+    row_id UUID;
+    next_seq BIGINT;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        row_tenant := OLD.tenant_id;
+        row_id := OLD.id;
+    ELSE
+        row_tenant := NEW.tenant_id;
+        row_id := NEW.id;
+    END IF;
+    IF row_tenant IS NULL THEN
+        -- Platform users belong to no tenant
+        RETURN NULL;
+    END IF;
+
+    INSERT INTO tenant_change_sequences (tenant_id, last_seq) VALUES (row_tenant, 1)
+    ON CONFLICT (tenant_id) DO UPDATE SET last_seq = tenant_change_sequences.last_seq + 1
+    RETURNING last_seq INTO next_seq;
+
+    INSERT INTO change_log (tenant_id, entity_type, entity_id, seq, deleted, changed_at)
+    VALUES (row_tenant, TG_ARGV[0], row_id, next_seq, TG_OP = 'DELETE', now())
+    ON CONFLICT (tenant_id, entity_type, entity_id) DO UPDATE SET seq = EXCLUDED.seq,
+        deleted = EXCLUDED.deleted, changed_at = EXCLUDED.changed_at;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS inventory_items_change ON inventory_items;
+CREATE CONSTRAINT TRIGGER inventory_items_change AFTER INSERT OR UPDATE OR DELETE ON inventory_items
+    DEFERRABLE INITIALLY DEFERRED FOR EACH ROW EXECUTE FUNCTION record_change('ITEM');
+
+DROP TRIGGER IF EXISTS categories_change ON categories;
+CREATE CONSTRAINT TRIGGER categories_change AFTER INSERT OR UPDATE OR DELETE ON categories
+    DEFERRABLE INITIALLY DEFERRED FOR EACH ROW EXECUTE FUNCTION record_change('CATEGORY');
+
+DROP TRIGGER IF EXISTS suppliers_change ON suppliers;
+CREATE CONSTRAINT TRIGGER suppliers_change AFTER INSERT OR UPDATE OR DELETE ON suppliers
+    DEFERRABLE INITIALLY DEFERRED FOR EACH ROW EXECUTE FUNCTION record_change('SUPPLIER');
+
+DROP TRIGGER IF EXISTS users_change ON users;
+CREATE CONSTRAINT TRIGGER users_change AFTER INSERT OR UPDATE OR DELETE ON users
+    DEFERRABLE INITIALLY DEFERRED FOR EACH ROW EXECUTE FUNCTION record_change('USER');
+
+-- Existing rows start out as changes 1..n of their tenant
+INSERT INTO change_log (tenant_id, entity_type, entity_id, seq, deleted, changed_at)
+SELECT tenant_id, entity_type, id, row_number() OVER (PARTITION BY tenant_id ORDER BY entity_type, id), FALSE, now()
+FROM (
+    SELECT tenant_id, 'CATEGORY' AS entity_type, id FROM categories
+    UNION ALL SELECT tenant_id, 'SUPPLIER', id FROM suppliers
+    UNION ALL SELECT tenant_id, 'ITEM', id FROM inventory_items
+    UNION ALL SELECT tenant_id, 'USER', id FROM users WHERE tenant_id IS NOT NULL
+) existing
+ON CONFLICT DO NOTHING;
+
+INSERT INTO tenant_change_sequences (tenant_id, last_seq)
+SELECT tenant_id, max(seq) FROM change_log GROUP BY tenant_id
+ON CONFLICT (tenant_id) DO NOTHING;
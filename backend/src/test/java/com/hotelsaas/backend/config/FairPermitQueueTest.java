@@ -0,0 +1,146 @@
+package com.hotelsaas.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FairPermitQueueTest {
+
+    private static final long WAIT = TimeUnit.SECONDS.toNanos(10);
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+    private final List<Thread> waiters = new ArrayList<>();
+    private final BlockingQueue<UUID> grants = new LinkedBlockingQueue<>();
+
+    @AfterEach
+    void stopWaiters() {
+        waiters.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Queue an acquire on another thread, which reports the tenant to grants once it holds a permit
+     */
+    private void queue(FairPermitQueue permits, UUID tenantId) throws InterruptedException {
+        int before = permits.queued(tenantId);
+        Thread waiter = new Thread(() -> {
+            try {
+                if (permits.acquire(tenantId, WAIT) == FairPermitQueue.Result.ACQUIRED) {
+                    grants.add(tenantId);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.setDaemon(true);
+        waiter.start();
+        waiters.add(waiter);
+        while (permits.queued(tenantId) == before) {
+            Thread.sleep(1);
+        }
+    }
+
+    private UUID nextGrant() throws InterruptedException {
+        UUID tenantId = grants.poll(10, TimeUnit.SECONDS);
+        assertThat(tenantId).as("a waiter was granted a permit").isNotNull();
+        return tenantId;
+    }
+
+    @Test
+    void permitsAreGrantedImmediatelyWhileAvailable() throws InterruptedException {
+        FairPermitQueue permits = new FairPermitQueue(2, 10, 10, id -> 1);
+
+        assertThat(permits.acquire(a, 0)).isEqualTo(FairPermitQueue.Result.ACQUIRED);
+        assertThat(permits.acquire(b, 0)).isEqualTo(FairPermitQueue.Result.ACQUIRED);
+        assertThat(permits.available()).isZero();
+
+        assertThat(permits.acquire(c, 0)).isEqualTo(FairPermitQueue.Result.TIMED_OUT);
+        assertThat(permits.queued()).isZero();
+
+        permits.release(a);
+        assertThat(permits.available()).isEqualTo(1);
+    }
+
+    @Test
+    void tenantCannotHoldMoreThanItsLimit() throws InterruptedException {
+        FairPermitQueue permits = new FairPermitQueue(3, 1, 10, id -> 1);
+
+        assertThat(permits.acquire(a, 0)).isEqualTo(FairPermitQueue.Result.ACQUIRED);
+        assertThat(permits.acquire(a, 0)).isEqualTo(FairPermitQueue.Result.TIMED_OUT);
+        assertThat(permits.acquire(b, 0)).isEqualTo(FairPermitQueue.Result.ACQUIRED);
+        assertThat(permits.available()).isEqualTo(1);
+    }
+
+    @Test
+    void fullTenantQueueIsRejectedWithoutWaiting() throws InterruptedException {
+        FairPermitQueue permits = new FairPermitQueue(1, 10, 1, id -> 1);
+        permits.acquire(c, 0);
+        queue(permits, a);
+
+        assertThat(permits.acquire(a, WAIT)).isEqualTo(FairPermitQueue.Result.QUEUE_FULL);
+        // Other tenants queue separately
+        queue(permits, b);
+        assertThat(permits.queued()).isEqualTo(2);
+    }
+
+    @Test
+    void releasedPermitsGoToTenantsInWeightedTurns() throws InterruptedException {
+        FairPermitQueue permits = new FairPermitQueue(1, 10, 10, Map.of(a, 2, b, 1)::get);
+        permits.acquire(c, 0);
+        queue(permits, a);
+        queue(permits, b);
+        queue(permits, a);
+        queue(permits, b);
+        queue(permits, a);
+
+        List<UUID> order = new ArrayList<>();
+        UUID holder = c;
+        for (int i = 0; i < 5; i++) {
+            permits.release(holder);
+            holder = nextGrant();
+            order.add(holder);
+        }
+
+        // Tenant a keeps the turn for two grants, b for one, until their queues run dry
+        assertThat(order).containsExactly(a, a, b, a, b);
+        assertThat(permits.queued()).isZero();
+    }
+
+    @Test
+    void tenantAtItsLimitIsSkipped() throws InterruptedException {
+        FairPermitQueue permits = new FairPermitQueue(2, 1, 10, id -> 1);
+        permits.acquire(a, 0);
+        permits.acquire(b, 0);
+        queue(permits, a);
+        queue(permits, c);
+
+        permits.release(b);
+
+        assertThat(nextGrant()).isEqualTo(c);
+        assertThat(permits.queued(a)).isEqualTo(1);
+        permits.release(a);
+        assertThat(nextGrant()).isEqualTo(a);
+    }
+
+    @Test
+    void timedOutWaiterLeavesTheQueue() throws InterruptedException {
+        FairPermitQueue permits = new FairPermitQueue(1, 10, 10, id -> 1);
+        permits.acquire(a, 0);
+
+        assertThat(permits.acquire(b, TimeUnit.MILLISECONDS.toNanos(10))).isEqualTo(FairPermitQueue.Result.TIMED_OUT);
+        assertThat(permits.queued()).isZero();
+
+        permits.release(a);
+        assertThat(permits.available()).isEqualTo(1);
+    }
+}
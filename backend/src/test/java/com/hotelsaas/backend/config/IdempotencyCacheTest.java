@@ -0,0 +1,118 @@
+package com.hotelsaas.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyCacheTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+    private static final UUID TENANT = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private static IdempotencyCache.Key key(String idempotencyKey) {
+        return new IdempotencyCache.Key(TENANT, idempotencyKey);
+    }
+
+    private static IdempotencyCache.Response response(String fingerprint) {
+        return new IdempotencyCache.Response(fingerprint, 201, "application/json", "{}".getBytes());
+    }
+
+    @Test
+    void claimedKeyIsInFlightUntilCompleted() {
+        IdempotencyCache cache = new IdempotencyCache(100, HOUR);
+
+        assertThat(cache.claim(key("a"))).isTrue();
+        assertThat(cache.claim(key("a"))).isFalse();
+        assertThat(cache.completed(key("a"))).isNull();
+
+        IdempotencyCache.Response stored = response("f1");
+        cache.complete(key("a"), stored);
+
+        assertThat(cache.completed(key("a"))).isSameAs(stored);
+        assertThat(cache.claim(key("a"))).isFalse();
+    }
+
+    @Test
+    void keysAreScopedToTheTenant() {
+        IdempotencyCache cache = new IdempotencyCache(100, HOUR);
+
+        assertThat(cache.claim(key("a"))).isTrue();
+        assertThat(cache.claim(new IdempotencyCache.Key(UUID.randomUUID(), "a"))).isTrue();
+    }
+
+    @Test
+    void releasedKeyCanBeClaimedAgain() {
+        IdempotencyCache cache = new IdempotencyCache(100, HOUR);
+        cache.claim(key("a"));
+
+        cache.release(key("a"));
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.claim(key("a"))).isTrue();
+    }
+
+    @Test
+    void releaseKeepsACompletedResponse() {
+        IdempotencyCache cache = new IdempotencyCache(100, HOUR);
+        cache.claim(key("a"));
+        cache.complete(key("a"), response("f1"));
+
+        cache.release(key("a"));
+
+        assertThat(cache.completed(key("a"))).isNotNull();
+    }
+
+    @Test
+    void expiredEntriesAreIgnoredAndReclaimable() throws InterruptedException {
+        IdempotencyCache cache = new IdempotencyCache(100, 1);
+        cache.claim(key("a"));
+        cache.complete(key("a"), response("f1"));
+        Thread.sleep(1);
+
+        assertThat(cache.completed(key("a"))).isNull();
+        assertThat(cache.claim(key("a"))).isTrue();
+    }
+
+    @Test
+    void expiredEntriesAreEvictedOnInsertion() throws InterruptedException {
+        IdempotencyCache cache = new IdempotencyCache(100, 1);
+        cache.claim(key("a"));
+        cache.claim(key("b"));
+        Thread.sleep(1);
+
+        cache.claim(key("c"));
+
+        // Each insertion evicts what expired before it, including itself once its TTL passed
+        assertThat(cache.size()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void oldestInsertionsAreEvictedBeyondTheSizeBound() {
+        IdempotencyCache cache = new IdempotencyCache(4, HOUR);
+        for (String k : new String[]{"a", "b", "c"}) {
+            cache.claim(key(k));
+            cache.complete(key(k), response(k));
+        }
+
+        // A claim and a completion count as two insertions, so only the last two keys fit
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.completed(key("a"))).isNull();
+        assertThat(cache.completed(key("b")).fingerprint()).isEqualTo("b");
+        assertThat(cache.completed(key("c")).fingerprint()).isEqualTo("c");
+    }
+
+    @Test
+    void evictingAnOldInsertionKeepsTheNewerEntryOfTheSameKey() {
+        IdempotencyCache cache = new IdempotencyCache(2, HOUR);
+        cache.claim(key("a"));
+        cache.complete(key("a"), response("a"));
+
+        // Pushes out the claim of "a", which was replaced by its completion
+        cache.claim(key("b"));
+
+        assertThat(cache.completed(key("a")).fingerprint()).isEqualTo("a");
+    }
+}
@@ -0,0 +1,60 @@
+package com.hotelsaas.backend.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantHistogramFilterTest {
+
+    private static final UUID HOTEL = new UUID(1, 1);
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private static DistributionStatisticConfig configure(Meter.Id id) {
+        // Like management.metrics.distribution.percentiles-histogram.stock.movement, which matches by prefix
+        DistributionStatisticConfig fromProperties = DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .percentiles(0.99)
+                .serviceLevelObjectives(50_000_000)
+                .build()
+                .merge(DistributionStatisticConfig.DEFAULT);
+        return new TenantHistogramFilter().configure(id, fromProperties);
+    }
+
+    @Test
+    void tenantTaggedMeterPublishesNoDistribution() {
+        DistributionStatisticConfig perTenant = configure(new Meter.Id("stock.movement.tenant",
+                Tags.of("tenant", HOTEL.toString(), "type", "IN"), null, null, Meter.Type.TIMER));
+        DistributionStatisticConfig overall = configure(new Meter.Id("stock.movement",
+                Tags.of("type", "IN"), null, null, Meter.Type.TIMER));
+
+        assertThat(perTenant.isPublishingHistogram()).isFalse();
+        assertThat(perTenant.isPublishingPercentiles()).isFalse();
+        assertThat(perTenant.getServiceLevelObjectiveBoundaries()).isEmpty();
+        assertThat(overall.isPublishingHistogram()).isTrue();
+        assertThat(overall.getPercentiles()).containsExactly(0.99);
+    }
+
+    @Test
+    void samplesAreRecordedWithAndWithoutTheTenant() {
+        Timer.Sample sample = Timer.start(registry);
+
+        MetricsConfig.stop(sample, registry, "stock.movement", HOTEL, Tags.of("type", "IN", "outcome", "success"));
+
+        Timer overall = registry.get("stock.movement").tags("type", "IN", "outcome", "success").timer();
+        Timer perTenant = registry.get("stock.movement.tenant")
+                .tags("tenant", HOTEL.toString(), "type", "IN", "outcome", "success").timer();
+        assertThat(overall.count()).isEqualTo(1);
+        assertThat(perTenant.count()).isEqualTo(1);
+        assertThat(perTenant.totalTime(TimeUnit.NANOSECONDS)).isEqualTo(overall.totalTime(TimeUnit.NANOSECONDS));
+    }
+}
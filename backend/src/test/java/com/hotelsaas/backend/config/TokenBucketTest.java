@@ -0,0 +1,53 @@
+package com.hotelsaas.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void startsFullAndReportsTheWaitOnceEmpty() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+
+        long[] waits = {bucket.tryAcquire(), bucket.tryAcquire(), bucket.tryAcquire(), bucket.tryAcquire()};
+
+        assertThat(waits[0]).isZero();
+        assertThat(waits[1]).isZero();
+        assertThat(waits[2]).isZero();
+        // One token every 100 ms
+        assertThat(waits[3]).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void refillsAtTheRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 1);
+        bucket.tryAcquire();
+
+        long wait = bucket.tryAcquire();
+        assertThat(wait).isPositive();
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertThat(bucket.tryAcquire()).isZero();
+    }
+
+    @Test
+    void refillStopsAtTheCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+
+        // Long enough for three tokens, of which two fit
+        Thread.sleep(300);
+        // Taken back to back: time spent in the assertions would refill the bucket
+        long first = bucket.tryAcquire();
+        long second = bucket.tryAcquire();
+        long third = bucket.tryAcquire();
+
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isPositive();
+    }
+}
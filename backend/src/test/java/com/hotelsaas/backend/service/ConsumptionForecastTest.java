@@ -0,0 +1,95 @@
+package com.hotelsaas.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ConsumptionForecastTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 1, 5);
+    private static final double Z_95 = 1.65;
+
+    @Test
+    void noHistoryForecastsNothing() {
+        ConsumptionForecast.Result result = ConsumptionForecast.forecast(new double[0], MONDAY, MONDAY,
+                new ConsumptionForecast.Settings(28, 7, Z_95));
+
+        assertThat(result).isEqualTo(new ConsumptionForecast.Result(0, 0, 0, 0));
+    }
+
+    @Test
+    void steadyUsageNeedsNoSafetyStock() {
+        double[] usage = new double[28];
+        Arrays.fill(usage, 10);
+
+        ConsumptionForecast.Result result = ConsumptionForecast.forecast(usage, MONDAY, MONDAY.plusDays(28),
+                new ConsumptionForecast.Settings(28, 7, Z_95));
+
+        assertThat(result.averageDailyUsage()).isCloseTo(10, within(1e-9));
+        assertThat(result.forecastUsage()).isCloseTo(70, within(1e-9));
+        assertThat(result.safetyStock()).isCloseTo(0, within(1e-9));
+        assertThat(result.recommendedPar()).isCloseTo(70, within(1e-9));
+    }
+
+    @Test
+    void weekdaySeasonalityScalesTheHorizon() {
+        // Twice the usage at weekends, over two weeks starting on a Monday
+        double[] usage = new double[14];
+        for (int i = 0; i < usage.length; i++) {
+            DayOfWeek weekday = MONDAY.plusDays(i).getDayOfWeek();
+            usage[i] = weekday == DayOfWeek.SATURDAY || weekday == DayOfWeek.SUNDAY ? 20 : 10;
+        }
+        ConsumptionForecast.Settings settings = new ConsumptionForecast.Settings(14, 2, Z_95);
+
+        ConsumptionForecast.Result weekend = ConsumptionForecast.forecast(usage, MONDAY, MONDAY.plusDays(19), settings);
+        ConsumptionForecast.Result weekdays = ConsumptionForecast.forecast(usage, MONDAY, MONDAY.plusDays(14), settings);
+
+        assertThat(weekend.averageDailyUsage()).isCloseTo(90.0 / 7, within(1e-9));
+        assertThat(weekend.forecastUsage()).isCloseTo(40, within(1e-9));
+        assertThat(weekdays.forecastUsage()).isCloseTo(20, within(1e-9));
+        // The seasonal pattern explains the history exactly
+        assertThat(weekend.safetyStock()).isCloseTo(0, within(1e-9));
+    }
+
+    @Test
+    void levelFollowsTheRecentWindowAndSafetyStockTheSpread() {
+        // A week at 5 a day, then a week at 15: every weekday averages 10, so no seasonality
+        double[] usage = new double[14];
+        Arrays.fill(usage, 0, 7, 5);
+        Arrays.fill(usage, 7, 14, 15);
+
+        ConsumptionForecast.Result result = ConsumptionForecast.forecast(usage, MONDAY, MONDAY.plusDays(14),
+                new ConsumptionForecast.Settings(7, 3, Z_95));
+
+        assertThat(result.averageDailyUsage()).isCloseTo(15, within(1e-9));
+        assertThat(result.forecastUsage()).isCloseTo(45, within(1e-9));
+        // The first week is 10 below the level every day: sample deviation sqrt(7 * 100 / 13)
+        double dailyStdDev = Math.sqrt(700.0 / 13);
+        assertThat(result.safetyStock()).isCloseTo(Z_95 * dailyStdDev * Math.sqrt(3), within(1e-9));
+        assertThat(result.recommendedPar()).isCloseTo(result.forecastUsage() + result.safetyStock(), within(1e-9));
+    }
+
+    @Test
+    void windowLongerThanTheHistoryAveragesAllOfIt() {
+        double[] usage = {3, 6, 9};
+
+        ConsumptionForecast.Result result = ConsumptionForecast.forecast(usage, MONDAY, MONDAY.plusDays(7),
+                new ConsumptionForecast.Settings(28, 7, Z_95));
+
+        assertThat(result.averageDailyUsage()).isCloseTo(6, within(1e-9));
+    }
+
+    @Test
+    void singleDayHasNoSpread() {
+        ConsumptionForecast.Result result = ConsumptionForecast.forecast(new double[]{4}, MONDAY, MONDAY.plusDays(1),
+                new ConsumptionForecast.Settings(28, 7, Z_95));
+
+        assertThat(result.averageDailyUsage()).isCloseTo(4, within(1e-9));
+        assertThat(result.safetyStock()).isZero();
+    }
+}
@@ -0,0 +1,139 @@
+package com.hotelsaas.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CostLayersTest {
+
+    @Test
+    void issueConsumesOldestLayersFirst() {
+        CostLayers layers = new CostLayers();
+        layers.receive(1000, 20000); // 10.00 at 2.0000
+        layers.receive(500, 30000);  // 5.00 at 3.0000
+
+        CostLayers.Issue issue = layers.issue(1200, 0);
+
+        assertThat(issue.fifoValue()).isEqualTo(1000L * 20000 + 200L * 30000);
+        assertThat(layers.layerCount()).isEqualTo(1);
+        assertThat(layers.fifoQuantity()).isEqualTo(300);
+        assertThat(layers.fifoValue()).isEqualTo(300L * 30000);
+    }
+
+    @Test
+    void weightedAverageCostIsRoundedAndKeptAcrossIssues() {
+        CostLayers layers = new CostLayers();
+        layers.receive(1000, 20000);
+        layers.receive(500, 30000);
+
+        // (10.00 x 2 + 5.00 x 3) / 15.00 = 2.33333... -> 2.3333
+        assertThat(layers.wacCost()).isEqualTo(23333);
+        CostLayers.Issue issue = layers.issue(1200, 0);
+
+        assertThat(issue.wacValue()).isEqualTo(1200L * 23333);
+        assertThat(layers.wacQuantity()).isEqualTo(300);
+        assertThat(layers.wacCost()).isEqualTo(23333);
+    }
+
+    @Test
+    void issueBeyondKnownStockUsesFallbackCost() {
+        CostLayers layers = new CostLayers();
+        layers.receive(100, 10000);
+
+        CostLayers.Issue issue = layers.issue(150, 12000);
+
+        assertThat(issue.fifoValue()).isEqualTo(100L * 10000 + 50L * 12000);
+        assertThat(issue.wacValue()).isEqualTo(100L * 10000 + 50L * 12000);
+        assertThat(layers.layerCount()).isZero();
+        assertThat(layers.wacQuantity()).isZero();
+        assertThat(layers.wacCost()).isZero();
+    }
+
+    @Test
+    void receiptAtTheNewestCostExtendsThatLayer() {
+        CostLayers layers = new CostLayers();
+        layers.receive(100, 10000);
+        layers.receive(50, 10000);
+        layers.receive(0, 99999);
+
+        assertThat(layers.layerCount()).isEqualTo(1);
+        assertThat(layers.fifoQuantity()).isEqualTo(150);
+        assertThat(layers.wacCost()).isEqualTo(10000);
+    }
+
+    @Test
+    void layersSurviveGrowingAfterPartialConsumption() {
+        CostLayers layers = new CostLayers();
+        for (int i = 1; i <= 3; i++) {
+            layers.receive(10, i * 100L);
+        }
+        layers.issue(15, 0);
+        for (int i = 4; i <= 10; i++) {
+            layers.receive(10, i * 100L);
+        }
+
+        assertThat(layers.layerCount()).isEqualTo(9);
+        assertThat(layers.fifoQuantity()).isEqualTo(85);
+        // 5 left of the 200 layer, then full layers 300..1000
+        assertThat(layers.issue(5, 0).fifoValue()).isEqualTo(5L * 200);
+        assertThat(layers.issue(10, 0).fifoValue()).isEqualTo(10L * 300);
+    }
+
+    @Test
+    void layersRoundTripThroughEncoding() {
+        CostLayers layers = new CostLayers();
+        layers.receive(1, 1);
+        layers.receive(64, 1L << 40);
+        layers.receive(123_456, 98_765);
+        layers.issue(1, 0);
+
+        CostLayers decoded = CostLayers.decode(layers.encodeLayers(), layers.wacQuantity(), layers.wacCost());
+
+        assertThat(decoded.layerCount()).isEqualTo(2);
+        assertThat(decoded.fifoQuantity()).isEqualTo(layers.fifoQuantity());
+        assertThat(decoded.fifoValue()).isEqualTo(layers.fifoValue());
+        assertThat(decoded.wacQuantity()).isEqualTo(layers.wacQuantity());
+        assertThat(decoded.wacCost()).isEqualTo(layers.wacCost());
+        assertThat(decoded.encodeLayers()).isEqualTo(layers.encodeLayers());
+    }
+
+    @Test
+    void layersAreZigZagVarintEncoded() {
+        CostLayers small = new CostLayers();
+        small.receive(1, 1);
+        // Version, count 1, quantity 1, cost 1: zig-zag doubles each value, one byte apiece
+        assertThat(small.encodeLayers()).containsExactly(1, 2, 2, 2);
+
+        CostLayers wide = new CostLayers();
+        wide.receive(64, 1);
+        // 64 zig-zags to 128, which takes a continuation byte
+        assertThat(wide.encodeLayers()).containsExactly(1, 2, 0x80, 0x01, 2);
+    }
+
+    @Test
+    void emptyOrMissingLayersDecodeToNoStock() {
+        assertThat(CostLayers.decode(null, 0, 0).layerCount()).isZero();
+        assertThat(CostLayers.decode(new byte[0], 0, 0).fifoQuantity()).isZero();
+        assertThat(CostLayers.decode(new CostLayers().encodeLayers(), 0, 0).layerCount()).isZero();
+    }
+
+    @Test
+    void unknownFormatVersionIsRejected() {
+        assertThatThrownBy(() -> CostLayers.decode(new byte[]{2, 0}, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("format");
+    }
+
+    @Test
+    void amountsConvertToFixedPointUnits() {
+        assertThat(CostLayers.toQuantityUnits(new BigDecimal("1.005"))).isEqualTo(100);
+        assertThat(CostLayers.toQuantityUnits(new BigDecimal("-2.5"))).isEqualTo(-250);
+        assertThat(CostLayers.toCostUnits(new BigDecimal("2.33335"))).isEqualTo(23334);
+        assertThat(CostLayers.toCostUnits(null)).isZero();
+        assertThat(CostLayers.value(26_000_000)).isEqualByComparingTo("26");
+        assertThat(CostLayers.quantity(150)).isEqualTo(new BigDecimal("1.50"));
+    }
+}
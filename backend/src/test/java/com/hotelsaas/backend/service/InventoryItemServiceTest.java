@@ -0,0 +1,110 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.dto.InventoryItemDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryItemServiceTest {
+
+    private static final UUID HOTEL = new UUID(1, 1);
+    private static final UUID OTHER_HOTEL = new UUID(1, 2);
+    private static final UUID FLOUR = new UUID(2, 1);
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private InventoryItemService service;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE inventory_items (id UUID PRIMARY KEY, tenant_id UUID NOT NULL, name VARCHAR(255) NOT NULL,
+                    sku VARCHAR(255), unit VARCHAR(255), current_quantity NUMERIC(38, 2) NOT NULL,
+                    par_level NUMERIC(38, 2), unit_cost NUMERIC(38, 2), image_url VARCHAR(500), category_id UUID,
+                    supplier_id UUID, updated_at TIMESTAMP)""");
+        jdbcTemplate.update("INSERT INTO inventory_items (id, tenant_id, name, unit, current_quantity, par_level, unit_cost) "
+                + "VALUES (?, ?, 'Flour', 'kg', 10.00, 5.00, 1.20)", FLOUR, HOTEL);
+        // Only the catalog update is exercised; category and supplier lookups are not
+        service = new InventoryItemService(null, null, null, jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    private static InventoryItemDTO edit(BigDecimal currentQuantity) {
+        InventoryItemDTO dto = new InventoryItemDTO();
+        dto.setName("Bread flour");
+        dto.setUnit("kg");
+        dto.setCurrentQuantity(currentQuantity);
+        dto.setParLevel(new BigDecimal("20.00"));
+        dto.setUnitCost(new BigDecimal("1.30"));
+        return dto;
+    }
+
+    private Map<String, Object> flour() {
+        return jdbcTemplate.queryForMap("SELECT * FROM inventory_items WHERE id = ?", FLOUR);
+    }
+
+    @Test
+    void movementCommittedAfterTheItemWasReadIsKept() {
+        // The edit form was filled from the item as it was before the movement
+        InventoryItemDTO dto = edit((BigDecimal) flour().get("current_quantity"));
+        jdbcTemplate.update("UPDATE inventory_items SET current_quantity = current_quantity - 3 WHERE id = ?", FLOUR);
+
+        assertThat(service.updateCatalog(HOTEL, FLOUR, dto)).isEqualTo(1);
+
+        Map<String, Object> row = flour();
+        assertThat(row.get("current_quantity")).isEqualTo(new BigDecimal("7.00"));
+        assertThat(row.get("name")).isEqualTo("Bread flour");
+        assertThat(row.get("par_level")).isEqualTo(new BigDecimal("20.00"));
+        assertThat(row.get("updated_at")).isNotNull();
+    }
+
+    @Test
+    void editDuringAMovementWaitsForItAndKeepsIt() throws Exception {
+        try (Connection movement = dataSource.getConnection()) {
+            movement.setAutoCommit(false);
+            try (PreparedStatement statement = movement.prepareStatement(
+                    "UPDATE inventory_items SET current_quantity = current_quantity + 4 WHERE id = ?")) {
+                statement.setObject(1, FLOUR);
+                statement.executeUpdate();
+            }
+
+            CompletableFuture<Integer> update = CompletableFuture.supplyAsync(
+                    () -> service.updateCatalog(HOTEL, FLOUR, edit(new BigDecimal("10.00"))));
+            Thread.sleep(200);
+            assertThat(update).isNotDone();
+
+            movement.commit();
+            assertThat(update.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+
+        Map<String, Object> row = flour();
+        assertThat(row.get("current_quantity")).isEqualTo(new BigDecimal("14.00"));
+        assertThat(row.get("unit_cost")).isEqualTo(new BigDecimal("1.30"));
+    }
+
+    @Test
+    void itemOfAnotherTenantIsNotUpdated() {
+        assertThat(service.updateCatalog(OTHER_HOTEL, FLOUR, edit(BigDecimal.ZERO))).isZero();
+
+        assertThat(flour().get("name")).isEqualTo("Flour");
+    }
+}
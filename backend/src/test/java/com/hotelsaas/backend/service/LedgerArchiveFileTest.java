@@ -0,0 +1,119 @@
+package com.hotelsaas.backend.service;
+
+import com.hotelsaas.backend.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LedgerArchiveFileTest {
+
+    private static final UUID FLOUR = new UUID(1, 1);
+    private static final UUID MILK = new UUID(1, 2);
+    private static final UUID ANNA = new UUID(2, 1);
+    private static final UUID BEN = new UUID(2, 2);
+    private static final LocalDateTime MARCH = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    private static LedgerArchiveFile.Row row(int n, UUID itemId, UUID userId, TransactionType type, String quantity,
+                                             String cost, LocalDateTime timestamp) {
+        return new LedgerArchiveFile.Row(new UUID(3, n), itemId, itemId.equals(FLOUR) ? "Flour" : "Milk",
+                userId, userId.equals(ANNA) ? "Anna" : "Ben", type, new BigDecimal(quantity),
+                cost == null ? null : new BigDecimal(cost), timestamp);
+    }
+
+    private static List<LedgerArchiveFile.Row> month() {
+        return List.of(
+                row(1, FLOUR, ANNA, TransactionType.IN, "25.00", "1.20", MARCH.plusHours(8)),
+                row(2, MILK, ANNA, TransactionType.IN, "12.50", "0.95", MARCH.plusHours(8)),
+                row(3, FLOUR, BEN, TransactionType.OUT_USE, "-3.75", null, MARCH.plusDays(2).plusNanos(123_456_000)),
+                row(4, MILK, BEN, TransactionType.OUT_WASTE, "-0.01", "0.95", MARCH.plusDays(9)),
+                row(5, FLOUR, ANNA, TransactionType.AUDIT, "0.00", "-1.20", MARCH.plusDays(30).plusHours(23)));
+    }
+
+    @Test
+    void rowsRoundTripInOrder() {
+        List<LedgerArchiveFile.Row> rows = month();
+
+        List<LedgerArchiveFile.Row> decoded = LedgerArchiveFile.decode(LedgerArchiveFile.encode(rows));
+
+        assertThat(decoded).containsExactlyElementsOf(rows);
+    }
+
+    @Test
+    void headerHoldsCountAndRanges() {
+        LedgerArchiveFile.Stats stats = LedgerArchiveFile.stats(LedgerArchiveFile.encode(month()));
+
+        assertThat(stats.rowCount()).isEqualTo(5);
+        assertThat(stats.minTimestamp()).isEqualTo(MARCH.plusHours(8));
+        assertThat(stats.maxTimestamp()).isEqualTo(MARCH.plusDays(30).plusHours(23));
+        assertThat(stats.minQuantityChange()).isEqualTo(new BigDecimal("-3.75"));
+        assertThat(stats.maxQuantityChange()).isEqualTo(new BigDecimal("25.00"));
+    }
+
+    @Test
+    void timestampsKeepMicrosecondsAndAmountsTwoDecimals() {
+        List<LedgerArchiveFile.Row> rows = List.of(
+                row(1, FLOUR, ANNA, TransactionType.IN, "1.005", "2.015", MARCH.plusNanos(1_234_567)),
+                row(2, FLOUR, ANNA, TransactionType.OUT_USE, "-1", null, LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000)));
+
+        List<LedgerArchiveFile.Row> decoded = LedgerArchiveFile.decode(LedgerArchiveFile.encode(rows));
+
+        assertThat(decoded.get(0).timestamp()).isEqualTo(MARCH.plusNanos(1_234_000));
+        // Rounded half to even, like the NUMERIC(38, 2) ledger columns
+        assertThat(decoded.get(0).quantityChange()).isEqualTo(new BigDecimal("1.00"));
+        assertThat(decoded.get(0).costAtTransaction()).isEqualTo(new BigDecimal("2.02"));
+        assertThat(decoded.get(1).quantityChange()).isEqualTo(new BigDecimal("-1.00"));
+        assertThat(decoded.get(1).timestamp()).isEqualTo(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000));
+    }
+
+    @Test
+    void repeatedItemsAndUsersAreStoredOnce() {
+        List<LedgerArchiveFile.Row> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(row(i, i % 2 == 0 ? FLOUR : MILK, i % 3 == 0 ? ANNA : BEN, TransactionType.OUT_USE, "-1.00",
+                    "1.20", MARCH.plusMinutes(i)));
+        }
+
+        byte[] content = LedgerArchiveFile.encode(rows);
+
+        // Little more than the 16-byte id per row, which does not compress
+        assertThat(content.length).isLessThan(1000 * 20);
+        assertThat(LedgerArchiveFile.decode(content)).containsExactlyElementsOf(rows);
+    }
+
+    @Test
+    void nothingToArchiveIsRejected() {
+        assertThatThrownBy(() -> LedgerArchiveFile.encode(List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Nothing to archive");
+    }
+
+    @Test
+    void foreignOrDamagedContentIsRejected() {
+        byte[] content = LedgerArchiveFile.encode(month());
+
+        byte[] foreign = content.clone();
+        foreign[0] = 'X';
+        assertThatThrownBy(() -> LedgerArchiveFile.decode(foreign)).hasMessage("Not a ledger archive");
+
+        byte[] newerFormat = content.clone();
+        newerFormat[4] = 2;
+        assertThatThrownBy(() -> LedgerArchiveFile.stats(newerFormat)).hasMessageContaining("Unknown ledger archive format");
+
+        byte[] truncated = Arrays.copyOf(content, content.length - 10);
+        assertThatThrownBy(() -> LedgerArchiveFile.decode(truncated))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Corrupt ledger archive");
+
+        assertThatThrownBy(() -> LedgerArchiveFile.stats(Arrays.copyOf(content, 8)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Truncated ledger archive");
+    }
+}
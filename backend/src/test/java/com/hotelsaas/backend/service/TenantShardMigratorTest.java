@@ -0,0 +1,34 @@
+package com.hotelsaas.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantShardMigratorTest {
+
+    private static List<String> names(List<TenantShardMigrator.TableSpec> tables) {
+        return tables.stream().map(TenantShardMigrator.TableSpec::name).toList();
+    }
+
+    @Test
+    void changeTablesAreSyncedApartFromTheCatalog() {
+        List<String> catalog = names(TenantShardMigrator.tables(false));
+        List<String> changes = names(TenantShardMigrator.tables(true));
+
+        assertThat(changes).containsExactly("tenant_change_sequences", "change_log");
+        assertThat(catalog).doesNotContainAnyElementsOf(changes)
+                .containsSubsequence("tenants", "categories", "suppliers", "users", "inventory_items");
+        assertThat(catalog.size() + changes.size()).isEqualTo(TenantShardMigrator.TABLES.size());
+    }
+
+    @Test
+    void changeTablesAreDeletedAfterTheCatalogAndBeforeTheTenant() {
+        // The catalog deletes record tombstones on the source, which the cleanup must remove as well
+        List<String> deleteOrder = names(TenantShardMigrator.TABLES.reversed());
+
+        assertThat(deleteOrder).containsSubsequence("inventory_items", "users", "suppliers", "categories",
+                "change_log", "tenant_change_sequences", "tenants");
+    }
+}
@@ -0,0 +1,131 @@
+package com.hotelsaas.benchmarks;
+
+import com.hotelsaas.backend.model.Category;
+import com.hotelsaas.backend.model.InventoryItem;
+import com.hotelsaas.backend.model.Supplier;
+import com.hotelsaas.backend.model.Tenant;
+import com.hotelsaas.backend.model.TransactionType;
+import com.hotelsaas.backend.model.User;
+import com.hotelsaas.backend.model.UserRole;
+import com.hotelsaas.backend.model.UserStatus;
+import com.hotelsaas.backend.service.JwtService;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic test data shared by the benchmarks.
+ * A fixed seed keeps payloads identical between runs so results stay comparable.
+ */
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = "this_is_a_very_long_secret_key_for_benchmark_purpose_only_do_not_use";
+
+    private static final String[] UNITS = {"kg", "liter", "piece", "bottle", "box"};
+    private static final TransactionType[] MOVEMENT_TYPES = {
+            TransactionType.IN, TransactionType.OUT_USE, TransactionType.OUT_USE, TransactionType.OUT_WASTE
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * JwtService is field-injected by Spring, so the secret is set reflectively outside a context
+     */
+    static JwtService jwtService() {
+        JwtService jwtService = new JwtService();
+        try {
+            Field secretKey = JwtService.class.getDeclaredField("secretKey");
+            secretKey.setAccessible(true);
+            secretKey.set(jwtService, JWT_SECRET);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot configure JwtService", e);
+        }
+        return jwtService;
+    }
+
+    static Tenant tenant() {
+        Tenant tenant = new Tenant();
+        tenant.setId(new UUID(0L, 1L));
+        tenant.setName("Grand Hotel Benchmark");
+        tenant.setPlanType("PRO");
+        return tenant;
+    }
+
+    static List<User> users(int count) {
+        Tenant tenant = tenant();
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId(new UUID(1L, i));
+            user.setName("Staff Member " + i);
+            user.setEmail("staff" + i + "@grandhotel.example");
+            user.setRole(i == 0 ? UserRole.ORG_OWNER : UserRole.ORG_EMPLOYEE);
+            user.setPin(String.format("%05d", i % 100000));
+            user.setStatus(UserStatus.ACTIVE);
+            user.setTenant(tenant);
+            users.add(user);
+        }
+        return users;
+    }
+
+    static List<InventoryItem> inventoryItems(int count) {
+        Random random = new Random(42);
+        Tenant tenant = tenant();
+
+        Category category = new Category();
+        category.setId(new UUID(2L, 1L));
+        category.setName("Dry Goods");
+        category.setTenant(tenant);
+
+        Supplier supplier = new Supplier();
+        supplier.setId(new UUID(3L, 1L));
+        supplier.setName("Metro Wholesale");
+        supplier.setContactInfo("orders@metro.example");
+        supplier.setTenant(tenant);
+
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 8, 0);
+        List<InventoryItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            InventoryItem item = new InventoryItem();
+            item.setId(new UUID(4L, i));
+            item.setName("Item " + i);
+            item.setSku("SKU-" + (100000 + i));
+            item.setUnit(UNITS[i % UNITS.length]);
+            item.setCurrentQuantity(BigDecimal.valueOf(random.nextInt(100_000), 2));
+            item.setParLevel(BigDecimal.valueOf(random.nextInt(5_000), 2));
+            item.setUnitCost(BigDecimal.valueOf(50 + random.nextInt(10_000), 2));
+            item.setCategory(category);
+            item.setSupplier(supplier);
+            item.setTenant(tenant);
+            item.setImageUrl("https://storage.googleapis.com/hotel-saas-images/inventory/" + item.getId() + ".jpg");
+            item.setCreatedAt(createdAt);
+            item.setUpdatedAt(createdAt);
+            items.add(item);
+        }
+        return items;
+    }
+
+    static TransactionType[] movementTypes(int count) {
+        Random random = new Random(7);
+        TransactionType[] types = new TransactionType[count];
+        for (int i = 0; i < count; i++) {
+            types[i] = MOVEMENT_TYPES[random.nextInt(MOVEMENT_TYPES.length)];
+        }
+        return types;
+    }
+
+    static BigDecimal[] movementQuantities(int count) {
+        Random random = new Random(11);
+        BigDecimal[] quantities = new BigDecimal[count];
+        for (int i = 0; i < count; i++) {
+            quantities[i] = BigDecimal.valueOf(1 + random.nextInt(500), 2);
+        }
+        return quantities;
+    }
+}
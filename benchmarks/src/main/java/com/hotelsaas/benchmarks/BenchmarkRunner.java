@@ -0,0 +1,39 @@
+package com.hotelsaas.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Entry point of the shaded benchmarks jar.
+ * Accepts the regular JMH command line, but writes JSON results by default so runs
+ * can be compared across releases (e.g. with https://jmh.morethan.io or a diff script).
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            Path resultFile = Path.of(DEFAULT_RESULT_FILE);
+            Files.createDirectories(resultFile.toAbsolutePath().getParent());
+            options.result(resultFile.toString());
+        }
+
+        new Runner(options.build()).run();
+    }
+}
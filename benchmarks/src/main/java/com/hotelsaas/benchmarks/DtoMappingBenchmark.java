@@ -0,0 +1,49 @@
+package com.hotelsaas.benchmarks;
+
+import com.hotelsaas.backend.controller.UserController;
+import com.hotelsaas.backend.dto.UserDTO;
+import com.hotelsaas.backend.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity-to-DTO mapping as done by the list endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"50", "1000"})
+    public int userCount;
+
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        users = BenchmarkFixtures.users(userCount);
+    }
+
+    @Benchmark
+    public List<UserDTO> mapUsers() {
+        return users.stream()
+                .map(UserController::toDTO)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,50 @@
+package com.hotelsaas.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsaas.backend.controller.InventoryController;
+import com.hotelsaas.backend.dto.InventoryItemDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the inventory DTOs returned by the API ({@link InventoryController#toDTO}),
+ * configured like Spring Boot's auto-configured ObjectMapper. Mapping is left out; it is measured
+ * together with the encoding in {@link PayloadEncodingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventorySerializationBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int itemCount;
+
+    private ObjectMapper objectMapper;
+    private List<InventoryItemDTO> items;
+
+    @Setup
+    public void setUp() {
+        objectMapper = PayloadEncodingBenchmark.mapper("json");
+        items = BenchmarkFixtures.inventoryItems(itemCount).stream().map(InventoryController::toDTO).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeInventory() throws Exception {
+        return objectMapper.writeValueAsBytes(items);
+    }
+}
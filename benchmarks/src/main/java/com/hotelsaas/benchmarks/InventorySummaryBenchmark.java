@@ -0,0 +1,78 @@
+package com.hotelsaas.benchmarks;
+
+import com.hotelsaas.backend.dto.InventorySummaryDTO;
+import com.hotelsaas.backend.model.InventoryItem;
+import com.hotelsaas.backend.model.Tenant;
+import com.hotelsaas.backend.repository.InventoryItemRepository;
+import com.hotelsaas.backend.repository.TenantRepository;
+import com.hotelsaas.benchmarks.load.LoadHarness;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard figures (item count, low-stock count, total stock value) through the aggregate query
+ * behind GET /api/inventory/summary. The backend is booted as by {@link LoadHarness}, against H2
+ * unless -Dload.jdbc-url points at a Postgres, so the score includes the JDBC round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventorySummaryBenchmark {
+
+    @Param({"1000", "5000"})
+    public int itemCount;
+
+    private ConfigurableApplicationContext context;
+    private InventoryItemRepository inventoryItemRepository;
+    private UUID tenantId;
+
+    @Setup
+    public void setUp() {
+        context = LoadHarness.startBackend();
+        inventoryItemRepository = context.getBean(InventoryItemRepository.class);
+
+        Tenant tenant = new Tenant();
+        tenant.setName("Grand Hotel Benchmark");
+        tenant.setPlanType("PRO");
+        tenant = context.getBean(TenantRepository.class).save(tenant);
+        tenantId = tenant.getId();
+
+        List<InventoryItem> items = BenchmarkFixtures.inventoryItems(itemCount);
+        for (InventoryItem item : items) {
+            // Same quantities, par levels and costs as the other benchmarks, as new rows of this tenant
+            item.setId(null);
+            item.setTenant(tenant);
+            item.setCategory(null);
+            item.setSupplier(null);
+        }
+        inventoryItemRepository.saveAll(items);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public InventorySummaryDTO summarize() {
+        return inventoryItemRepository.summarize(tenantId);
+    }
+}
@@ -0,0 +1,56 @@
+package com.hotelsaas.benchmarks;
+
+import com.hotelsaas.backend.model.TransactionType;
+import com.hotelsaas.backend.service.StockLedgerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ledger application logic: turning movements into signed changes and folding them into on-hand stock.
+ * Reported per movement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LedgerApplicationBenchmark {
+
+    private static final int MOVEMENTS = 10_000;
+
+    private TransactionType[] types;
+    private BigDecimal[] quantities;
+    private BigDecimal openingQuantity;
+
+    @Setup
+    public void setUp() {
+        types = BenchmarkFixtures.movementTypes(MOVEMENTS);
+        quantities = BenchmarkFixtures.movementQuantities(MOVEMENTS);
+        // Large enough that replaying every movement never drives stock negative
+        openingQuantity = BigDecimal.valueOf(MOVEMENTS * 5L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVEMENTS)
+    public BigDecimal replayLedger() {
+        BigDecimal onHand = openingQuantity;
+        for (int i = 0; i < MOVEMENTS; i++) {
+            BigDecimal change = StockLedgerService.signedChange(types[i], quantities[i]);
+            onHand = StockLedgerService.applyChange(onHand, change);
+        }
+        return onHand;
+    }
+}
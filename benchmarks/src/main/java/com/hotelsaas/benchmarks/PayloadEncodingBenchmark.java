@@ -0,0 +1,92 @@
+package com.hotelsaas.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.hotelsaas.backend.controller.InventoryController;
+import com.hotelsaas.backend.model.InventoryItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GET /api/inventory response body for a large hotel: items mapped to DTOs while they are written,
+ * as the endpoint does, encoded as JSON, Smile or CBOR, optionally gzipped like server.compression.
+ * The score is the serialization CPU per response. JMH has no per-operation metric for the payload
+ * size, so {@link PayloadSizeReport} measures the size of each combination with the same encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadEncodingBenchmark {
+
+    @Param({"5000"})
+    public int itemCount;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper objectMapper;
+    private List<InventoryItem> items;
+    private ByteArrayOutputStream buffer;
+
+    @Setup
+    public void setUp() {
+        objectMapper = mapper(format);
+        items = BenchmarkFixtures.inventoryItems(itemCount);
+        buffer = new ByteArrayOutputStream(1 << 20);
+    }
+
+    @Benchmark
+    public int serializeInventory() throws IOException {
+        return encode(objectMapper, items, gzip, buffer);
+    }
+
+    static ObjectMapper mapper(String format) {
+        return switch (format) {
+            case "json" -> JsonMapper.builder().findAndAddModules()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case "smile" -> SmileMapper.builder().findAndAddModules()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case "cbor" -> CBORMapper.builder().findAndAddModules()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    /**
+     * Encode the items into the (reset) buffer
+     * @return the payload size in bytes
+     */
+    static int encode(ObjectMapper objectMapper, List<InventoryItem> items, boolean gzip,
+                      ByteArrayOutputStream buffer) throws IOException {
+        buffer.reset();
+        OutputStream out = gzip ? new GZIPOutputStream(buffer, 8192) : buffer;
+        objectMapper.writeValue(out, items.stream().map(InventoryController::toDTO));
+        // writeValue closes the target, which finishes the gzip trailer
+        return buffer.size();
+    }
+}
@@ -0,0 +1,49 @@
+package com.hotelsaas.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsaas.backend.model.InventoryItem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Payload sizes of the GET /api/inventory body for each encoding measured by
+ * {@link PayloadEncodingBenchmark}, written as a Markdown table next to the JMH results.
+ * Sizes are deterministic (the fixtures use a fixed seed), so one encoding per combination is enough.
+ */
+public final class PayloadSizeReport {
+
+    private static final String[] FORMATS = {"json", "smile", "cbor"};
+
+    private PayloadSizeReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int itemCount = Integer.getInteger("payload.items", 5000);
+        Path reportFile = Path.of(System.getProperty("payload.report", "target/payload-sizes.md"));
+
+        List<InventoryItem> items = BenchmarkFixtures.inventoryItems(itemCount);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+        StringBuilder table = new StringBuilder()
+                .append("| Format | Items | Bytes | Gzipped bytes | vs JSON gzipped |\n")
+                .append("|--------|------:|------:|--------------:|----------------:|\n");
+        int jsonGzipped = 0;
+        for (String format : FORMATS) {
+            ObjectMapper objectMapper = PayloadEncodingBenchmark.mapper(format);
+            int plain = PayloadEncodingBenchmark.encode(objectMapper, items, false, buffer);
+            int gzipped = PayloadEncodingBenchmark.encode(objectMapper, items, true, buffer);
+            if (format.equals("json")) {
+                jsonGzipped = gzipped;
+            }
+            table.append(String.format("| %s | %,d | %,d | %,d | %.0f%% |%n",
+                    format, itemCount, plain, gzipped, 100.0 * gzipped / jsonGzipped));
+        }
+
+        System.out.print(table);
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, table.toString());
+    }
+}
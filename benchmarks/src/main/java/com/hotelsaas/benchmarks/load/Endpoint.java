@@ -0,0 +1,32 @@
+package com.hotelsaas.benchmarks.load;
+
+/**
+ * API calls replayed by the load harness, named as they appear in the workload mix and the report.
+ */
+enum Endpoint {
+    LOGIN("login"),
+    MOVEMENT("movement"),
+    DASHBOARD("dashboard"),
+    INVENTORY("inventory"),
+    HISTORY("history"),
+    UPLOAD("upload");
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Endpoint fromKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equalsIgnoreCase(key.trim())) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in load.mix: " + key);
+    }
+}
@@ -0,0 +1,52 @@
+package com.hotelsaas.benchmarks.load;
+
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the GCS client, so image uploads can be exercised without network.
+ * Only the operations ImageStorageService uses are implemented; anything else fails loudly.
+ */
+final class InMemoryStorage {
+
+    private final Map<BlobId, byte[]> blobs = new ConcurrentHashMap<>();
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    Storage asStorage() {
+        return (Storage) Proxy.newProxyInstance(
+                Storage.class.getClassLoader(),
+                new Class<?>[]{Storage.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "create" -> create(args);
+                    case "delete" -> args.length > 0 && args[0] instanceof BlobId blobId
+                            && blobs.remove(blobId) != null;
+                    case "get" -> null;
+                    case "close" -> null;
+                    case "toString" -> "InMemoryStorage[" + blobs.size() + " blobs]";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(
+                            "Storage." + method.getName() + " is not supported by the load harness");
+                });
+    }
+
+    long storedBytes() {
+        return storedBytes.get();
+    }
+
+    private Object create(Object[] args) {
+        if (args.length < 2 || !(args[0] instanceof BlobInfo blobInfo) || !(args[1] instanceof byte[] content)) {
+            throw new UnsupportedOperationException("Only Storage.create(BlobInfo, byte[]) is supported");
+        }
+        blobs.put(blobInfo.getBlobId(), content);
+        storedBytes.addAndGet(content.length);
+        // ImageStorageService ignores the returned Blob
+        return null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.hotelsaas.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms.
+ * Response time is measured from the intended send time of the fixed-rate schedule, so queueing
+ * caused by a slow server is counted instead of hidden (coordinated omission). Service time is
+ * measured from the actual send and is reported alongside for comparison.
+ */
+final class LatencyReport {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Endpoint, Recorder> responseTimes = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Recorder> serviceTimes = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+
+    LatencyReport() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            responseTimes.put(endpoint, new Recorder(SIGNIFICANT_DIGITS));
+            serviceTimes.put(endpoint, new Recorder(SIGNIFICANT_DIGITS));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    void recordSuccess(Endpoint endpoint, long intendedStartNanos, long actualStartNanos, long endNanos) {
+        responseTimes.get(endpoint).recordValue(Math.max(0, (endNanos - intendedStartNanos) / 1000));
+        serviceTimes.get(endpoint).recordValue(Math.max(0, (endNanos - actualStartNanos) / 1000));
+    }
+
+    void recordError(Endpoint endpoint) {
+        errors.get(endpoint).increment();
+    }
+
+    /**
+     * Print the summary table and write one .hgrm percentile file per endpoint to the report directory
+     */
+    void write(LoadSettings settings, PrintStream out) throws IOException {
+        Files.createDirectories(settings.reportDir());
+        Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("Rate %.0f req/s for %ds (after %ds warmup), pool size %d%n",
+                settings.ratePerSecond(), settings.duration().toSeconds(), settings.warmup().toSeconds(),
+                settings.poolSize()));
+        table.append(String.format("%-10s %8s %7s %9s %9s %9s %9s %9s %9s   (ms, response time; svc = service time)%n",
+                "endpoint", "count", "errors", "p50", "p90", "p99", "p99.9", "max", "svc p99"));
+
+        for (Endpoint endpoint : settings.mix().keySet()) {
+            Histogram response = responseTimes.get(endpoint).getIntervalHistogram();
+            Histogram service = serviceTimes.get(endpoint).getIntervalHistogram();
+            total.add(response);
+
+            table.append(row(endpoint.key(), response, errors.get(endpoint).sum(), service));
+            try (PrintStream hgrm = new PrintStream(
+                    Files.newOutputStream(settings.reportDir().resolve(endpoint.key() + ".hgrm")))) {
+                response.outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+            }
+        }
+        long totalErrors = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        table.append(row("all", total, totalErrors, null));
+
+        out.print(table);
+        Files.writeString(settings.reportDir().resolve("summary.txt"), table.toString());
+        try (PrintStream hgrm = new PrintStream(Files.newOutputStream(settings.reportDir().resolve("all.hgrm")))) {
+            total.outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+        }
+    }
+
+    private static String row(String name, Histogram response, long errorCount, Histogram service) {
+        return String.format("%-10s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9s%n",
+                name,
+                response.getTotalCount(),
+                errorCount,
+                millis(response.getValueAtPercentile(50)),
+                millis(response.getValueAtPercentile(90)),
+                millis(response.getValueAtPercentile(99)),
+                millis(response.getValueAtPercentile(99.9)),
+                millis(response.getMaxValue()),
+                service != null ? String.format("%.2f", millis(service.getValueAtPercentile(99))) : "-");
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+}
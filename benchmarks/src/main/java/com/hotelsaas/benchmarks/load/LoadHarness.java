@@ -0,0 +1,369 @@
+package com.hotelsaas.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelsaas.backend.BackendApplication;
+import com.hotelsaas.backend.model.Category;
+import com.hotelsaas.backend.model.InventoryItem;
+import com.hotelsaas.backend.model.Supplier;
+import com.hotelsaas.backend.model.Tenant;
+import com.hotelsaas.backend.model.User;
+import com.hotelsaas.backend.model.UserRole;
+import com.hotelsaas.backend.model.UserStatus;
+import com.hotelsaas.backend.repository.CategoryRepository;
+import com.hotelsaas.backend.repository.InventoryItemRepository;
+import com.hotelsaas.backend.repository.SupplierRepository;
+import com.hotelsaas.backend.repository.TenantRepository;
+import com.hotelsaas.backend.repository.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load harness for a single backend instance.
+ * <p>
+ * Boots the backend in-process against an in-memory H2 database in PostgreSQL mode (or a local
+ * Postgres given by {@code -Dload.jdbc-url}) and an in-memory GCS stand-in, seeds tenants, staff and
+ * items, then replays a weighted mix of API calls at a fixed arrival rate over loopback HTTP.
+ * Requests are sent on schedule whether or not earlier ones completed, and latency is measured from
+ * the scheduled time, so a stalled server shows up in the percentiles instead of slowing the load.
+ * <p>
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.hotelsaas.benchmarks.load.LoadHarness}
+ */
+public final class LoadHarness {
+
+    private static final String BOUNDARY = "----load-harness-boundary";
+    private static final int HISTORY_PAGE_SIZE = 50;
+    private static final String H2_URL = "jdbc:h2:mem:loadharness;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=TIMESTAMP,VALUE;DB_CLOSE_DELAY=-1";
+
+    private final LoadSettings settings;
+    private final Random random;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyReport report = new LatencyReport();
+    private final List<TenantFixture> fixtures = new ArrayList<>();
+
+    private HttpClient httpClient;
+    private String baseUrl;
+    private byte[] uploadBody;
+
+    private LoadHarness(LoadSettings settings) {
+        this.settings = settings;
+        this.random = new Random(settings.seed());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        try (ConfigurableApplicationContext context = startBackend(settings)) {
+            new LoadHarness(settings).run(context);
+        }
+    }
+
+    /**
+     * Boot the backend as the harness does (-Dload.* settings apply) without replaying a workload,
+     * for benchmarks that call its beans directly
+     */
+    public static ConfigurableApplicationContext startBackend() {
+        return startBackend(LoadSettings.fromSystemProperties());
+    }
+
+    private static ConfigurableApplicationContext startBackend(LoadSettings settings) {
+        return new SpringApplicationBuilder(BackendApplication.class, LoadHarnessConfiguration.class)
+                .run(applicationArguments(settings));
+    }
+
+    /**
+     * Command line arguments take precedence over application.yml, which points at the dev database
+     */
+    static String[] applicationArguments(LoadSettings settings) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.hikari.maximum-pool-size=" + settings.poolSize(),
+                "--spring.datasource.hikari.minimum-idle=" + settings.poolSize(),
+                "--gcs.project-id=load-harness",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                // The harness measures raw capacity; per-tenant limits would cap it
+                "--app.admission.enabled=false",
+                // Every simulated tablet logs in from the same address
+                "--app.auth.pin-login.max-attempts-per-client=" + Integer.MAX_VALUE,
+                "--app.auth.pin-login.max-attempts-per-tenant=" + Integer.MAX_VALUE));
+        if (settings.usesExternalDatabase()) {
+            args.add("--spring.datasource.url=" + settings.jdbcUrl());
+            args.add("--spring.datasource.username=" + settings.jdbcUsername());
+            args.add("--spring.datasource.password=" + settings.jdbcPassword());
+        } else {
+            // The migrations are PostgreSQL-specific (partitioning, PL/pgSQL), so H2 gets a generated schema
+            args.add("--spring.flyway.enabled=false");
+            args.add("--spring.jpa.hibernate.ddl-auto=create-drop");
+            args.add("--app.ledger.partitions.enabled=false");
+            args.add("--app.ledger.archive.enabled=false");
+            args.add("--app.stock-snapshots.enabled=false");
+            args.add("--app.valuation.enabled=false");
+            args.add("--app.forecast.enabled=false");
+            args.add("--app.change-feed.tombstone-pruning.enabled=false");
+            args.add("--app.idempotency.pruning.enabled=false");
+            args.add("--spring.datasource.url=" + H2_URL);
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        }
+        if (settings.usesReplica()) {
+            args.add("--app.datasource.replica.enabled=true");
+            args.add("--app.datasource.replica.maximum-pool-size=" + settings.poolSize());
+            if (settings.usesReplicaStandIn()) {
+                args.add("--app.datasource.replica.url="
+                        + (settings.usesExternalDatabase() ? settings.jdbcUrl() : H2_URL));
+                if (!settings.usesExternalDatabase()) {
+                    args.add("--app.datasource.replica.username=sa");
+                    args.add("--app.datasource.replica.password=");
+                    // H2 has no replication functions; the stand-in is never behind
+                    args.add("--app.datasource.replica.lag-query=SELECT 0");
+                }
+            } else {
+                args.add("--app.datasource.replica.url=" + settings.replicaUrl());
+            }
+        }
+        return args.toArray(String[]::new);
+    }
+
+    private void run(ConfigurableApplicationContext context) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://127.0.0.1:" + port;
+        uploadBody = multipartBody(settings.uploadBytes());
+
+        seed(context);
+
+        ExecutorService responseExecutor = Executors.newFixedThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors()));
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(responseExecutor)
+                .build();
+        try {
+            login();
+            replay();
+            report.write(settings, System.out);
+            System.out.printf("Uploaded %d bytes to the storage stand-in%n",
+                    context.getBean(InMemoryStorage.class).storedBytes());
+        } finally {
+            responseExecutor.shutdownNow();
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        TenantRepository tenantRepository = context.getBean(TenantRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        SupplierRepository supplierRepository = context.getBean(SupplierRepository.class);
+        InventoryItemRepository inventoryItemRepository = context.getBean(InventoryItemRepository.class);
+
+        // Above the PINs in test-users.yml, which DataSeeder creates on startup
+        int pin = 60000;
+        for (int t = 0; t < settings.tenants(); t++) {
+            Tenant tenant = new Tenant();
+            tenant.setName("Load Hotel " + t);
+            tenant.setPlanType("PRO");
+            tenant = tenantRepository.save(tenant);
+
+            Category category = new Category();
+            category.setName("Kitchen");
+            category.setTenant(tenant);
+            category = categoryRepository.save(category);
+
+            Supplier supplier = new Supplier();
+            supplier.setName("Wholesaler " + t);
+            supplier.setTenant(tenant);
+            supplier = supplierRepository.save(supplier);
+
+            TenantFixture fixture = new TenantFixture();
+            fixture.tenantId = tenant.getId();
+            List<User> staff = new ArrayList<>();
+            for (int u = 0; u < settings.staffPerTenant(); u++) {
+                User user = new User();
+                user.setName("Staff " + t + "-" + u);
+                user.setEmail("staff" + u + "@hotel" + t + ".load");
+                user.setRole(u == 0 ? UserRole.ORG_OWNER : UserRole.ORG_EMPLOYEE);
+                user.setPin(String.valueOf(pin++));
+                user.setStatus(UserStatus.ACTIVE);
+                user.setTenant(tenant);
+                staff.add(user);
+                fixture.pins.add(user.getPin());
+            }
+            userRepository.saveAll(staff);
+
+            List<InventoryItem> items = new ArrayList<>();
+            for (int i = 0; i < settings.itemsPerTenant(); i++) {
+                InventoryItem item = new InventoryItem();
+                item.setName("Item " + i);
+                item.setSku("T" + t + "-" + i);
+                item.setUnit("piece");
+                // High opening stock so OUT movements never fail on insufficient stock
+                item.setCurrentQuantity(BigDecimal.valueOf(1_000_000));
+                item.setParLevel(BigDecimal.valueOf(random.nextInt(2_000_000)));
+                item.setUnitCost(BigDecimal.valueOf(100 + random.nextInt(5_000), 2));
+                item.setCategory(category);
+                item.setSupplier(supplier);
+                item.setTenant(tenant);
+                items.add(item);
+            }
+            inventoryItemRepository.saveAll(items).forEach(item -> fixture.itemIds.add(item.getId()));
+            fixtures.add(fixture);
+        }
+    }
+
+    /**
+     * Obtain one token per staff member before the measured run; later logins only add load
+     */
+    private void login() throws Exception {
+        for (TenantFixture fixture : fixtures) {
+            for (String pin : fixture.pins) {
+                HttpResponse<String> response = httpClient.send(loginRequest(fixture.tenantId, pin),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Seed login failed: " + response.statusCode() + " "
+                            + response.body());
+                }
+                JsonNode body = objectMapper.readTree(response.body());
+                fixture.tokens.add(body.get("token").asText());
+            }
+        }
+    }
+
+    private void replay() throws InterruptedException {
+        Endpoint[] endpoints = settings.mix().keySet().toArray(Endpoint[]::new);
+        int[] cumulativeWeights = new int[endpoints.length];
+        int totalWeight = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            totalWeight += settings.mix().get(endpoints[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.ratePerSecond());
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        Semaphore inFlight = new Semaphore(settings.maxInFlight());
+
+        for (long n = 0; ; n++) {
+            long intendedStart = start + n * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intendedStart) {
+                LockSupport.parkNanos(intendedStart - now);
+            }
+
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= pick) {
+                index++;
+            }
+            Endpoint endpoint = endpoints[index];
+            HttpRequest request = buildRequest(endpoint, fixtures.get(random.nextInt(fixtures.size())));
+            boolean measured = intendedStart >= measureFrom;
+
+            // Waiting for a permit delays the send but not the intended start, so the wait is still measured
+            inFlight.acquire();
+            long actualStart = System.nanoTime();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (!measured) {
+                            return;
+                        }
+                        if (error != null || response.statusCode() >= 400) {
+                            report.recordError(endpoint);
+                        } else {
+                            report.recordSuccess(endpoint, intendedStart, actualStart, System.nanoTime());
+                        }
+                    });
+        }
+
+        // Drain outstanding requests before reading the histograms
+        inFlight.acquire(settings.maxInFlight());
+        inFlight.release(settings.maxInFlight());
+    }
+
+    private HttpRequest buildRequest(Endpoint endpoint, TenantFixture fixture) {
+        String token = fixture.tokens.get(random.nextInt(fixture.tokens.size()));
+        return switch (endpoint) {
+            case LOGIN -> loginRequest(fixture.tenantId, fixture.pins.get(random.nextInt(fixture.pins.size())));
+            case MOVEMENT -> authorized("/api/transactions", token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(movementJson(fixture)))
+                    .build();
+            case DASHBOARD -> authorized("/api/inventory/summary", token).GET().build();
+            case INVENTORY -> authorized("/api/inventory", token).GET().build();
+            case HISTORY -> authorized("/api/transactions?limit=" + HISTORY_PAGE_SIZE, token).GET().build();
+            case UPLOAD -> authorized("/api/images/upload/inventory", token)
+                    .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(uploadBody))
+                    .build();
+        };
+    }
+
+    private HttpRequest loginRequest(UUID tenantId, String pin) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/pin-login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"tenantId\":\"" + tenantId + "\",\"pin\":\"" + pin + "\"}"))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private String movementJson(TenantFixture fixture) {
+        UUID itemId = fixture.itemIds.get(random.nextInt(fixture.itemIds.size()));
+        int roll = random.nextInt(100);
+        String type = roll < 70 ? "OUT_USE" : roll < 95 ? "IN" : "OUT_WASTE";
+        int quantity = 1 + random.nextInt(10);
+        return "{\"itemId\":\"" + itemId + "\",\"type\":\"" + type + "\",\"quantity\":" + quantity + "}";
+    }
+
+    private byte[] multipartBody(int imageBytes) {
+        byte[] image = new byte[imageBytes];
+        random.nextBytes(image);
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"photo.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] body = new byte[head.length + image.length + tail.length];
+        System.arraycopy(head, 0, body, 0, head.length);
+        System.arraycopy(image, 0, body, head.length, image.length);
+        System.arraycopy(tail, 0, body, head.length + image.length, tail.length);
+        return body;
+    }
+
+    private static final class TenantFixture {
+        private UUID tenantId;
+        private final List<String> pins = new ArrayList<>();
+        private final List<String> tokens = new ArrayList<>();
+        private final List<UUID> itemIds = new ArrayList<>();
+    }
+}
@@ -0,0 +1,24 @@
+package com.hotelsaas.benchmarks.load;
+
+import com.google.cloud.storage.Storage;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Beans the harness swaps in when booting the backend.
+ */
+@Configuration
+class LoadHarnessConfiguration {
+
+    @Bean
+    InMemoryStorage inMemoryStorage() {
+        return new InMemoryStorage();
+    }
+
+    @Bean
+    @Primary
+    Storage localStorage(InMemoryStorage inMemoryStorage) {
+        return inMemoryStorage.asStorage();
+    }
+}
@@ -0,0 +1,90 @@
+package com.hotelsaas.benchmarks.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Harness configuration, read from system properties (-Dload.rate=300 ...).
+ * Defaults model a mid-size hotel group at shift start on a prod-sized pool.
+ */
+record LoadSettings(
+        double ratePerSecond,
+        Duration warmup,
+        Duration duration,
+        Map<Endpoint, Integer> mix,
+        int tenants,
+        int staffPerTenant,
+        int itemsPerTenant,
+        int uploadBytes,
+        int poolSize,
+        int maxInFlight,
+        String jdbcUrl,
+        String jdbcUsername,
+        String jdbcPassword,
+        String replicaUrl,
+        Path reportDir,
+        long seed) {
+
+    static final String DEFAULT_MIX = "login:5,movement:35,dashboard:35,inventory:10,history:10,upload:5";
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Double.parseDouble(System.getProperty("load.rate", "200")),
+                Duration.ofSeconds(Long.getLong("load.warmup-seconds", 15)),
+                Duration.ofSeconds(Long.getLong("load.duration-seconds", 60)),
+                parseMix(System.getProperty("load.mix", DEFAULT_MIX)),
+                Integer.getInteger("load.tenants", 3),
+                Integer.getInteger("load.staff-per-tenant", 20),
+                Integer.getInteger("load.items-per-tenant", 500),
+                Integer.getInteger("load.upload-bytes", 200_000),
+                Integer.getInteger("load.pool-size", 5),
+                Integer.getInteger("load.max-in-flight", 512),
+                System.getProperty("load.jdbc-url", ""),
+                System.getProperty("load.jdbc-username", "postgres"),
+                System.getProperty("load.jdbc-password", "postgres"),
+                System.getProperty("load.replica-url", ""),
+                Path.of(System.getProperty("load.report-dir", "target/load-report")),
+                Long.getLong("load.seed", 42L));
+    }
+
+    /**
+     * Parse a weighted mix such as "login:5,movement:35"; endpoints left out are not called
+     */
+    static Map<Endpoint, Integer> parseMix(String spec) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Endpoint.fromKey(parts[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("load.mix selects no endpoint");
+        }
+        return mix;
+    }
+
+    boolean usesExternalDatabase() {
+        return !jdbcUrl.isBlank();
+    }
+
+    boolean usesReplica() {
+        return !replicaUrl.isBlank();
+    }
+
+    /**
+     * "primary" stands the primary database in for the replica, so routing runs through a second pool
+     */
+    boolean usesReplicaStandIn() {
+        return "primary".equals(replicaUrl);
+    }
+}
@@ -24,6 +24,12 @@ DB_USER="${DB_USER:-postgres}"
 
 # GCS Configuration
 GCS_BUCKET_NAME="${GCS_BUCKET_NAME:-hotel-saas-images}"
+# ledger_archive_bucket_name output of the Terraform in infra/
+GCS_LEDGER_ARCHIVE_BUCKET="${GCS_LEDGER_ARCHIVE_BUCKET:?Set GCS_LEDGER_ARCHIVE_BUCKET to the ledger archive bucket}"
+
+# Cloud Scheduler job triggers: jobs_trigger_audience and jobs_trigger_service_account Terraform outputs
+JOBS_TRIGGER_AUDIENCE="${JOBS_TRIGGER_AUDIENCE:?Set JOBS_TRIGGER_AUDIENCE}"
+JOBS_TRIGGER_SERVICE_ACCOUNT="${JOBS_TRIGGER_SERVICE_ACCOUNT:?Set JOBS_TRIGGER_SERVICE_ACCOUNT}"
 
 echo -e "${GREEN}Starting deployment of ${SERVICE_NAME}...${NC}"
 
@@ -79,11 +85,14 @@ gcloud run deploy ${SERVICE_NAME} \
     --set-env-vars "DB_PASSWORD=${DB_PASSWORD}" \
     --set-env-vars "GCS_PROJECT_ID=${PROJECT_ID}" \
     --set-env-vars "GCS_BUCKET_NAME=${GCS_BUCKET_NAME}" \
+    --set-env-vars "GCS_LEDGER_ARCHIVE_BUCKET=${GCS_LEDGER_ARCHIVE_BUCKET}" \
+    --set-env-vars "JOBS_TRIGGER_AUDIENCE=${JOBS_TRIGGER_AUDIENCE}" \
+    --set-env-vars "JOBS_TRIGGER_SERVICE_ACCOUNT=${JOBS_TRIGGER_SERVICE_ACCOUNT}" \
     --min-instances 0 \
     --max-instances 10 \
     --memory 512Mi \
     --cpu 1 \
-    --timeout 300 \
+    --timeout 1800 \
     --port 8080
 
 # Get the service URL
@@ -91,11 +100,11 @@ SERVICE_URL=$(gcloud run services describe ${SERVICE_NAME} --region ${REGION} --
 
 echo -e "${GREEN}Deployment successful!${NC}"
 echo -e "${GREEN}Backend URL: ${SERVICE_URL}${NC}"
-echo -e "${GREEN}Health check: ${SERVICE_URL}/actuator/health${NC}"
+echo -e "${GREEN}Health check: ${SERVICE_URL}/readyz${NC}"
 
 # Test the health endpoint
 echo -e "${YELLOW}Testing health endpoint...${NC}"
-if curl -f -s "${SERVICE_URL}/actuator/health" > /dev/null; then
+if curl -f -s "${SERVICE_URL}/readyz" > /dev/null; then
     echo -e "${GREEN}Health check passed!${NC}"
 else
     echo -e "${RED}Warning: Health check failed. Check logs with:${NC}"
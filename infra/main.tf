@@ -57,6 +57,7 @@ resource "google_project_service" "required_apis" {
     "run.googleapis.com",
     "secretmanager.googleapis.com",
     "cloudresourcemanager.googleapis.com",
+    "cloudscheduler.googleapis.com",
   ])
 
   service            = each.key
@@ -119,11 +120,12 @@ module "storage" {
   region      = var.region
   environment = var.environment
 
-  bucket_name           = "${var.project_name}-images-${var.environment}"
-  storage_class         = var.storage_class
-  enable_versioning     = var.enable_versioning
-  lifecycle_age         = var.lifecycle_age
-  enable_public_access  = var.enable_public_access
+  bucket_name                = "${var.project_name}-images-${var.environment}"
+  ledger_archive_bucket_name = "${var.project_name}-ledger-archive-${var.environment}"
+  storage_class              = var.storage_class
+  enable_versioning          = var.enable_versioning
+  lifecycle_age              = var.lifecycle_age
+  enable_public_access       = var.enable_public_access
 
   labels = local.common_tags
 
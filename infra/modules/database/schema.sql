@@ -1,124 +1,9 @@
--- Database schema for Hotel SaaS MVP
--- This schema matches the JPA entities in the backend
+-- Database bootstrap for Hotel SaaS
+--
+-- The application schema is owned by the backend's Flyway migrations
+-- (backend/src/main/resources/db/migration) and is applied automatically on startup.
+-- Creating tables here would conflict with those migrations, so this file only
+-- prepares database-level prerequisites.
 
 -- Enable UUID extension
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
-
--- Users table
-CREATE TABLE IF NOT EXISTS users (
-    id BIGSERIAL PRIMARY KEY,
-    name VARCHAR(255) NOT NULL,
-    email VARCHAR(255) UNIQUE NOT NULL,
-    role VARCHAR(50) NOT NULL CHECK (role IN ('ORG_OWNER', 'MANAGER', 'STAFF')),
-    pin VARCHAR(255) NOT NULL,
-    status VARCHAR(50) NOT NULL CHECK (status IN ('ACTIVE', 'INACTIVE', 'SUSPENDED')),
-    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
-
--- Create index on email for faster lookups
-CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
-CREATE INDEX IF NOT EXISTS idx_users_status ON users(status);
-
--- Inventory items table
-CREATE TABLE IF NOT EXISTS inventory_items (
-    id BIGSERIAL PRIMARY KEY,
-    name VARCHAR(255) NOT NULL,
-    description TEXT,
-    category VARCHAR(100) NOT NULL,
-    quantity INTEGER NOT NULL DEFAULT 0 CHECK (quantity >= 0),
-    min_quantity INTEGER NOT NULL DEFAULT 0 CHECK (min_quantity >= 0),
-    unit VARCHAR(50) NOT NULL,
-    cost_per_unit DECIMAL(10, 2),
-    supplier VARCHAR(255),
-    location VARCHAR(255),
-    image_url TEXT,
-    status VARCHAR(50) NOT NULL CHECK (status IN ('ACTIVE', 'INACTIVE', 'DISCONTINUED')),
-    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    created_by_id BIGINT REFERENCES users(id),
-    updated_by_id BIGINT REFERENCES users(id)
-);
-
--- Create indexes for inventory items
-CREATE INDEX IF NOT EXISTS idx_inventory_items_category ON inventory_items(category);
-CREATE INDEX IF NOT EXISTS idx_inventory_items_status ON inventory_items(status);
-CREATE INDEX IF NOT EXISTS idx_inventory_items_created_by ON inventory_items(created_by_id);
-
--- Inventory transactions table (for stock in/out tracking)
-CREATE TABLE IF NOT EXISTS inventory_transactions (
-    id BIGSERIAL PRIMARY KEY,
-    inventory_item_id BIGINT NOT NULL REFERENCES inventory_items(id) ON DELETE CASCADE,
-    transaction_type VARCHAR(50) NOT NULL CHECK (transaction_type IN ('STOCK_IN', 'STOCK_OUT', 'ADJUSTMENT')),
-    quantity INTEGER NOT NULL,
-    quantity_before INTEGER NOT NULL,
-    quantity_after INTEGER NOT NULL,
-    notes TEXT,
-    transaction_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    created_by_id BIGINT REFERENCES users(id),
-    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
-
--- Create indexes for transactions
-CREATE INDEX IF NOT EXISTS idx_transactions_item_id ON inventory_transactions(inventory_item_id);
-CREATE INDEX IF NOT EXISTS idx_transactions_type ON inventory_transactions(transaction_type);
-CREATE INDEX IF NOT EXISTS idx_transactions_date ON inventory_transactions(transaction_date);
-
--- Function to update updated_at timestamp
-CREATE OR REPLACE FUNCTION update_updated_at_column()
-RETURNS TRIGGER AS $$
-BEGIN
-    NEW.updated_at = CURRENT_TIMESTAMP;
-    RETURN NEW;
-END;
-$$ LANGUAGE plpgsql;
-
--- Triggers to automatically update updated_at
-CREATE TRIGGER update_users_updated_at
-    BEFORE UPDATE ON users
-    FOR EACH ROW
-    EXECUTE FUNCTION update_updated_at_column();
-
-CREATE TRIGGER update_inventory_items_updated_at
-    BEFORE UPDATE ON inventory_items
-    FOR EACH ROW
-    EXECUTE FUNCTION update_updated_at_column();
-
--- Grant permissions to the postgres user
-GRANT ALL PRIVILEGES ON ALL TABLES IN SCHEMA public TO postgres;
-GRANT ALL PRIVILEGES ON ALL SEQUENCES IN SCHEMA public TO postgres;
-GRANT EXECUTE ON ALL FUNCTIONS IN SCHEMA public TO postgres;
-
--- Create a view for low stock items
-CREATE OR REPLACE VIEW low_stock_items AS
-SELECT
-    id,
-    name,
-    category,
-    quantity,
-    min_quantity,
-    unit,
-    (min_quantity - quantity) AS shortage
-FROM inventory_items
-WHERE quantity < min_quantity
-  AND status = 'ACTIVE'
-ORDER BY (min_quantity - quantity) DESC;
-
--- Create a view for inventory value
-CREATE OR REPLACE VIEW inventory_value AS
-SELECT
-    category,
-    COUNT(*) AS item_count,
-    SUM(quantity) AS total_quantity,
-    SUM(quantity * COALESCE(cost_per_unit, 0)) AS total_value
-FROM inventory_items
-WHERE status = 'ACTIVE'
-GROUP BY category
-ORDER BY total_value DESC;
-
--- Comments for documentation
-COMMENT ON TABLE users IS 'User accounts for the hotel SaaS system';
-COMMENT ON TABLE inventory_items IS 'Inventory items tracked by the system';
-COMMENT ON TABLE inventory_transactions IS 'History of inventory stock movements';
-COMMENT ON VIEW low_stock_items IS 'Items that are below their minimum quantity threshold';
-COMMENT ON VIEW inventory_value IS 'Aggregate inventory value by category';
@@ -82,6 +82,29 @@ resource "google_storage_bucket_iam_member" "cloud_run_writer" {
   member = "serviceAccount:${var.cloud_run_sa_email}"
 }
 
+# Private bucket for archived ledger months (app.ledger.archive.bucket); never publicly readable.
+# Archives are written once and read only for audits, hence the colder storage class.
+resource "google_storage_bucket" "ledger_archive" {
+  name          = var.ledger_archive_bucket_name
+  location      = var.region
+  project       = var.project_id
+  storage_class = "NEARLINE"
+
+  force_destroy = var.environment != "prod"
+
+  uniform_bucket_level_access = true
+  public_access_prevention    = "enforced"
+
+  labels = var.labels
+}
+
+resource "google_storage_bucket_iam_member" "ledger_archive_writer" {
+  count  = var.cloud_run_sa_email != "" ? 1 : 0
+  bucket = google_storage_bucket.ledger_archive.name
+  role   = "roles/storage.objectAdmin"
+  member = "serviceAccount:${var.cloud_run_sa_email}"
+}
+
 # Create a folder structure in the bucket (optional)
 resource "google_storage_bucket_object" "folders" {
   for_each = toset([
@@ -19,3 +19,8 @@ output "bucket_id" {
   description = "The ID of the GCS bucket"
   value       = google_storage_bucket.images.id
 }
+
+output "ledger_archive_bucket_name" {
+  description = "The name of the ledger archive bucket (GCS_LEDGER_ARCHIVE_BUCKET)"
+  value       = google_storage_bucket.ledger_archive.name
+}
@@ -20,6 +20,11 @@ variable "bucket_name" {
   type        = string
 }
 
+variable "ledger_archive_bucket_name" {
+  description = "Name of the private GCS bucket for archived ledger months"
+  type        = string
+}
+
 variable "storage_class" {
   description = "Storage class for the bucket"
   type        = string
@@ -51,6 +51,21 @@ output "bucket_url" {
   value       = module.storage.bucket_url
 }
 
+output "ledger_archive_bucket_name" {
+  description = "The name of the ledger archive bucket"
+  value       = module.storage.ledger_archive_bucket_name
+}
+
+output "jobs_trigger_audience" {
+  description = "OIDC audience of the job triggers (JOBS_TRIGGER_AUDIENCE of the backend)"
+  value       = local.jobs_trigger_audience
+}
+
+output "jobs_trigger_service_account" {
+  description = "Service account calling the job triggers (JOBS_TRIGGER_SERVICE_ACCOUNT of the backend)"
+  value       = google_service_account.job_scheduler.email
+}
+
 output "bucket_self_link" {
   description = "The self-link of the GCS bucket"
   value       = module.storage.bucket_self_link
@@ -0,0 +1,52 @@
+# Cloud Scheduler triggers for the backend's maintenance jobs (POST /internal/jobs/{name}).
+# Cloud Run instances scaled to zero run no in-process schedule, so the prod profile disables the
+# jobs' crons and relies on these. Each call carries an OIDC token of the scheduler service account,
+# which the backend checks against JOBS_TRIGGER_AUDIENCE and JOBS_TRIGGER_SERVICE_ACCOUNT.
+# Times are UTC, matching the backend's defaults.
+
+locals {
+  jobs_trigger_audience = "${var.project_name}-jobs-${var.environment}"
+
+  backend_jobs = {
+    "ledger-partitions"     = "15 3 * * *"
+    "ledger-archive"        = "0 4 * * *"
+    "stock-snapshots"       = "30 0 * * *"
+    "par-recommendations"   = "0 2 * * *"
+    "change-log-prune"      = "15 1 * * *"
+    "idempotency-key-prune" = "5 * * * *"
+  }
+}
+
+resource "google_service_account" "job_scheduler" {
+  account_id   = "${var.project_name}-jobs-${var.environment}"
+  display_name = "Backend job scheduler (${var.environment})"
+  project      = var.project_id
+}
+
+resource "google_cloud_scheduler_job" "backend_jobs" {
+  for_each = var.backend_url != "" ? local.backend_jobs : {}
+
+  name      = "${var.project_name}-${each.key}-${var.environment}"
+  project   = var.project_id
+  region    = var.region
+  schedule  = each.value
+  time_zone = "Etc/UTC"
+  # The request lasts as long as the job; the service's request timeout must be at least this
+  attempt_deadline = "1800s"
+
+  retry_config {
+    retry_count = 1
+  }
+
+  http_target {
+    http_method = "POST"
+    uri         = "${trimsuffix(var.backend_url, "/")}/internal/jobs/${each.key}"
+
+    oidc_token {
+      service_account_email = google_service_account.job_scheduler.email
+      audience              = local.jobs_trigger_audience
+    }
+  }
+
+  depends_on = [google_project_service.required_apis]
+}
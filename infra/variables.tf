@@ -118,3 +118,10 @@ variable "enable_public_access" {
   type        = bool
   default     = true
 }
+
+# Scheduler variables
+variable "backend_url" {
+  description = "URL of the deployed backend service; Cloud Scheduler job triggers are created once set"
+  type        = string
+  default     = ""
+}